@@ -0,0 +1,335 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.mixer;
+
+import ch.bfh.unicrypt.math.algebra.general.classes.Pair;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductGroup;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarMod;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Off-heap vector of ElGamal ciphertexts, i.e. of elements of {@code ProductGroup(G_q,2)} for a group {@code G_q} of
+ * type {@link GStarMod}. Each ciphertext is stored as a record of two fixed-width unsigned big-endian values of
+ * {@code ceil(|p|/8)} bytes in a memory-mapped file, without any headers. The file is mapped in segments of at most
+ * {@link #MAX_SEGMENT_BYTES} bytes, which contain a whole number of records, such that vectors with millions of
+ * ciphertexts are supported. Ciphertexts are created as heap elements only when they are accessed, either by random
+ * access ({@link #get(int)}) or by sequential streaming ({@link #iterator()}).
+ * <p>
+ * Reading and writing different indices from different threads is safe. The vector can be shuffled directly by
+ * {@link ParallelReEncryptionMixer}, and chunks of it can be converted into tuples for the shuffle proof systems.
+ * <p>
+ * @see ch.bfh.unicrypt.crypto.mixer.MappedCiphertextVectorExample
+ */
+public class MappedCiphertextVector implements Iterable<Pair>, Closeable {
+
+	public static final int MAX_SEGMENT_BYTES = 1 << 30;
+
+	private final GStarMod group;
+	private final int size;
+	private final int width;
+	private final int recordSize;
+	private final int recordsPerSegment;
+	private final RandomAccessFile file;
+	private final boolean readOnly;
+	private final MappedByteBuffer[] segments;
+
+	private MappedCiphertextVector(GStarMod group, int size, RandomAccessFile file, boolean readOnly) throws IOException {
+		this.group = group;
+		this.size = size;
+		this.width = getWidth(group);
+		this.recordSize = 2 * this.width;
+		this.recordsPerSegment = MAX_SEGMENT_BYTES / this.recordSize;
+		this.file = file;
+		this.readOnly = readOnly;
+		int numberOfSegments = (size + this.recordsPerSegment - 1) / this.recordsPerSegment;
+		this.segments = new MappedByteBuffer[numberOfSegments];
+		FileChannel.MapMode mode = readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE;
+		for (int i = 0; i < numberOfSegments; i++) {
+			long offset = (long) i * this.recordsPerSegment * this.recordSize;
+			int records = Math.min(this.recordsPerSegment, size - i * this.recordsPerSegment);
+			this.segments[i] = file.getChannel().map(mode, offset, (long) records * this.recordSize);
+		}
+	}
+
+	/**
+	 * Creates a new file for the given number of ciphertexts. An existing file is overwritten. All values of the new
+	 * vector are initially zero, i.e. every index must be set before it is read.
+	 * <p>
+	 * @param file  The file
+	 * @param group The group {@code G_q}
+	 * @param size  The number of ciphertexts
+	 * @return The new vector
+	 * @throws IOException if the file cannot be created
+	 */
+	public static MappedCiphertextVector create(File file, GStarMod group, int size) throws IOException {
+		if (file == null || group == null || size < 0) {
+			throw new IllegalArgumentException();
+		}
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+		try {
+			randomAccessFile.setLength((long) size * 2 * getWidth(group));
+			return new MappedCiphertextVector(group, size, randomAccessFile, false);
+		} catch (IOException | RuntimeException exception) {
+			randomAccessFile.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * Opens an existing file. The number of ciphertexts is derived from the length of the file.
+	 * <p>
+	 * @param file     The file
+	 * @param group    The group {@code G_q}
+	 * @param readOnly {@code true} if the vector is only read
+	 * @return The vector
+	 * @throws IOException if the file cannot be opened
+	 */
+	public static MappedCiphertextVector open(File file, GStarMod group, boolean readOnly) throws IOException {
+		if (file == null || group == null) {
+			throw new IllegalArgumentException();
+		}
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, readOnly ? "r" : "rw");
+		try {
+			long recordSize = 2 * getWidth(group);
+			long length = randomAccessFile.length();
+			if (length % recordSize != 0 || length / recordSize > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException();
+			}
+			return new MappedCiphertextVector(group, (int) (length / recordSize), randomAccessFile, readOnly);
+		} catch (IOException | RuntimeException exception) {
+			randomAccessFile.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * Writes the ciphertexts of the given tuple into a new file.
+	 * <p>
+	 * @param file        The file
+	 * @param group       The group {@code G_q}
+	 * @param ciphertexts The ciphertexts
+	 * @return The new vector
+	 * @throws IOException if the file cannot be created
+	 */
+	public static MappedCiphertextVector create(File file, GStarMod group, Tuple ciphertexts) throws IOException {
+		if (ciphertexts == null) {
+			throw new IllegalArgumentException();
+		}
+		MappedCiphertextVector vector = MappedCiphertextVector.create(file, group, ciphertexts.getArity());
+		try {
+			for (int i = 0; i < ciphertexts.getArity(); i++) {
+				vector.set(i, ciphertexts.getAt(i));
+			}
+			return vector;
+		} catch (RuntimeException exception) {
+			vector.close();
+			throw exception;
+		}
+	}
+
+	public GStarMod getGroup() {
+		return this.group;
+	}
+
+	public ProductGroup getCiphertextSpace() {
+		return ProductGroup.getInstance(this.group, 2);
+	}
+
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the number of bytes of a single value, i.e. half the number of bytes of a ciphertext.
+	 * <p>
+	 * @return The width of a value
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+
+	public Pair get(int index) {
+		BigInteger[] values = this.getValues(index);
+		return Pair.getInstance(this.group.getElement(values[0]), this.group.getElement(values[1]));
+	}
+
+	/**
+	 * Returns the two values of the ciphertext at the given index without creating group elements.
+	 * <p>
+	 * @param index The index
+	 * @return The values of the ciphertext
+	 */
+	public BigInteger[] getValues(int index) {
+		ByteBuffer buffer = this.getRecord(index);
+		byte[] bytes = new byte[this.width];
+		buffer.get(bytes);
+		BigInteger left = new BigInteger(1, bytes);
+		buffer.get(bytes);
+		BigInteger right = new BigInteger(1, bytes);
+		return new BigInteger[]{left, right};
+	}
+
+	public void set(int index, Element ciphertext) {
+		if (ciphertext == null || !this.getCiphertextSpace().contains(ciphertext)) {
+			throw new IllegalArgumentException();
+		}
+		Tuple tuple = (Tuple) ciphertext;
+		this.setValues(index, tuple.getAt(0).convertToBigInteger(), tuple.getAt(1).convertToBigInteger());
+	}
+
+	public void setValues(int index, BigInteger left, BigInteger right) {
+		ByteBuffer buffer = this.getRecord(index);
+		this.putValue(buffer, left);
+		this.putValue(buffer, right);
+	}
+
+	public Tuple toTuple() {
+		return this.toTuple(0, this.size);
+	}
+
+	/**
+	 * Creates a tuple of the ciphertexts with indices {@code from,...,to-1}, for example to pass a chunk of the vector to
+	 * a method that requires a tuple.
+	 * <p>
+	 * @param from The first index (inclusive)
+	 * @param to   The last index (exclusive)
+	 * @return The tuple of ciphertexts
+	 */
+	public Tuple toTuple(int from, int to) {
+		if (from < 0 || to > this.size || from > to) {
+			throw new IllegalArgumentException();
+		}
+		Element[] ciphertexts = new Element[to - from];
+		for (int i = from; i < to; i++) {
+			ciphertexts[i - from] = this.get(i);
+		}
+		return Tuple.getInstance(ciphertexts);
+	}
+
+	/**
+	 * Returns an iterator, which reads the ciphertexts sequentially.
+	 * <p>
+	 * @return The iterator
+	 */
+	@Override
+	public Iterator<Pair> iterator() {
+		return new Iterator<Pair>() {
+
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return this.index < MappedCiphertextVector.this.size;
+			}
+
+			@Override
+			public Pair next() {
+				if (!this.hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return MappedCiphertextVector.this.get(this.index++);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+		};
+	}
+
+	/**
+	 * Writes all changes to the file.
+	 */
+	public void force() {
+		for (MappedByteBuffer segment : this.segments) {
+			segment.force();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.file.getChannel().isOpen() && !this.readOnly) {
+			this.force();
+		}
+		this.file.close();
+	}
+
+	// returns an independent view of the buffer positioned at the given record
+	private ByteBuffer getRecord(int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IllegalArgumentException();
+		}
+		ByteBuffer buffer = this.segments[index / this.recordsPerSegment].duplicate();
+		buffer.position((index % this.recordsPerSegment) * this.recordSize);
+		return buffer;
+	}
+
+	private void putValue(ByteBuffer buffer, BigInteger value) {
+		if (value == null || value.signum() < 0 || value.bitLength() > 8 * this.width) {
+			throw new IllegalArgumentException();
+		}
+		byte[] bytes = value.toByteArray();
+		// skip the sign byte and pad with leading zeros
+		int length = Math.min(bytes.length, this.width);
+		for (int i = length; i < this.width; i++) {
+			buffer.put((byte) 0);
+		}
+		buffer.put(bytes, bytes.length - length, length);
+	}
+
+	private static int getWidth(GStarMod group) {
+		return (group.getModulus().bitLength() + 7) / 8;
+	}
+
+}
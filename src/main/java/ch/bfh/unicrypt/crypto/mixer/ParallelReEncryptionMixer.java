@@ -0,0 +1,214 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.mixer;
+
+import ch.bfh.unicrypt.crypto.mixer.classes.ReEncryptionMixer;
+import ch.bfh.unicrypt.crypto.schemes.encryption.ElGamalBatchEncryption;
+import ch.bfh.unicrypt.crypto.schemes.encryption.classes.ElGamalEncryptionScheme;
+import ch.bfh.unicrypt.crypto.schemes.encryption.interfaces.ReEncryptionScheme;
+import ch.bfh.unicrypt.helper.ParallelLoop;
+import ch.bfh.unicrypt.math.algebra.general.classes.PermutationElement;
+import ch.bfh.unicrypt.math.algebra.general.classes.PermutationGroup;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel version of {@link ReEncryptionMixer#shuffle(Tuple, PermutationElement, Tuple)}. The results are identical
+ * to the results of the re-encryption mixer: the {@code i}-th output is the re-encryption of the {@code j}-th input
+ * with the {@code j}-th randomization, where {@code j} is the image of {@code i} under the permutation. Re-encryption
+ * and permutation are fused, i.e. each thread reads its inputs through the index array of the permutation and writes
+ * its outputs directly into the final array, from which the resulting tuple is created once. For the ElGamal
+ * encryption scheme, the re-encryptions are computed by {@link ElGamalBatchEncryption} with fixed-base tables for the
+ * generator and the public key.
+ * <p>
+ * @see ch.bfh.unicrypt.crypto.mixer.ParallelReEncryptionMixerExample
+ */
+public class ParallelReEncryptionMixer {
+
+	private final ReEncryptionMixer mixer;
+	private final ReEncryptionScheme reEncryptionScheme;
+	private final Element encryptionPK;
+	private final ElGamalBatchEncryption batchEncryption;
+	private final ForkJoinPool pool;
+
+	private ParallelReEncryptionMixer(ReEncryptionMixer mixer, ReEncryptionScheme reEncryptionScheme, Element encryptionPK, ForkJoinPool pool) {
+		this.mixer = mixer;
+		this.reEncryptionScheme = reEncryptionScheme;
+		this.encryptionPK = encryptionPK;
+		if (reEncryptionScheme instanceof ElGamalEncryptionScheme) {
+			this.batchEncryption = ElGamalBatchEncryption.getInstance((ElGamalEncryptionScheme) reEncryptionScheme, encryptionPK);
+		} else {
+			this.batchEncryption = null;
+		}
+		this.pool = pool;
+	}
+
+	public static ParallelReEncryptionMixer getInstance(ReEncryptionScheme reEncryptionScheme, Element encryptionPK, int size) {
+		return ParallelReEncryptionMixer.getInstance(reEncryptionScheme, encryptionPK, size, ParallelLoop.getDefaultPool());
+	}
+
+	/**
+	 * Returns a parallel re-encryption mixer, which runs on the threads of the given pool.
+	 * <p>
+	 * @param reEncryptionScheme The re-encryption scheme
+	 * @param encryptionPK       The public key
+	 * @param size               The number of ciphertexts
+	 * @param pool               The pool
+	 * @return The parallel re-encryption mixer
+	 */
+	public static ParallelReEncryptionMixer getInstance(ReEncryptionScheme reEncryptionScheme, Element encryptionPK, int size, ForkJoinPool pool) {
+		if (pool == null) {
+			throw new IllegalArgumentException();
+		}
+		ReEncryptionMixer mixer = ReEncryptionMixer.getInstance(reEncryptionScheme, encryptionPK, size);
+		return new ParallelReEncryptionMixer(mixer, reEncryptionScheme, encryptionPK, pool);
+	}
+
+	public ReEncryptionMixer getReEncryptionMixer() {
+		return this.mixer;
+	}
+
+	public ForkJoinPool getPool() {
+		return this.pool;
+	}
+
+	public int getSize() {
+		return this.mixer.getSize();
+	}
+
+	public PermutationGroup getPermutationGroup() {
+		return this.mixer.getPermutationGroup();
+	}
+
+	public Tuple generateRandomizations() {
+		return this.mixer.generateRandomizations();
+	}
+
+	public Tuple shuffle(Tuple ciphertexts) {
+		return this.shuffle(ciphertexts, this.getPermutationGroup().getRandomElement(), this.generateRandomizations());
+	}
+
+	public Tuple shuffle(Tuple ciphertexts, PermutationElement permutation) {
+		return this.shuffle(ciphertexts, permutation, this.generateRandomizations());
+	}
+
+	/**
+	 * Re-encrypts and permutes the given ciphertexts in parallel. This corresponds to calling
+	 * {@code mixer.shuffle(ciphertexts, permutation, randomizations)} of the underlying re-encryption mixer.
+	 * <p>
+	 * @param ciphertexts    The ciphertexts
+	 * @param permutation    The permutation
+	 * @param randomizations The randomizations
+	 * @return The shuffled ciphertexts
+	 */
+	public Tuple shuffle(Tuple ciphertexts, PermutationElement permutation, Tuple randomizations) {
+		int size = this.getSize();
+		if (ciphertexts == null || permutation == null || randomizations == null || ciphertexts.getArity() != size || randomizations.getArity() != size || !this.getPermutationGroup().contains(permutation)) {
+			throw new IllegalArgumentException();
+		}
+		final int[] indices = new int[size];
+		final Element[] inputs = new Element[size];
+		final Element[] rs = new Element[size];
+		for (int i = 0; i < size; i++) {
+			indices[i] = permutation.getValue().permute(i);
+			inputs[i] = ciphertexts.getAt(i);
+			rs[i] = randomizations.getAt(i);
+		}
+		final Element[] outputs = new Element[size];
+		ParallelLoop.run(this.pool, size, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				ParallelReEncryptionMixer mixer = ParallelReEncryptionMixer.this;
+				for (int i = from; i < to; i++) {
+					int j = indices[i];
+					if (mixer.batchEncryption == null) {
+						outputs[i] = mixer.reEncryptionScheme.reEncrypt(mixer.encryptionPK, inputs[j], rs[j]);
+					} else {
+						outputs[i] = mixer.batchEncryption.reEncrypt(inputs[j], rs[j]);
+					}
+				}
+			}
+
+		});
+		return Tuple.getInstance(outputs);
+	}
+
+	/**
+	 * Re-encrypts and permutes the ciphertexts of the input vector in parallel and writes the results into the output
+	 * vector. Only the ciphertexts currently processed by the threads are held on the heap.
+	 * <p>
+	 * @param input          The input vector
+	 * @param permutation    The permutation
+	 * @param randomizations The randomizations
+	 * @param output         The output vector of the same size
+	 */
+	public void shuffle(final MappedCiphertextVector input, PermutationElement permutation, final Tuple randomizations, final MappedCiphertextVector output) {
+		int size = this.getSize();
+		if (input == null || output == null || permutation == null || randomizations == null || input.getSize() != size || output.getSize() != size || randomizations.getArity() != size || !this.getPermutationGroup().contains(permutation)) {
+			throw new IllegalArgumentException();
+		}
+		final int[] indices = new int[size];
+		for (int i = 0; i < size; i++) {
+			indices[i] = permutation.getValue().permute(i);
+		}
+		ParallelLoop.run(this.pool, size, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				ParallelReEncryptionMixer mixer = ParallelReEncryptionMixer.this;
+				for (int i = from; i < to; i++) {
+					int j = indices[i];
+					Element ciphertext = input.get(j);
+					if (mixer.batchEncryption == null) {
+						output.set(i, mixer.reEncryptionScheme.reEncrypt(mixer.encryptionPK, ciphertext, randomizations.getAt(j)));
+					} else {
+						output.set(i, mixer.batchEncryption.reEncrypt(ciphertext, randomizations.getAt(j)));
+					}
+				}
+			}
+
+		});
+	}
+
+}
@@ -0,0 +1,125 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.mixer;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.crypto.mixer.classes.ReEncryptionMixer;
+import ch.bfh.unicrypt.crypto.schemes.encryption.ElGamalBatchDecryption;
+import ch.bfh.unicrypt.crypto.schemes.encryption.ElGamalBatchEncryption;
+import ch.bfh.unicrypt.crypto.schemes.encryption.classes.ElGamalEncryptionScheme;
+import ch.bfh.unicrypt.math.algebra.general.classes.Pair;
+import ch.bfh.unicrypt.math.algebra.general.classes.PermutationElement;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductGroup;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.CyclicGroup;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ *
+ * @see ParallelReEncryptionMixer
+ */
+public class ParallelReEncryptionMixerExample {
+
+	// Safe prime (same as in ShuffleProofSystemExample)
+	final static String P_2048 = "32317006071311007300714876688669951960444102669715484032130345427524655138867890893197201411522913463688717960921898019494119559150490921095088152386448283120630877367300996091750197750389652106796057638384067568276792218642619756161838094338476170470581645852036305042887575891541065808607552399123930385521914333389668342420684974786564569494856176035326322058077805659331026192708460314150258592864177116725943603718461857357598351152301645904403697613233287231227125684710820209725157101726931323469678542580656697935045997268352998638215525166389437335543602135433229604645318478604952148193555853611059594288367";
+
+	public static void example1() {
+
+		// Create cyclic group and ElGamal keys
+		CyclicGroup cyclicGroup = GStarModSafePrime.getInstance(new BigInteger(P_2048, 10));
+		ElGamalEncryptionScheme elGamal = ElGamalEncryptionScheme.getInstance(cyclicGroup.getDefaultGenerator());
+		Pair keyPair = elGamal.getKeyPairGenerator().generateKeyPair();
+		Element privateKey = keyPair.getFirst();
+		Element publicKey = keyPair.getSecond();
+
+		// Create random encryptions
+		int size = 1000;
+		Tuple messages = ProductGroup.getInstance(cyclicGroup, size).getRandomElement();
+		Tuple encryptions = ElGamalBatchEncryption.encrypt(elGamal, publicKey, messages);
+
+		// Create mixers, permutation, and randomizations
+		ReEncryptionMixer mixer = ReEncryptionMixer.getInstance(elGamal, publicKey, size);
+		ParallelReEncryptionMixer parallelMixer = ParallelReEncryptionMixer.getInstance(elGamal, publicKey, size);
+		PermutationElement permutation = mixer.getPermutationGroup().getRandomElement();
+		Tuple randomizations = mixer.generateRandomizations();
+
+		long time = System.currentTimeMillis();
+		Tuple shuffledEncryptions = mixer.shuffle(encryptions, permutation, randomizations);
+		long time1 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		Tuple parallelShuffledEncryptions = parallelMixer.shuffle(encryptions, permutation, randomizations);
+		long time2 = System.currentTimeMillis() - time;
+
+		Example.setLabelLength("Parallel Shuffle");
+		Example.printLine("Processors", Runtime.getRuntime().availableProcessors());
+		Example.printLine("Shuffle", time1 + " ms");
+		Example.printLine("Parallel Shuffle", time2 + " ms");
+		Example.printLine("Equal", shuffledEncryptions.isEquivalent(parallelShuffledEncryptions));
+		Example.printLine("Decryptions", ElGamalBatchDecryption.decrypt(elGamal, privateKey, parallelShuffledEncryptions).getArity());
+	}
+
+	public static void example2() {
+
+		// Shuffle with a pool of two threads
+		CyclicGroup cyclicGroup = GStarModSafePrime.getInstance(new BigInteger(P_2048, 10));
+		ElGamalEncryptionScheme elGamal = ElGamalEncryptionScheme.getInstance(cyclicGroup.getDefaultGenerator());
+		Element publicKey = elGamal.getKeyPairGenerator().generateKeyPair().getSecond();
+
+		int size = 100;
+		Tuple encryptions = ProductGroup.getInstance(elGamal.getEncryptionSpace(), size).getRandomElement();
+		ParallelReEncryptionMixer mixer = ParallelReEncryptionMixer.getInstance(elGamal, publicKey, size, new ForkJoinPool(2));
+		Tuple shuffledEncryptions = mixer.shuffle(encryptions);
+
+		Example.printLine("Pool", mixer.getPool().getParallelism());
+		Example.printLine("Encryptions", encryptions.getArity());
+		Example.printLine("Shuffled Encryptions", shuffledEncryptions.getArity());
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
@@ -44,6 +44,8 @@ package ch.bfh.unicrypt.crypto.mixer;
 import ch.bfh.unicrypt.Example;
 import ch.bfh.unicrypt.crypto.mixer.classes.ReEncryptionMixer;
 import ch.bfh.unicrypt.crypto.mixer.interfaces.Mixer;
+import ch.bfh.unicrypt.crypto.schemes.encryption.ElGamalBatchDecryption;
+import ch.bfh.unicrypt.crypto.schemes.encryption.ElGamalBatchEncryption;
 import ch.bfh.unicrypt.crypto.schemes.encryption.classes.ElGamalEncryptionScheme;
 import ch.bfh.unicrypt.helper.prime.SafePrime;
 import ch.bfh.unicrypt.math.algebra.general.classes.Pair;
@@ -79,10 +81,7 @@ public class ReEncryptionMixerExample {
 
 		// Create random encryptions
 		Tuple messages = ProductGroup.getInstance(cyclicGroup, size).getRandomElement();
-		Tuple encryptions = Tuple.getInstance();
-		for (int i = 0; i < size; i++) {
-			encryptions = encryptions.add(elGamal.encrypt(publicKey, messages.getAt(i)));
-		}
+		Tuple encryptions = ElGamalBatchEncryption.encrypt(elGamal, publicKey, messages);
 
 		// S H U F F L E
 		//---------------
@@ -92,10 +91,7 @@ public class ReEncryptionMixerExample {
 
 		// DECRYPTION
 		//-----------
-		Tuple decryptions = Tuple.getInstance();
-		for (int i = 0; i < size; i++) {
-			decryptions = decryptions.add(elGamal.decrypt(privateKey, shuffledEncyptions.getAt(i)));
-		}
+		Tuple decryptions = ElGamalBatchDecryption.decrypt(elGamal, privateKey, shuffledEncyptions);
 
 		Example.printLine("Cylic Group", cyclicGroup);
 		Example.printLines("Messages", messages);
@@ -123,10 +119,7 @@ public class ReEncryptionMixerExample {
 
 		// Create random encryptions
 		Tuple messages = ProductGroup.getInstance(cyclicGroup, size).getRandomElement();
-		Tuple encryptions = Tuple.getInstance();
-		for (int i = 0; i < size; i++) {
-			encryptions = encryptions.add(elGamal.encrypt(publicKey, messages.getAt(i)));
-		}
+		Tuple encryptions = ElGamalBatchEncryption.encrypt(elGamal, publicKey, messages);
 
 		// S H U F F L E
 		//---------------
@@ -143,10 +136,7 @@ public class ReEncryptionMixerExample {
 
 		// DECRYPTION
 		//-----------
-		Tuple decryptions = Tuple.getInstance();
-		for (int i = 0; i < size; i++) {
-			decryptions = decryptions.add(elGamal.decrypt(privateKey, shuffledEncyptions.getAt(i)));
-		}
+		Tuple decryptions = ElGamalBatchDecryption.decrypt(elGamal, privateKey, shuffledEncyptions);
 
 		Example.printLine("Cylic Group", cyclicGroup);
 		Example.printLines("Messages", messages);
@@ -0,0 +1,313 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.proofsystem;
+
+import ch.bfh.unicrypt.math.algebra.general.BinarySerializer;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Set;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Append-only log of ballots, i.e. of elements of a given set, for a bulletin board. The ballots are stored with the
+ * fixed-width encoding of {@link BinarySerializer} in a directory of segment files {@code segment-000000.log},
+ * {@code segment-000001.log}, etc., each of which contains at most {@code segmentSize} records. Since all records have
+ * the same length, the ballot with index {@code i} is read with a single positional read from the segment
+ * {@code i/segmentSize} at offset {@code (i mod segmentSize)*length}, and sequential readers use a {@link Cursor},
+ * which reads blocks of records and remembers its position. A verifier can therefore keep its cursor and read only
+ * the ballots appended since its last visit. Ballots are never copied into a tuple of the whole board.
+ * <p>
+ * When an existing log is opened, its size is derived from the lengths of the segment files, i.e. no ballot is read.
+ * An incomplete record at the end of the last segment, which may be left by an interrupted append, is removed. The
+ * reader needs to know the set of the ballots, see {@link BinarySerializer}.
+ * <p>
+ * Appends are serialized, reads are safe from any number of threads. A ballot becomes visible to readers after it has
+ * been written completely.
+ * <p>
+ * @see ch.bfh.unicrypt.crypto.proofsystem.BallotLogExample
+ */
+public class BallotLog implements Closeable {
+
+	public static final int DEFAULT_SEGMENT_SIZE = 1 << 16;
+	public static final int CURSOR_BLOCK_SIZE = 256;
+
+	private final Set ballotSpace;
+	private final BinarySerializer serializer;
+	private final File directory;
+	private final int segmentSize;
+	private final int length;
+	private final List<FileChannel> segments;
+	private volatile long size;
+
+	private BallotLog(Set ballotSpace, File directory, int segmentSize) {
+		this.ballotSpace = ballotSpace;
+		this.serializer = BinarySerializer.getInstance(ballotSpace);
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.length = this.serializer.getLength();
+		this.segments = new CopyOnWriteArrayList<>();
+	}
+
+	public static BallotLog open(File directory, Set ballotSpace) throws IOException {
+		return BallotLog.open(directory, ballotSpace, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Opens the log in the given directory. The directory is created if it does not exist. The ballot space and the
+	 * segment size must be the same as when the log was created.
+	 * <p>
+	 * @param directory   The directory
+	 * @param ballotSpace The set of the ballots
+	 * @param segmentSize The maximal number of ballots per segment file
+	 * @return The log
+	 * @throws IOException if the segment files cannot be opened
+	 */
+	public static BallotLog open(File directory, Set ballotSpace, int segmentSize) throws IOException {
+		if (directory == null || ballotSpace == null || segmentSize < 1) {
+			throw new IllegalArgumentException();
+		}
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Cannot create " + directory);
+		}
+		BallotLog log = new BallotLog(ballotSpace, directory, segmentSize);
+		log.recover();
+		return log;
+	}
+
+	public Set getBallotSpace() {
+		return this.ballotSpace;
+	}
+
+	public File getDirectory() {
+		return this.directory;
+	}
+
+	public int getSegmentSize() {
+		return this.segmentSize;
+	}
+
+	/**
+	 * Returns the number of ballots in the log. The ballots with indices smaller than the returned value can be read.
+	 * <p>
+	 * @return The number of ballots
+	 */
+	public long getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Appends a ballot to the end of the log.
+	 * <p>
+	 * @param ballot The ballot
+	 * @return The index of the ballot
+	 * @throws IOException if the ballot cannot be written
+	 */
+	public synchronized long append(Element ballot) throws IOException {
+		if (ballot == null || !this.ballotSpace.contains(ballot)) {
+			throw new IllegalArgumentException();
+		}
+		long index = this.size;
+		int segment = (int) (index / this.segmentSize);
+		if (segment == this.segments.size()) {
+			if (segment > 0) {
+				// the previous segment is complete
+				this.segments.get(segment - 1).force(false);
+			}
+			this.segments.add(this.openSegment(segment));
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(this.serializer.serialize(ballot));
+		FileChannel channel = this.segments.get(segment);
+		long position = (index % this.segmentSize) * this.length;
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+		this.size = index + 1;
+		return index;
+	}
+
+	/**
+	 * Reads the ballot with the given index.
+	 * <p>
+	 * @param index The index
+	 * @return The ballot
+	 * @throws IOException if the ballot cannot be read
+	 */
+	public Element get(long index) throws IOException {
+		if (index < 0 || index >= this.size) {
+			throw new IllegalArgumentException();
+		}
+		ByteBuffer buffer = this.read(index, 1);
+		return this.serializer.deserialize(buffer);
+	}
+
+	public Cursor getCursor() {
+		return this.getCursor(0);
+	}
+
+	/**
+	 * Returns a cursor, which reads the ballots sequentially starting at the given index.
+	 * <p>
+	 * @param position The index of the first ballot to read
+	 * @return The cursor
+	 */
+	public Cursor getCursor(long position) {
+		if (position < 0) {
+			throw new IllegalArgumentException();
+		}
+		return new Cursor(position);
+	}
+
+	/**
+	 * Writes all appended ballots to the storage device.
+	 * <p>
+	 * @throws IOException if the segment files cannot be written
+	 */
+	public synchronized void flush() throws IOException {
+		if (!this.segments.isEmpty()) {
+			this.segments.get(this.segments.size() - 1).force(false);
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		this.flush();
+		for (FileChannel segment : this.segments) {
+			segment.close();
+		}
+	}
+
+	/**
+	 * Sequential reader of the log. A cursor sees the ballots appended after its creation. Cursors are not thread-safe,
+	 * but each thread can use its own cursor.
+	 */
+	public class Cursor {
+
+		private long position;
+		private ByteBuffer buffer;
+
+		private Cursor(long position) {
+			this.position = position;
+		}
+
+		/**
+		 * Returns the index of the next ballot to read.
+		 * <p>
+		 * @return The position
+		 */
+		public long getPosition() {
+			return this.position;
+		}
+
+		public boolean hasNext() {
+			return (this.buffer != null && this.buffer.hasRemaining()) || this.position < BallotLog.this.size;
+		}
+
+		public Element next() throws IOException {
+			if (this.buffer == null || !this.buffer.hasRemaining()) {
+				long available = BallotLog.this.size - this.position;
+				if (available <= 0) {
+					throw new NoSuchElementException();
+				}
+				// read a block of records from the same segment
+				long remaining = BallotLog.this.segmentSize - this.position % BallotLog.this.segmentSize;
+				int count = (int) Math.min(CURSOR_BLOCK_SIZE, Math.min(available, remaining));
+				this.buffer = BallotLog.this.read(this.position, count);
+			}
+			this.position++;
+			return BallotLog.this.serializer.deserialize(this.buffer);
+		}
+
+	}
+
+	// reads count records of the same segment starting at the given index
+	private ByteBuffer read(long index, int count) throws IOException {
+		FileChannel channel = this.segments.get((int) (index / this.segmentSize));
+		ByteBuffer buffer = ByteBuffer.allocate(count * this.length);
+		long position = (index % this.segmentSize) * this.length;
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new EOFException();
+			}
+			position += read;
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	// derives the size from the lengths of the segment files
+	private void recover() throws IOException {
+		long segmentLength = (long) this.segmentSize * this.length;
+		for (int segment = 0; this.getSegmentFile(segment).exists(); segment++) {
+			FileChannel channel = this.openSegment(segment);
+			this.segments.add(channel);
+			long fileLength = channel.size();
+			if (fileLength > segmentLength || (segment > 0 && this.segments.get(segment - 1).size() != segmentLength)) {
+				// only the last segment can be incomplete
+				this.close();
+				throw new IllegalArgumentException();
+			}
+			if (fileLength % this.length != 0) {
+				// remove an incomplete record
+				channel.truncate(fileLength - fileLength % this.length);
+			}
+			this.size = (long) segment * this.segmentSize + channel.size() / this.length;
+		}
+	}
+
+	private FileChannel openSegment(int segment) throws IOException {
+		return new RandomAccessFile(this.getSegmentFile(segment), "rw").getChannel();
+	}
+
+	private File getSegmentFile(int segment) {
+		return new File(this.directory, String.format("segment-%06d.log", segment));
+	}
+
+}
@@ -0,0 +1,157 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.proofsystem;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductSet;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.file.Files;
+
+/**
+ *
+ * @see BallotLog
+ */
+public class BallotLogExample {
+
+	// Safe prime (same as in ShuffleProofSystemExample)
+	final static String P_1024 = "124839508901459225295131478904766553151715203799479873450319702669888301683936126519033292399204126892064039399466769614858812059914518351605494976695246338946504781671208279483554047133686061305170930849857475703281378907333309894394327830075584429809888154770188970744592711756609335320238222672153149255987";
+
+	public static void example1() throws IOException {
+
+		// Ballots consisting of two group elements and an exponent
+		GStarModSafePrime G_q = GStarModSafePrime.getInstance(new BigInteger(P_1024, 10));
+		ProductSet ballotSpace = ProductSet.getInstance(G_q, G_q, G_q.getZModOrder());
+		File directory = Files.createTempDirectory("ballots").toFile();
+
+		// Append ballots to small segments
+		int size = 10000;
+		BallotLog log = BallotLog.open(directory, ballotSpace, 1000);
+		BallotLog.Cursor cursor = log.getCursor();
+		Element[] ballots = new Element[size];
+		long time = System.currentTimeMillis();
+		for (int i = 0; i < size; i++) {
+			ballots[i] = ballotSpace.getRandomElement();
+			log.append(ballots[i]);
+		}
+		log.flush();
+		long time1 = System.currentTimeMillis() - time;
+
+		// Read all ballots with the cursor
+		time = System.currentTimeMillis();
+		boolean equal = true;
+		while (cursor.hasNext()) {
+			long position = cursor.getPosition();
+			equal = equal && cursor.next().isEquivalent(ballots[(int) position]);
+		}
+		long time2 = System.currentTimeMillis() - time;
+
+		// Random access
+		time = System.currentTimeMillis();
+		for (int i = 0; i < 1000; i++) {
+			int index = (int) (Math.random() * size);
+			equal = equal && log.get(index).isEquivalent(ballots[index]);
+		}
+		long time3 = System.currentTimeMillis() - time;
+		log.close();
+
+		Example.setLabelLength("Random Access (1000)");
+		Example.printLine("Ballots", log.getSize());
+		Example.printLine("Segments", directory.list().length);
+		Example.printLine("Append", time1 + " ms");
+		Example.printLine("Cursor", time2 + " ms");
+		Example.printLine("Random Access (1000)", time3 + " ms");
+		Example.printLine("Equal", equal);
+	}
+
+	public static void example2() throws IOException {
+
+		// Reopen a log after an interrupted append and read only the new ballots
+		GStarModSafePrime G_q = GStarModSafePrime.getInstance(new BigInteger(P_1024, 10));
+		ProductSet ballotSpace = ProductSet.getInstance(G_q, G_q, G_q.getZModOrder());
+		File directory = Files.createTempDirectory("ballots").toFile();
+
+		BallotLog log = BallotLog.open(directory, ballotSpace, 1000);
+		for (int i = 0; i < 2500; i++) {
+			log.append(ballotSpace.getRandomElement());
+		}
+		log.close();
+
+		// Simulate an incomplete record at the end of the last segment
+		File lastSegment = new File(directory, "segment-000002.log");
+		RandomAccessFile file = new RandomAccessFile(lastSegment, "rw");
+		file.setLength(file.length() + 100);
+		file.close();
+
+		long time = System.currentTimeMillis();
+		log = BallotLog.open(directory, ballotSpace, 1000);
+		long time1 = System.currentTimeMillis() - time;
+		long size = log.getSize();
+
+		// A verifier continues from its last position
+		BallotLog.Cursor cursor = log.getCursor(size);
+		for (int i = 0; i < 10; i++) {
+			log.append(ballotSpace.getRandomElement());
+		}
+		int count = 0;
+		while (cursor.hasNext()) {
+			cursor.next();
+			count++;
+		}
+		log.close();
+
+		Example.setLabelLength("New Ballots");
+		Example.printLine("Reopen", time1 + " ms");
+		Example.printLine("Ballots", size);
+		Example.printLine("New Ballots", count);
+		Example.printLine("Total", log.getSize());
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.proofsystem;
+
+import java.util.Arrays;
+
+/**
+ * The result of a batch verification of {@code n} proofs or signatures. It consists of the aggregate result and the
+ * indices of all proofs or signatures that failed individually. If the batch test succeeds, no individual test is
+ * performed and the list of failing indices is empty.
+ * <p>
+ * @see ch.bfh.unicrypt.crypto.proofsystem.SigmaProofBatchVerification
+ */
+public class BatchVerificationResult {
+
+	private final int size;
+	private final int[] failingIndices;
+
+	private BatchVerificationResult(int size, int[] failingIndices) {
+		this.size = size;
+		this.failingIndices = failingIndices;
+	}
+
+	public static BatchVerificationResult getInstance(int size, int... failingIndices) {
+		if (size < 0 || failingIndices == null) {
+			throw new IllegalArgumentException();
+		}
+		int[] indices = failingIndices.clone();
+		Arrays.sort(indices);
+		for (int i = 0; i < indices.length; i++) {
+			if (indices[i] < 0 || indices[i] >= size || (i > 0 && indices[i] == indices[i - 1])) {
+				throw new IllegalArgumentException();
+			}
+		}
+		return new BatchVerificationResult(size, indices);
+	}
+
+	public static BatchVerificationResult getInstance(boolean... results) {
+		if (results == null) {
+			throw new IllegalArgumentException();
+		}
+		int count = 0;
+		for (boolean result : results) {
+			count += result ? 0 : 1;
+		}
+		int[] indices = new int[count];
+		count = 0;
+		for (int i = 0; i < results.length; i++) {
+			if (!results[i]) {
+				indices[count++] = i;
+			}
+		}
+		return new BatchVerificationResult(results.length, indices);
+	}
+
+	/**
+	 * Returns the number of proofs or signatures of the batch.
+	 * <p>
+	 * @return The size of the batch
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Returns {@code true} if all proofs or signatures of the batch are valid.
+	 * <p>
+	 * @return The aggregate result
+	 */
+	public boolean isValid() {
+		return this.failingIndices.length == 0;
+	}
+
+	public boolean isValid(int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IllegalArgumentException();
+		}
+		return Arrays.binarySearch(this.failingIndices, index) < 0;
+	}
+
+	/**
+	 * Returns the indices of the invalid proofs or signatures in ascending order.
+	 * <p>
+	 * @return The failing indices
+	 */
+	public int[] getFailingIndices() {
+		return this.failingIndices.clone();
+	}
+
+	@Override
+	public String toString() {
+		return "BatchVerificationResult[size=" + this.size + ", failingIndices=" + Arrays.toString(this.failingIndices) + "]";
+	}
+
+}
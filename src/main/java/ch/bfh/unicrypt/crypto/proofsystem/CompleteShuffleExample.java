@@ -42,12 +42,14 @@
 package ch.bfh.unicrypt.crypto.proofsystem;
 
 import ch.bfh.unicrypt.Example;
-import ch.bfh.unicrypt.crypto.mixer.classes.ReEncryptionMixer;
+import ch.bfh.unicrypt.crypto.mixer.ParallelReEncryptionMixer;
 import ch.bfh.unicrypt.crypto.proofsystem.challengegenerator.interfaces.ChallengeGenerator;
 import ch.bfh.unicrypt.crypto.proofsystem.challengegenerator.interfaces.SigmaChallengeGenerator;
 import ch.bfh.unicrypt.crypto.proofsystem.classes.PermutationCommitmentProofSystem;
 import ch.bfh.unicrypt.crypto.proofsystem.classes.ReEncryptionShuffleProofSystem;
+import ch.bfh.unicrypt.crypto.schemes.commitment.PreparedPermutationCommitmentScheme;
 import ch.bfh.unicrypt.crypto.schemes.commitment.classes.PermutationCommitmentScheme;
+import ch.bfh.unicrypt.crypto.schemes.encryption.ElGamalBatchEncryption;
 import ch.bfh.unicrypt.crypto.schemes.encryption.classes.ElGamalEncryptionScheme;
 import ch.bfh.unicrypt.helper.math.Alphabet;
 import ch.bfh.unicrypt.helper.prime.SafePrime;
@@ -90,17 +92,13 @@ public class CompleteShuffleExample {
 
 		// Create ciphertexts
 		Tuple messages = ProductGroup.getInstance(G_q, size).getRandomElement();
-		Element[] ciphertextArray = new Element[size];
-		for (int i = 0; i < size; i++) {
-			ciphertextArray[i] = es.encrypt(publicKey, messages.getAt(i));
-		}
-		Tuple ciphertexts = Tuple.getInstance(ciphertextArray);
+		Tuple ciphertexts = ElGamalBatchEncryption.encrypt(es, publicKey, messages);
 
 		// S H U F F L E
 		//---------------
 		System.out.println("Shuffle...");
 		// Create mixer
-		ReEncryptionMixer mixer = ReEncryptionMixer.getInstance(es, publicKey, size);
+		ParallelReEncryptionMixer mixer = ParallelReEncryptionMixer.getInstance(es, publicKey, size);
 		// Create permutation
 		PermutationElement permutation = PermutationGroup.getInstance(size).getRandomElement();
 		// Create randomizations
@@ -183,17 +181,13 @@ public class CompleteShuffleExample {
 
 		// Create ciphertexts
 		Tuple messages = ProductGroup.getInstance(G_q, size).getRandomElement();
-		Element[] ciphertextArray = new Element[size];
-		for (int i = 0; i < size; i++) {
-			ciphertextArray[i] = es.encrypt(publicKey, messages.getAt(i));
-		}
-		Tuple ciphertexts = Tuple.getInstance(ciphertextArray);
+		Tuple ciphertexts = ElGamalBatchEncryption.encrypt(es, publicKey, messages);
 
 		// S H U F F L E
 		//---------------
 		System.out.println("Shuffle...");
 		// Create mixer
-		ReEncryptionMixer mixer = ReEncryptionMixer.getInstance(es, publicKey, size);
+		ParallelReEncryptionMixer mixer = ParallelReEncryptionMixer.getInstance(es, publicKey, size);
 		// Create permutation
 		PermutationElement permutation = PermutationGroup.getInstance(size).getRandomElement();
 		// Create randomizations
@@ -210,7 +204,7 @@ public class CompleteShuffleExample {
 		// Create permutation commitment
 		PermutationCommitmentScheme pcs = PermutationCommitmentScheme.getInstance(G_q, size, rrs);
 		Tuple permutationCommitmentRandomizations = pcs.getRandomizationSpace().getRandomElement();
-		Tuple permutationCommitment = pcs.commit(permutation, permutationCommitmentRandomizations);
+		Tuple permutationCommitment = PreparedPermutationCommitmentScheme.getInstance(pcs).commit(permutation, permutationCommitmentRandomizations);
 
 		// Create permutation commitment proof generator
 		SigmaChallengeGenerator scg = PermutationCommitmentProofSystem.createNonInteractiveSigmaChallengeGenerator(kc, proverId);
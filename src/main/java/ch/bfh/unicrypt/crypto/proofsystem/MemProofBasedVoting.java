@@ -48,16 +48,16 @@ import ch.bfh.unicrypt.crypto.proofsystem.classes.EqualityPreimageProofSystem;
 import ch.bfh.unicrypt.crypto.proofsystem.classes.PolynomialMembershipProofSystem;
 import ch.bfh.unicrypt.crypto.schemes.commitment.classes.GeneralizedPedersenCommitmentScheme;
 import ch.bfh.unicrypt.crypto.schemes.commitment.classes.PedersenCommitmentScheme;
+import ch.bfh.unicrypt.helper.ParallelLoop;
 import ch.bfh.unicrypt.helper.math.Alphabet;
 import ch.bfh.unicrypt.helper.math.MathUtil;
-import ch.bfh.unicrypt.helper.math.Polynomial;
 import ch.bfh.unicrypt.helper.random.RandomByteSequence;
 import ch.bfh.unicrypt.helper.random.deterministic.DeterministicRandomByteSequence;
 import ch.bfh.unicrypt.math.algebra.concatenative.classes.StringMonoid;
+import ch.bfh.unicrypt.math.algebra.dualistic.ZModPolynomialArithmetic;
 import ch.bfh.unicrypt.math.algebra.dualistic.classes.PolynomialElement;
-import ch.bfh.unicrypt.math.algebra.dualistic.classes.PolynomialSemiRing;
 import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZMod;
-import ch.bfh.unicrypt.math.algebra.dualistic.interfaces.DualisticElement;
+import ch.bfh.unicrypt.math.algebra.general.MultiExponentiation;
 import ch.bfh.unicrypt.math.algebra.general.classes.Pair;
 import ch.bfh.unicrypt.math.algebra.general.classes.ProductSet;
 import ch.bfh.unicrypt.math.algebra.general.classes.Subset;
@@ -65,13 +65,28 @@ import ch.bfh.unicrypt.math.algebra.general.classes.Triple;
 import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
 import ch.bfh.unicrypt.math.algebra.general.interfaces.CyclicGroup;
 import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Set;
 import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModPrime;
 import ch.bfh.unicrypt.math.function.classes.CompositeFunction;
 import ch.bfh.unicrypt.math.function.classes.GeneratorFunction;
 import ch.bfh.unicrypt.math.function.classes.SelectionFunction;
 import ch.bfh.unicrypt.math.function.interfaces.Function;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  *
@@ -114,31 +129,38 @@ public class MemProofBasedVoting {
 	// Ballot 1 is valid
 	//   > Time: 123580
 	//
+	// pi_1 is generated and verified by the library, ZModPolynomialArithmetic only speeds up the construction of the
+	// credential polynomial, so the times of pi_1 above are unchanged.
 	//
-	public static void main(String[] args) {
+	//
+	public static void main(String[] args) throws IOException {
 
 		// 0. Preparation
 		final CyclicGroup G_p = GStarModPrime.getInstance(new BigInteger(O, 10), new BigInteger(P, 10));
 		final CyclicGroup G_q = GStarModPrime.getInstance(new BigInteger(P, 10), new BigInteger(Q, 10));
-		final BulletinBoard BB = new BulletinBoard(G_p, G_q, 1, size);
-
-		Voter voter = new Voter("Voter X", G_p, G_q, BB);
-
-		// 1. Register
-		long time = System.currentTimeMillis();
-		voter.register();
-		System.out.println("  > Time: " + (System.currentTimeMillis() - time));
+		final StringMonoid votes = StringMonoid.getInstance(Alphabet.ALPHANUMERIC);
+		// the election parameters are created per run, so each run writes its ballot log into a new (or empty) directory
+		final File ballotDirectory = args.length > 0 ? new File(args[0]) : Files.createTempDirectory("ballots").toFile();
+		System.out.println("Ballot log: " + ballotDirectory);
+		try (BulletinBoard BB = new BulletinBoard(G_p, G_q, 1, size, ballotDirectory, votes.getElement("YES"), votes.getElement("NO"))) {
+			Verifier verifier = new Verifier(G_p, G_q, BB);
+			Voter voter = new Voter("Voter X", G_p, G_q, BB);
+
+			// 1. Register
+			long time = System.currentTimeMillis();
+			voter.register();
+			System.out.println("  > Time: " + (System.currentTimeMillis() - time));
 
-		// 2. Cast Ballot
-		time = System.currentTimeMillis();
-		voter.castBallot();
-		System.out.println("  > Time: " + (System.currentTimeMillis() - time));
+			// 2. Cast Ballot
+			time = System.currentTimeMillis();
+			voter.castBallot();
+			System.out.println("  > Time: " + (System.currentTimeMillis() - time));
 
-		// 3. Verify casted ballots
-		Verifier verifier = new Verifier(G_p, G_q, BB);
-		time = System.currentTimeMillis();
-		verifier.verifyBallots();
-		System.out.println("  > Time: " + (System.currentTimeMillis() - time));
+			// 3. Verify casted ballots
+			time = System.currentTimeMillis();
+			verifier.verifyBallots();
+			System.out.println("  > Time: " + (System.currentTimeMillis() - time));
+		}
 
 	}
 
@@ -171,55 +193,88 @@ public class MemProofBasedVoting {
 				bs[i] = this.G_q.getZModOrder().getRandomElement();
 			}
 			this.betas = Tuple.getInstance(bs);
-			Element u = BB.getComQ().getMessageGenerators().getAt(0).selfApply(this.alpha);
+			Element[] generators = new Element[this.betas.getArity() + 1];
+			BigInteger[] exponents = new BigInteger[this.betas.getArity() + 1];
+			generators[0] = BB.getComQ().getMessageGenerators().getAt(0);
+			exponents[0] = this.alpha.convertToBigInteger();
 			for (int i = 0; i < this.betas.getArity(); i++) {
-				u = u.apply(BB.getComQ().getMessageGenerators().getAt(i + 1).selfApply(this.betas.getAt(i)));
+				generators[i + 1] = BB.getComQ().getMessageGenerators().getAt(i + 1);
+				exponents[i + 1] = this.betas.getAt(i).convertToBigInteger();
 			}
-			this.u = u;
+			this.u = MultiExponentiation.multiSelfApply(this.G_q, generators, exponents);
 
 			BB.postCredential(this.voterId, this.u);
 			System.out.println("Voter: Registering done.");
 		}
 
-		public void castBallot() {
+		public void castBallot() throws IOException {
 			System.out.println("Voter: Ballot casting...");
 			final RandomByteSequence randomGenerator = DeterministicRandomByteSequence.getInstance();
 			Element v = StringMonoid.getInstance(Alphabet.ALPHANUMERIC).getElement("YES");
-			Element uHat = this.BB.getGHat().selfApply(this.betas.getAt(0));
+			final Element uHat = this.BB.getGHat().selfApply(this.betas.getAt(0));
 
-			// pi_1
-			long time = System.currentTimeMillis();
-			Element uInZp = this.G_p.getZModOrder().getElement(this.u.convertToBigInteger());
-			Element r = this.G_p.getZModOrder().getRandomElement(randomGenerator);
-			Element cu = this.BB.getComP().commit(uInZp, r);
+			// commitments
+			final Element uInZp = this.G_p.getZModOrder().getElement(this.u.convertToBigInteger());
+			final Element r = this.G_p.getZModOrder().getRandomElement(randomGenerator);
+			final Element cu = this.BB.getComP().commit(uInZp, r);
+			final Element s = this.G_q.getZModOrder().getRandomElement();
+			final Tuple m = this.betas.insert(this.alpha);
+			final Element cab = this.BB.getComQ().commit(m, s);
 
-			SigmaChallengeGenerator fsscg = FiatShamirSigmaChallengeGenerator.getInstance(this.BB.getComP().getMessageSpace(), v);
-			PolynomialMembershipProofSystem pmps = PolynomialMembershipProofSystem.getInstance(fsscg, this.BB.getCredentialPolynomial(), this.BB.getComP());
-			Tuple pi1 = pmps.generate(Tuple.getInstance(uInZp, r), cu);
-			System.out.println("  > Time pi_1: " + (System.currentTimeMillis() - time));
+			// the proofs are independent and generated concurrently
+			ForkJoinPool pool = ParallelLoop.getDefaultPool();
+			final SigmaChallengeGenerator fsscg = FiatShamirSigmaChallengeGenerator.getInstance(this.BB.getComP().getMessageSpace(), v);
+			final long time = System.currentTimeMillis();
 
-			// pi_2
-			time = System.currentTimeMillis();
-			Element s = this.G_q.getZModOrder().getRandomElement();
-			Tuple m = this.betas.insert(this.alpha);
-			Element cab = this.BB.getComQ().commit(m, s);
+			// pi_1 (generated and verified by the library, whose time is not changed by ZModPolynomialArithmetic)
+			final PolynomialMembershipProofSystem pmps = PolynomialMembershipProofSystem.getInstance(fsscg, this.BB.getCredentialPolynomial(), this.BB.getComP());
+			ForkJoinTask<TimedProof> task1 = pool.submit(new Callable<TimedProof>() {
+
+				@Override
+				public TimedProof call() {
+					Tuple pi1 = pmps.generate(Tuple.getInstance(uInZp, r), cu);
+					return new TimedProof(pi1, System.currentTimeMillis() - time);
+				}
+
+			});
+
+			// pi_2 (generated by the library, its rounds are not split, but it runs concurrently with pi_1 and pi_3)
+			final DoubleDiscreteLogProofSystem ddlps = DoubleDiscreteLogProofSystem.getInstance(fsscg, this.BB.getComP(), this.BB.getComQ(), SECURITY_FACTOR);
+			ForkJoinTask<TimedProof> task2 = pool.submit(new Callable<TimedProof>() {
 
-			DoubleDiscreteLogProofSystem ddlps = DoubleDiscreteLogProofSystem.getInstance(fsscg, this.BB.getComP(), this.BB.getComQ(), SECURITY_FACTOR);
-			Triple pi2 = ddlps.generate(Tuple.getInstance(uInZp, r, s, m), Pair.getInstance(cu, cab));
-			System.out.println("  > Time pi_2: " + (System.currentTimeMillis() - time));
+				@Override
+				public TimedProof call() {
+					Triple pi2 = ddlps.generate(Tuple.getInstance(uInZp, r, s, m), Pair.getInstance(cu, cab));
+					return new TimedProof(pi2, System.currentTimeMillis() - time);
+				}
+
+			});
 
 			// pi_3
-			time = System.currentTimeMillis();
 			ProductSet space = (ProductSet) this.BB.getComQ().getCommitmentFunction().getDomain();
 			Function f = CompositeFunction.getInstance(SelectionFunction.getInstance(space, 0, 1), GeneratorFunction.getInstance(this.BB.getGHat()));
 
 			SigmaChallengeGenerator fsscg2 = FiatShamirSigmaChallengeGenerator.getInstance(this.G_q.getZModOrder(), v);
-			EqualityPreimageProofSystem apps = EqualityPreimageProofSystem.getInstance(fsscg2, this.BB.getComQ().getCommitmentFunction(), f);
-
-			Triple pi3 = apps.generate(Tuple.getInstance(m, s), Tuple.getInstance(cab, uHat));
-			System.out.println("  > Time pi_3: " + (System.currentTimeMillis() - time));
-
-			Tuple proof = Tuple.getInstance(pi1, pi2, pi3);
+			final EqualityPreimageProofSystem apps = EqualityPreimageProofSystem.getInstance(fsscg2, this.BB.getComQ().getCommitmentFunction(), f);
+			ForkJoinTask<TimedProof> task3 = pool.submit(new Callable<TimedProof>() {
+
+				@Override
+				public TimedProof call() {
+					Triple pi3 = apps.generate(Tuple.getInstance(m, s), Tuple.getInstance(cab, uHat));
+					return new TimedProof(pi3, System.currentTimeMillis() - time);
+				}
+
+			});
+
+			// the times are printed by this thread, in the order of the proofs
+			TimedProof pi1 = task1.join();
+			TimedProof pi2 = task2.join();
+			TimedProof pi3 = task3.join();
+			System.out.println("  > Time pi_1: " + pi1.time);
+			System.out.println("  > Time pi_2: " + pi2.time);
+			System.out.println("  > Time pi_3: " + pi3.time);
+
+			Tuple proof = Tuple.getInstance(pi1.proof, pi2.proof, pi3.proof);
 			Tuple ballot = Tuple.getInstance(v, Triple.getInstance(cu, cab, uHat), proof);
 			this.BB.postBallot(ballot);
 			System.out.println("Voter: Ballot casting done.");
@@ -227,68 +282,248 @@ public class MemProofBasedVoting {
 
 	}
 
+	// a proof and the time from the start of the proof generation until the proof was available
+	private static class TimedProof {
+
+		private final Tuple proof;
+		private final long time;
+
+		private TimedProof(final Tuple proof, final long time) {
+			this.proof = proof;
+			this.time = time;
+		}
+
+	}
+
 	private static class Verifier {
 
+		// number of ballots read from the log and verified together
+		private static final int CHUNK_SIZE = BallotLog.CURSOR_BLOCK_SIZE;
+
 		private final CyclicGroup G_p;
 		private final CyclicGroup G_q;
 
 		private final BulletinBoard BB;
 
+		// reads the ballots that have not been verified yet
+		private final BallotLog.Cursor cursor;
+		private VerificationContext context;
+
 		private Verifier(final CyclicGroup G_p, final CyclicGroup G_q, final BulletinBoard BB) {
 			this.G_p = G_p;
 			this.G_q = G_q;
 			this.BB = BB;
+			this.cursor = BB.getBallotCursor(0);
 		}
 
-		public void verifyBallots() {
+		// verifies the ballots posted since the last call
+		public void verifyBallots() throws IOException {
 			System.out.println("Start verifying...");
 
-			Tuple ballots = this.BB.getBallots();
-			for (int i = 0; i < ballots.getArity(); i++) {
-				Tuple ballot = (Tuple) ballots.getAt(i);
-				Element v = ballot.getAt(0);
-				Triple coms = (Triple) ballot.getAt(1);
-				Triple proof = (Triple) ballot.getAt(2);
+			// the context is rebuilt only if the credential polynomial has changed
+			if (this.context == null || this.context.getCredentialPolynomial() != this.BB.getCredentialPolynomial()) {
+				this.context = new VerificationContext(this.G_p, this.G_q, this.BB);
+				System.out.println("Credential polynomial is " + (this.context.isConsistent() ? "consistent" : "INCONSISTENT"));
+			}
 
-				FiatShamirSigmaChallengeGenerator fsscg = FiatShamirSigmaChallengeGenerator.getInstance(this.BB.getComP().getMessageSpace(), v);
-				PolynomialMembershipProofSystem pmps = PolynomialMembershipProofSystem.getInstance(fsscg, this.BB.getCredentialPolynomial(), this.BB.getComP());
-				DoubleDiscreteLogProofSystem ddlps = DoubleDiscreteLogProofSystem.getInstance(fsscg, this.BB.getComP(), this.BB.getComQ(), SECURITY_FACTOR);
+			// only the new ballots are read from the log, one chunk at a time
+			List<Tuple> ballots = new ArrayList<>();
+			while (this.cursor.hasNext()) {
+				long first = this.cursor.getPosition();
+				ballots.clear();
+				while (this.cursor.hasNext() && ballots.size() < CHUNK_SIZE) {
+					ballots.add(this.BB.getBallot(this.cursor.next()));
+				}
+				this.verifyBallots(first, ballots);
+			}
+		}
 
-				ProductSet space = (ProductSet) this.BB.getComQ().getCommitmentFunction().getDomain();
-				Function f = CompositeFunction.getInstance(SelectionFunction.getInstance(space, 0, 1), GeneratorFunction.getInstance(this.BB.getGHat()));
-				SigmaChallengeGenerator fsscg2 = FiatShamirSigmaChallengeGenerator.getInstance(this.G_q.getZModOrder(), v);
-				EqualityPreimageProofSystem apps = EqualityPreimageProofSystem.getInstance(fsscg2, this.BB.getComQ().getCommitmentFunction(), f);
+		private void verifyBallots(long first, final List<Tuple> ballots) {
+			// the proofs pi_1 and pi_2 of different ballots are verified in parallel
+			final boolean[] valid = new boolean[ballots.size()];
+			final VerificationContext context = this.context;
+			ParallelLoop.run(ballots.size(), new ParallelLoop.Body() {
+
+				@Override
+				public void run(int from, int to) {
+					for (int i = from; i < to; i++) {
+						Triple coms = (Triple) ballots.get(i).getAt(1);
+						Triple proof = (Triple) ballots.get(i).getAt(2);
+						VerificationContext.ProofSystems proofSystems = context.getProofSystems(ballots.get(i).getAt(0));
+						valid[i] = proofSystems.pmps.verify(proof.getFirst(), coms.getFirst());
+						valid[i] = valid[i] && proofSystems.ddlps.verify(proof.getSecond(), Pair.getInstance(coms.getFirst(), coms.getSecond()));
+					}
+				}
+
+			});
+
+			// the proofs pi_3 of all ballots with the same vote are verified as a batch
+			Map<Element, List<Integer>> indicesByVote = new LinkedHashMap<>();
+			for (int i = 0; i < ballots.size(); i++) {
+				Element v = ballots.get(i).getAt(0);
+				List<Integer> indices = indicesByVote.get(v);
+				if (indices == null) {
+					indices = new ArrayList<>();
+					indicesByVote.put(v, indices);
+				}
+				indices.add(i);
+			}
 
-				boolean verify = pmps.verify(proof.getFirst(), coms.getFirst());
-				verify = verify && ddlps.verify(proof.getSecond(), Pair.getInstance(coms.getFirst(), coms.getSecond()));
-				verify = verify && apps.verify(proof.getThird(), Pair.getInstance(coms.getSecond(), coms.getThird()));
+			for (Map.Entry<Element, List<Integer>> entry : indicesByVote.entrySet()) {
+				EqualityPreimageProofSystem apps = this.context.getProofSystems(entry.getKey()).apps;
+
+				List<Element> proofs = new ArrayList<>();
+				List<Element> publicInputs = new ArrayList<>();
+				for (int i : entry.getValue()) {
+					Tuple ballot = ballots.get(i);
+					Triple coms = (Triple) ballot.getAt(1);
+					proofs.add(((Triple) ballot.getAt(2)).getThird());
+					publicInputs.add(Pair.getInstance(coms.getSecond(), coms.getThird()));
+				}
+				BatchVerificationResult result = SigmaProofBatchVerification.verifyBatch(apps, proofs, publicInputs);
+				for (int j : result.getFailingIndices()) {
+					valid[entry.getValue().get(j)] = false;
+				}
+			}
 
-				System.out.println("Ballot " + (i + 1) + " is " + (verify ? "valid" : "INVALID"));
+			for (int i = 0; i < valid.length; i++) {
+				System.out.println("Ballot " + (first + i + 1) + " is " + (valid[i] ? "valid" : "INVALID"));
 			}
 		}
 
 	}
 
-	private static class BulletinBoard {
+	// the proof systems of the verifier, which depend only on the election parameters and on the vote v, are created
+	// once per vote and shared by all ballots
+	private static class VerificationContext {
+
+		private final PolynomialElement credentialPolynomial;
+		private final boolean consistent;
+		private final PedersenCommitmentScheme com_p;
+		private final GeneralizedPedersenCommitmentScheme com_q;
+		private final Function commitmentFunction;
+		private final Function f;
+		private final ZMod Z_q;
+		private final Map<Element, ProofSystems> proofSystems;
+
+		private VerificationContext(final CyclicGroup G_p, final CyclicGroup G_q, final BulletinBoard BB) {
+			this.credentialPolynomial = BB.getCredentialPolynomial();
+
+			// all registered credentials must be roots of the credential polynomial (one multipoint evaluation per
+			// polynomial, not per call of verifyBallots), the coefficients are cached by the board and not multiplied again
+			ZModPolynomialArithmetic arithmetic = ZModPolynomialArithmetic.getInstance(G_p.getZModOrder());
+			boolean consistent = true;
+			for (BigInteger value : arithmetic.evaluate(BB.getCredentialCoefficients(), BB.getCredentialValues())) {
+				consistent &= value.signum() == 0;
+			}
+			this.consistent = consistent;
+
+			this.com_p = BB.getComP();
+			this.com_q = BB.getComQ();
+			this.commitmentFunction = this.com_q.getCommitmentFunction();
+			ProductSet space = (ProductSet) this.commitmentFunction.getDomain();
+			this.f = CompositeFunction.getInstance(SelectionFunction.getInstance(space, 0, 1), GeneratorFunction.getInstance(BB.getGHat()));
+			this.Z_q = G_q.getZModOrder();
+			this.proofSystems = new ConcurrentHashMap<>();
+		}
+
+		public PolynomialElement getCredentialPolynomial() {
+			return this.credentialPolynomial;
+		}
+
+		public boolean isConsistent() {
+			return this.consistent;
+		}
+
+		// thread-safe, concurrent calls for a new vote may create the proof systems twice
+		public ProofSystems getProofSystems(final Element v) {
+			ProofSystems result = this.proofSystems.get(v);
+			if (result == null) {
+				result = new ProofSystems(v);
+				this.proofSystems.put(v, result);
+			}
+			return result;
+		}
+
+		private class ProofSystems {
+
+			private final PolynomialMembershipProofSystem pmps;
+			private final DoubleDiscreteLogProofSystem ddlps;
+			private final EqualityPreimageProofSystem apps;
+
+			private ProofSystems(final Element v) {
+				VerificationContext context = VerificationContext.this;
+				SigmaChallengeGenerator fsscg = FiatShamirSigmaChallengeGenerator.getInstance(context.com_p.getMessageSpace(), v);
+				this.pmps = PolynomialMembershipProofSystem.getInstance(fsscg, context.credentialPolynomial, context.com_p);
+				this.ddlps = DoubleDiscreteLogProofSystem.getInstance(fsscg, context.com_p, context.com_q, SECURITY_FACTOR);
+				SigmaChallengeGenerator fsscg2 = FiatShamirSigmaChallengeGenerator.getInstance(context.Z_q, v);
+				this.apps = EqualityPreimageProofSystem.getInstance(fsscg2, context.commitmentFunction, context.f);
+			}
+
+		}
+
+	}
+
+	// the board holds a fixed number of credentials, the credential polynomial has the same degree for the whole
+	// election, such that the ballots can be stored with a fixed-width encoding
+	private static class BulletinBoard implements Closeable {
+
+		// number of buffered credentials multiplied into the credential polynomial at once
+		private static final int BLOCK_SIZE = 1024;
 
 		private final CyclicGroup G_q;
 		private final ZMod Z_p;
+		private final ZModPolynomialArithmetic arithmetic;
+		// products of blocks of registered credentials, the degrees are strictly decreasing
+		private final LinkedList<BigInteger[]> blocks;
+		private final List<BigInteger> pendingCredentials;
+		// random roots for the credentials that are not registered yet, the first ones are used
+		private final BigInteger[] paddingCredentials;
+		private int numberOfPaddingCredentials;
+		// the used padding roots split into blocks whose lengths are the binary digits of their number, in decreasing
+		// order, such that removing the last root only splits the last (smallest) block
+		private final LinkedList<PaddingBlock> paddingBlocks;
+		// the coefficients and the polynomial are computed at most once between two registrations
+		private BigInteger[] credentialCoefficients;
 		private PolynomialElement credentialPolynomial;
 		private final ArrayList<Element> credentials;
-		private final ArrayList<Element> ballots;
+		// the vote of a ballot is stored in the log as the index of the choice
+		private final Element[] choices;
+		private final BallotLog ballotLog;
 
 		private final Tuple generators;
 		private final Element gHat;
 		private final PedersenCommitmentScheme com_p;
 		private final GeneralizedPedersenCommitmentScheme com_q;
 
-		public BulletinBoard(CyclicGroup G_p, CyclicGroup G_q, int numberOfPrivateCredentials, int numberOfInitialCredentials) {
+		// the ballots of a log are only valid for the parameters of the board that wrote them, so an existing log of an
+		// earlier board is not reopened
+		public BulletinBoard(CyclicGroup G_p, CyclicGroup G_q, int numberOfPrivateCredentials, int numberOfCredentials, File ballotDirectory, Element... choices) throws IOException {
+			String[] files = ballotDirectory.list();
+			if (files != null && files.length > 0) {
+				throw new IllegalArgumentException();
+			}
 			this.G_q = G_q;
 			this.Z_p = G_p.getZModOrder();
 			this.credentials = new ArrayList<>();
-			this.ballots = new ArrayList<>();
-
-			this.credentialPolynomial = PolynomialSemiRing.getInstance(Z_p).getRandomElement(numberOfInitialCredentials);
+			this.choices = choices;
+
+			this.arithmetic = ZModPolynomialArithmetic.getInstance(this.Z_p);
+			this.blocks = new LinkedList<>();
+			this.pendingCredentials = new ArrayList<>();
+			this.paddingCredentials = new BigInteger[numberOfCredentials];
+			for (int i = 0; i < this.paddingCredentials.length; i++) {
+				this.paddingCredentials[i] = this.Z_p.getRandomElement().getValue();
+			}
+			this.numberOfPaddingCredentials = numberOfCredentials;
+			this.paddingBlocks = new LinkedList<>();
+			int start = 0;
+			for (int length = Integer.highestOneBit(numberOfCredentials); length > 0; length >>= 1) {
+				if ((numberOfCredentials & length) != 0) {
+					this.paddingBlocks.add(new PaddingBlock(start, length));
+					start += length;
+				}
+			}
 
 			Element[] gs = new Element[numberOfPrivateCredentials + 1];
 			for (int i = 0; i < gs.length; i++) {
@@ -306,6 +541,25 @@ public class MemProofBasedVoting {
 			this.com_p = PedersenCommitmentScheme.getInstance(this.generators.getAt(0), this.generators.getAt(1));
 			this.com_q = GeneralizedPedersenCommitmentScheme.getInstance(this.generators.getAt(2), (Tuple) this.generators.getAt(3));
 
+			this.ballotLog = BallotLog.open(ballotDirectory, this.createBallotSpace());
+		}
+
+		// (index of the vote, (cu, cab, uHat), (pi_1, pi_2, pi_3)), the proof spaces are derived from the initial
+		// credential polynomial (its degree stays the same when credentials replace padding roots) and from the
+		// commitment schemes of this board
+		private Set createBallotSpace() {
+			SigmaChallengeGenerator fsscg = FiatShamirSigmaChallengeGenerator.getInstance(this.com_p.getMessageSpace(), this.choices[0]);
+			PolynomialMembershipProofSystem pmps = PolynomialMembershipProofSystem.getInstance(fsscg, this.getCredentialPolynomial(), this.com_p);
+			DoubleDiscreteLogProofSystem ddlps = DoubleDiscreteLogProofSystem.getInstance(fsscg, this.com_p, this.com_q, SECURITY_FACTOR);
+			ProductSet space = (ProductSet) this.com_q.getCommitmentFunction().getDomain();
+			Function f = CompositeFunction.getInstance(SelectionFunction.getInstance(space, 0, 1), GeneratorFunction.getInstance(this.gHat));
+			SigmaChallengeGenerator fsscg2 = FiatShamirSigmaChallengeGenerator.getInstance(this.G_q.getZModOrder(), this.choices[0]);
+			EqualityPreimageProofSystem apps = EqualityPreimageProofSystem.getInstance(fsscg2, this.com_q.getCommitmentFunction(), f);
+
+			return ProductSet.getInstance(
+				   ZMod.getInstance(this.choices.length),
+				   ProductSet.getInstance(this.com_p.getCommitmentSpace(), this.com_q.getCommitmentSpace(), this.G_q),
+				   ProductSet.getInstance(pmps.getProofSpace(), ddlps.getProofSpace(), apps.getProofSpace()));
 		}
 
 		public Element getGHat() {
@@ -325,34 +579,141 @@ public class MemProofBasedVoting {
 		}
 
 		public void postCredential(final String voterId, final Element credential) {
-			if (credential == null || !credential.getSet().isEquivalent(this.G_q)) {
+			if (credential == null || !credential.getSet().isEquivalent(this.G_q) || this.numberOfPaddingCredentials == 0) {
 				throw new IllegalArgumentException();
 			}
 			this.credentials.add(this.Z_p.getElement(credential.convertToBigInteger()));
 
-			DualisticElement zero = this.Z_p.getZeroElement();
-			DualisticElement one = this.Z_p.getOneElement();
-			Polynomial newRoot = Polynomial.getInstance(new DualisticElement[]{(DualisticElement) this.Z_p.getElement(credential.convertToBigInteger()).invert(), one}, zero, one);
-			this.credentialPolynomial = this.credentialPolynomial.multiply(PolynomialSemiRing.getInstance(this.Z_p).getElement(newRoot));
+			// the credential replaces the last padding root, the last block [start, start + 2^t) is replaced by blocks of
+			// lengths 2^(t-1), ..., 1 covering [start, start + 2^t - 1), the other blocks keep their products
+			this.numberOfPaddingCredentials--;
+			PaddingBlock last = this.paddingBlocks.removeLast();
+			int start = last.start;
+			for (int length = last.length >> 1; length > 0; length >>= 1) {
+				this.paddingBlocks.add(new PaddingBlock(start, length));
+				start += length;
+			}
+			this.pendingCredentials.add(credential.convertToBigInteger().mod(this.Z_p.getModulus()));
+			if (this.pendingCredentials.size() == BLOCK_SIZE) {
+				this.mergePendingCredentials();
+			}
+			this.credentialCoefficients = null;
+			this.credentialPolynomial = null;
+		}
+
+		// merges blocks of equal size like a binary counter, i.e. each credential is merged O(log n) times
+		private void mergePendingCredentials() {
+			if (this.pendingCredentials.isEmpty()) {
+				return;
+			}
+			BigInteger[] block = this.arithmetic.multiplyLinearFactors(this.pendingCredentials.toArray(new BigInteger[0]));
+			this.pendingCredentials.clear();
+			while (!this.blocks.isEmpty() && this.blocks.getLast().length <= block.length) {
+				block = this.arithmetic.multiply(this.blocks.removeLast(), block);
+			}
+			this.blocks.addLast(block);
 		}
 
 		public Subset getCredentials() {
 			return Subset.getInstance(this.Z_p, this.credentials.toArray(new Element[0]));
 		}
 
+		public BigInteger[] getCredentialValues() {
+			BigInteger[] values = new BigInteger[this.credentials.size()];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = this.credentials.get(i).convertToBigInteger();
+			}
+			return values;
+		}
+
+		public BigInteger[] getCredentialCoefficients() {
+			if (this.credentialCoefficients == null) {
+				this.credentialCoefficients = this.computeCredentialCoefficients();
+			}
+			return this.credentialCoefficients.clone();
+		}
+
+		private BigInteger[] computeCredentialCoefficients() {
+			this.mergePendingCredentials();
+			BigInteger[] product = null;
+			if (!this.blocks.isEmpty()) {
+				product = this.blocks.removeLast();
+				while (!this.blocks.isEmpty()) {
+					product = this.arithmetic.multiply(this.blocks.removeLast(), product);
+				}
+				this.blocks.add(product);
+			}
+
+			// only the products of the blocks created since the last call are computed from the roots
+			Iterator<PaddingBlock> iterator = this.paddingBlocks.descendingIterator();
+			while (iterator.hasNext()) {
+				PaddingBlock block = iterator.next();
+				if (block.product == null) {
+					block.product = this.arithmetic.multiplyLinearFactors(Arrays.copyOfRange(this.paddingCredentials, block.start, block.start + block.length));
+				}
+				product = product == null ? block.product : this.arithmetic.multiply(block.product, product);
+			}
+			return product == null ? new BigInteger[]{BigInteger.ONE} : product;
+		}
+
 		public PolynomialElement getCredentialPolynomial() {
+			if (this.credentialPolynomial == null) {
+				if (this.credentialCoefficients == null) {
+					this.credentialCoefficients = this.computeCredentialCoefficients();
+				}
+				this.credentialPolynomial = this.arithmetic.getElement(this.credentialCoefficients);
+			}
 			return this.credentialPolynomial;
 		}
 
-		public void postBallot(Element ballot) {
+		public void postBallot(Element ballot) throws IOException {
 			if (ballot == null) {
 				throw new IllegalArgumentException();
 			}
-			this.ballots.add(ballot);
+			Tuple tuple = (Tuple) ballot;
+			int choice = 0;
+			while (choice < this.choices.length && !this.choices[choice].isEquivalent(tuple.getAt(0))) {
+				choice++;
+			}
+			if (choice == this.choices.length) {
+				throw new IllegalArgumentException();
+			}
+			Tuple record = Tuple.getInstance(ZMod.getInstance(this.choices.length).getElement(choice), tuple.getAt(1), tuple.getAt(2));
+			this.ballotLog.append(record);
 		}
 
-		public Tuple getBallots() {
-			return Tuple.getInstance(this.ballots.toArray(new Element[0]));
+		public long getNumberOfBallots() {
+			return this.ballotLog.getSize();
+		}
+
+		public BallotLog.Cursor getBallotCursor(long position) {
+			return this.ballotLog.getCursor(position);
+		}
+
+		// converts a record of the log back into a ballot
+		public Tuple getBallot(Element record) {
+			Tuple tuple = (Tuple) record;
+			int choice = tuple.getAt(0).convertToBigInteger().intValue();
+			return Tuple.getInstance(this.choices[choice], tuple.getAt(1), tuple.getAt(2));
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.ballotLog.close();
+		}
+
+		// the padding roots with indices start, ..., start + length - 1 and their product, which is computed on demand
+		private static class PaddingBlock {
+
+			private final int start;
+			private final int length;
+			private BigInteger[] product;
+
+			private PaddingBlock(final int start, final int length) {
+				this.start = start;
+				this.length = length;
+			}
+
 		}
 
 	}
@@ -0,0 +1,173 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.proofsystem;
+
+import ch.bfh.unicrypt.crypto.proofsystem.classes.PermutationCommitmentProofSystem;
+import ch.bfh.unicrypt.crypto.schemes.commitment.PreparedPermutationCommitmentScheme;
+import ch.bfh.unicrypt.crypto.schemes.commitment.classes.PermutationCommitmentScheme;
+import ch.bfh.unicrypt.helper.ParallelLoop;
+import ch.bfh.unicrypt.math.algebra.general.classes.Pair;
+import ch.bfh.unicrypt.math.algebra.general.classes.PermutationElement;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Computes and proves the permutation commitments of many batches, which are all based on the same generators. The
+ * commitments are computed by a {@link PreparedPermutationCommitmentScheme}, whose fixed-base table for the
+ * randomization generator is built once and reused for all batches. The proofs are generated and verified by the
+ * underlying {@link PermutationCommitmentProofSystem}, one batch per task, on the threads of a pool. The proofs
+ * therefore have the same form as proofs generated serially.
+ * <p>
+ * @see ch.bfh.unicrypt.crypto.proofsystem.ParallelPermutationCommitmentProofSystemExample
+ */
+public class ParallelPermutationCommitmentProofSystem {
+
+	private final PermutationCommitmentProofSystem proofSystem;
+	private final PreparedPermutationCommitmentScheme commitmentScheme;
+	private final ForkJoinPool pool;
+
+	private ParallelPermutationCommitmentProofSystem(PermutationCommitmentProofSystem proofSystem, PreparedPermutationCommitmentScheme commitmentScheme, ForkJoinPool pool) {
+		this.proofSystem = proofSystem;
+		this.commitmentScheme = commitmentScheme;
+		this.pool = pool;
+	}
+
+	public static ParallelPermutationCommitmentProofSystem getInstance(PermutationCommitmentProofSystem proofSystem, PermutationCommitmentScheme commitmentScheme) {
+		return ParallelPermutationCommitmentProofSystem.getInstance(proofSystem, commitmentScheme, ParallelLoop.getDefaultPool());
+	}
+
+	/**
+	 * Returns a parallel permutation commitment proof system, which runs on the threads of the given pool. The proof
+	 * system and the commitment scheme must be based on the same group and the same independent generators.
+	 * <p>
+	 * @param proofSystem      The permutation commitment proof system
+	 * @param commitmentScheme The permutation commitment scheme
+	 * @param pool             The pool
+	 * @return The parallel permutation commitment proof system
+	 */
+	public static ParallelPermutationCommitmentProofSystem getInstance(PermutationCommitmentProofSystem proofSystem, PermutationCommitmentScheme commitmentScheme, ForkJoinPool pool) {
+		if (proofSystem == null || commitmentScheme == null || pool == null) {
+			throw new IllegalArgumentException();
+		}
+		return new ParallelPermutationCommitmentProofSystem(proofSystem, PreparedPermutationCommitmentScheme.getInstance(commitmentScheme), pool);
+	}
+
+	public PermutationCommitmentProofSystem getPermutationCommitmentProofSystem() {
+		return this.proofSystem;
+	}
+
+	public PreparedPermutationCommitmentScheme getPreparedPermutationCommitmentScheme() {
+		return this.commitmentScheme;
+	}
+
+	/**
+	 * Computes the permutation commitments of all batches. The commitment of each batch is itself computed in parallel.
+	 * <p>
+	 * @param permutations   The permutations
+	 * @param randomizations The randomizations
+	 * @return The permutation commitments
+	 */
+	public Tuple[] commit(PermutationElement[] permutations, Tuple[] randomizations) {
+		if (permutations == null || randomizations == null || permutations.length != randomizations.length) {
+			throw new IllegalArgumentException();
+		}
+		Tuple[] commitments = new Tuple[permutations.length];
+		for (int i = 0; i < commitments.length; i++) {
+			commitments[i] = this.commitmentScheme.commit(this.pool, permutations[i], randomizations[i]);
+		}
+		return commitments;
+	}
+
+	/**
+	 * Generates the proofs of all batches in parallel. This corresponds to calling
+	 * {@code generate(Pair.getInstance(permutations[i], randomizations[i]), commitments[i])} for each batch.
+	 * <p>
+	 * @param permutations   The permutations
+	 * @param randomizations The randomizations of the permutation commitments
+	 * @param commitments    The permutation commitments
+	 * @return The proofs
+	 */
+	public Tuple[] generate(final PermutationElement[] permutations, final Tuple[] randomizations, final Tuple[] commitments) {
+		if (permutations == null || randomizations == null || commitments == null || permutations.length != randomizations.length || permutations.length != commitments.length) {
+			throw new IllegalArgumentException();
+		}
+		final Tuple[] proofs = new Tuple[permutations.length];
+		ParallelLoop.run(this.pool, proofs.length, 1, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					Pair privateInput = Pair.getInstance(permutations[i], randomizations[i]);
+					proofs[i] = ParallelPermutationCommitmentProofSystem.this.proofSystem.generate(privateInput, commitments[i]);
+				}
+			}
+
+		});
+		return proofs;
+	}
+
+	/**
+	 * Verifies the proofs of all batches in parallel.
+	 * <p>
+	 * @param proofs      The proofs
+	 * @param commitments The permutation commitments
+	 * @return The results of the verifications
+	 */
+	public boolean[] verify(final Tuple[] proofs, final Tuple[] commitments) {
+		if (proofs == null || commitments == null || proofs.length != commitments.length) {
+			throw new IllegalArgumentException();
+		}
+		final boolean[] results = new boolean[proofs.length];
+		ParallelLoop.run(this.pool, results.length, 1, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					results[i] = ParallelPermutationCommitmentProofSystem.this.proofSystem.verify(proofs[i], commitments[i]);
+				}
+			}
+
+		});
+		return results;
+	}
+
+}
@@ -0,0 +1,131 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.proofsystem;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.crypto.proofsystem.challengegenerator.interfaces.ChallengeGenerator;
+import ch.bfh.unicrypt.crypto.proofsystem.challengegenerator.interfaces.SigmaChallengeGenerator;
+import ch.bfh.unicrypt.crypto.proofsystem.classes.PermutationCommitmentProofSystem;
+import ch.bfh.unicrypt.crypto.schemes.commitment.classes.PermutationCommitmentScheme;
+import ch.bfh.unicrypt.helper.math.Alphabet;
+import ch.bfh.unicrypt.helper.prime.SafePrime;
+import ch.bfh.unicrypt.helper.random.deterministic.DeterministicRandomByteSequence;
+import ch.bfh.unicrypt.math.algebra.concatenative.classes.StringMonoid;
+import ch.bfh.unicrypt.math.algebra.general.classes.Pair;
+import ch.bfh.unicrypt.math.algebra.general.classes.PermutationElement;
+import ch.bfh.unicrypt.math.algebra.general.classes.PermutationGroup;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
+import java.util.Arrays;
+
+/**
+ *
+ * @see ParallelPermutationCommitmentProofSystem
+ */
+public class ParallelPermutationCommitmentProofSystemExample {
+
+	public static void example1() {
+
+		// P R E P A R E
+		//---------------
+		final DeterministicRandomByteSequence rrs = DeterministicRandomByteSequence.getInstance();
+		final GStarModSafePrime G_q = GStarModSafePrime.getInstance(SafePrime.getRandomInstance(160));
+		final int size = 100;
+		final int batches = 4;
+		final Element proverId = StringMonoid.getInstance(Alphabet.BASE64).getElement("Shuffler");
+		final int ke = 60;
+		final int kc = 60;
+		final int kr = 20;
+
+		// Create permutation commitment scheme and proof system (same generators)
+		PermutationCommitmentScheme pcs = PermutationCommitmentScheme.getInstance(G_q, size, rrs);
+		SigmaChallengeGenerator scg = PermutationCommitmentProofSystem.createNonInteractiveSigmaChallengeGenerator(kc, proverId);
+		ChallengeGenerator ecg = PermutationCommitmentProofSystem.createNonInteractiveEValuesGenerator(ke, size);
+		PermutationCommitmentProofSystem pcps = PermutationCommitmentProofSystem.getInstance(scg, ecg, G_q, size, kr, rrs);
+		ParallelPermutationCommitmentProofSystem proofSystem = ParallelPermutationCommitmentProofSystem.getInstance(pcps, pcs);
+
+		// Create permutations and randomizations of all batches
+		PermutationElement[] permutations = new PermutationElement[batches];
+		Tuple[] randomizations = new Tuple[batches];
+		for (int i = 0; i < batches; i++) {
+			permutations[i] = PermutationGroup.getInstance(size).getRandomElement();
+			randomizations[i] = pcs.getRandomizationSpace().getRandomElement();
+		}
+
+		// P R O O F
+		//-----------
+		long time = System.currentTimeMillis();
+		Tuple[] commitments = new Tuple[batches];
+		Tuple[] proofs = new Tuple[batches];
+		for (int i = 0; i < batches; i++) {
+			commitments[i] = pcs.commit(permutations[i], randomizations[i]);
+			proofs[i] = pcps.generate(Pair.getInstance(permutations[i], randomizations[i]), commitments[i]);
+		}
+		long time1 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		Tuple[] parallelCommitments = proofSystem.commit(permutations, randomizations);
+		Tuple[] parallelProofs = proofSystem.generate(permutations, randomizations, parallelCommitments);
+		long time2 = System.currentTimeMillis() - time;
+
+		// V E R I F Y
+		//-------------
+		time = System.currentTimeMillis();
+		boolean[] results = proofSystem.verify(parallelProofs, parallelCommitments);
+		long time3 = System.currentTimeMillis() - time;
+
+		Example.setLabelLength("Parallel Verification");
+		Example.printLine("Batches", batches);
+		Example.printLine("Proof", time1 + " ms");
+		Example.printLine("Parallel Proof", time2 + " ms");
+		Example.printLine("Parallel Verification", time3 + " ms");
+		Example.printLine("Equal", Tuple.getInstance(commitments).isEquivalent(Tuple.getInstance(parallelCommitments)));
+		Example.printLine("Valid", Arrays.toString(results));
+		Example.printLine("Valid", Arrays.toString(proofSystem.verify(proofs, commitments)));
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
@@ -0,0 +1,229 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.proofsystem;
+
+import ch.bfh.unicrypt.crypto.proofsystem.classes.PermutationCommitmentProofSystem;
+import ch.bfh.unicrypt.crypto.proofsystem.classes.ReEncryptionShuffleProofSystem;
+import ch.bfh.unicrypt.helper.ParallelLoop;
+import ch.bfh.unicrypt.math.algebra.general.classes.Pair;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Generates and verifies the two proofs of a verifiable shuffle, the proof of the permutation commitment
+ * ({@link PermutationCommitmentProofSystem}) and the proof of the re-encryption shuffle
+ * ({@link ReEncryptionShuffleProofSystem}), on the threads of a pool. Both proofs are independent of each other given
+ * the permutation commitment, so they are generated and verified concurrently. Many shuffle proofs (e.g. of several
+ * batches or mix nodes) are verified in parallel by {@link #verify(Pair[], Tuple[])}.
+ * <p>
+ * The proofs are created by the underlying proof systems, i.e. they have exactly the same form as proofs generated
+ * serially and are accepted by every existing verifier. The loops inside a single proof are not split further. Pools
+ * created for a given parallelism are shared by all instances with that parallelism.
+ * <p>
+ * @see ch.bfh.unicrypt.crypto.proofsystem.ParallelShuffleProofSystemExample
+ */
+public class ParallelShuffleProofSystem {
+
+	private static final ConcurrentMap<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+	private final PermutationCommitmentProofSystem permutationProofSystem;
+	private final ReEncryptionShuffleProofSystem shuffleProofSystem;
+	private final ForkJoinPool pool;
+
+	private ParallelShuffleProofSystem(PermutationCommitmentProofSystem permutationProofSystem, ReEncryptionShuffleProofSystem shuffleProofSystem, ForkJoinPool pool) {
+		this.permutationProofSystem = permutationProofSystem;
+		this.shuffleProofSystem = shuffleProofSystem;
+		this.pool = pool;
+	}
+
+	public static ParallelShuffleProofSystem getInstance(PermutationCommitmentProofSystem permutationProofSystem, ReEncryptionShuffleProofSystem shuffleProofSystem) {
+		return ParallelShuffleProofSystem.getInstance(permutationProofSystem, shuffleProofSystem, ParallelLoop.getDefaultPool());
+	}
+
+	/**
+	 * Returns a parallel shuffle proof system with a pool of the given parallelism. The pool is created on the first
+	 * call for this parallelism and shared with all later instances.
+	 * <p>
+	 * @param permutationProofSystem The permutation commitment proof system
+	 * @param shuffleProofSystem     The re-encryption shuffle proof system
+	 * @param parallelism            The number of threads
+	 * @return The parallel shuffle proof system
+	 */
+	public static ParallelShuffleProofSystem getInstance(PermutationCommitmentProofSystem permutationProofSystem, ReEncryptionShuffleProofSystem shuffleProofSystem, int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException();
+		}
+		return ParallelShuffleProofSystem.getInstance(permutationProofSystem, shuffleProofSystem, ParallelShuffleProofSystem.getPool(parallelism));
+	}
+
+	public static ParallelShuffleProofSystem getInstance(PermutationCommitmentProofSystem permutationProofSystem, ReEncryptionShuffleProofSystem shuffleProofSystem, ForkJoinPool pool) {
+		if (permutationProofSystem == null || shuffleProofSystem == null || pool == null) {
+			throw new IllegalArgumentException();
+		}
+		return new ParallelShuffleProofSystem(permutationProofSystem, shuffleProofSystem, pool);
+	}
+
+	private static ForkJoinPool getPool(int parallelism) {
+		ForkJoinPool pool = POOLS.get(parallelism);
+		if (pool == null) {
+			ForkJoinPool newPool = new ForkJoinPool(parallelism);
+			pool = POOLS.putIfAbsent(parallelism, newPool);
+			if (pool == null) {
+				pool = newPool;
+			} else {
+				newPool.shutdown();
+			}
+		}
+		return pool;
+	}
+
+	public PermutationCommitmentProofSystem getPermutationCommitmentProofSystem() {
+		return this.permutationProofSystem;
+	}
+
+	public ReEncryptionShuffleProofSystem getReEncryptionShuffleProofSystem() {
+		return this.shuffleProofSystem;
+	}
+
+	public int getParallelism() {
+		return this.pool.getParallelism();
+	}
+
+	/**
+	 * Generates the permutation commitment proof and the shuffle proof concurrently. The inputs are the same as for
+	 * {@link ReEncryptionShuffleProofSystem}.
+	 * <p>
+	 * @param privateInput The triple {@code (pi, sV, rV)} of the permutation, the randomizations of the permutation
+	 *                     commitment, and the randomizations of the shuffle
+	 * @param publicInput  The triple {@code (cPiV, uV, uPrimeV)} of the permutation commitment, the input ciphertexts,
+	 *                     and the shuffled ciphertexts
+	 * @return The pair of the permutation commitment proof and the shuffle proof
+	 */
+	public Pair generate(final Tuple privateInput, final Tuple publicInput) {
+		if (privateInput == null || publicInput == null || privateInput.getArity() != 3 || publicInput.getArity() != 3) {
+			throw new IllegalArgumentException();
+		}
+		final Tuple[] proofs = new Tuple[2];
+		ParallelLoop.run(this.pool, 2, 1, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					if (i == 0) {
+						Pair permutationPrivateInput = Pair.getInstance(privateInput.getAt(0), privateInput.getAt(1));
+						proofs[0] = ParallelShuffleProofSystem.this.permutationProofSystem.generate(permutationPrivateInput, publicInput.getAt(0));
+					} else {
+						proofs[1] = ParallelShuffleProofSystem.this.shuffleProofSystem.generate(privateInput, publicInput);
+					}
+				}
+			}
+
+		});
+		return Pair.getInstance(proofs[0], proofs[1]);
+	}
+
+	/**
+	 * Verifies the permutation commitment proof and the shuffle proof concurrently.
+	 * <p>
+	 * @param proof       The pair of proofs returned by {@link #generate(Tuple, Tuple)}
+	 * @param publicInput The triple {@code (cPiV, uV, uPrimeV)}
+	 * @return {@code true} if both proofs are valid
+	 */
+	public boolean verify(Pair proof, Tuple publicInput) {
+		return this.verify(new Pair[]{proof}, new Tuple[]{publicInput})[0];
+	}
+
+	/**
+	 * Verifies many pairs of proofs in parallel. All {@code 2n} verifications are distributed among the threads of the
+	 * pool.
+	 * <p>
+	 * @param proofs       The pairs of proofs
+	 * @param publicInputs The corresponding public inputs
+	 * @return The results of the verifications
+	 */
+	public boolean[] verify(final Pair[] proofs, final Tuple[] publicInputs) {
+		if (proofs == null || publicInputs == null || proofs.length != publicInputs.length) {
+			throw new IllegalArgumentException();
+		}
+		for (int i = 0; i < proofs.length; i++) {
+			if (proofs[i] == null || publicInputs[i] == null || publicInputs[i].getArity() != 3) {
+				throw new IllegalArgumentException();
+			}
+		}
+		final AtomicBoolean[] valid = new AtomicBoolean[proofs.length];
+		for (int i = 0; i < valid.length; i++) {
+			valid[i] = new AtomicBoolean(true);
+		}
+		ParallelLoop.run(this.pool, 2 * proofs.length, 1, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				for (int k = from; k < to; k++) {
+					int i = k / 2;
+					if (!valid[i].get()) {
+						continue;
+					}
+					boolean result;
+					if (k % 2 == 0) {
+						result = ParallelShuffleProofSystem.this.permutationProofSystem.verify(proofs[i].getFirst(), publicInputs[i].getAt(0));
+					} else {
+						result = ParallelShuffleProofSystem.this.shuffleProofSystem.verify(proofs[i].getSecond(), publicInputs[i]);
+					}
+					if (!result) {
+						valid[i].set(false);
+					}
+				}
+			}
+
+		});
+		boolean[] results = new boolean[valid.length];
+		for (int i = 0; i < valid.length; i++) {
+			results[i] = valid[i].get();
+		}
+		return results;
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.proofsystem;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.crypto.mixer.ParallelReEncryptionMixer;
+import ch.bfh.unicrypt.crypto.proofsystem.classes.PermutationCommitmentProofSystem;
+import ch.bfh.unicrypt.crypto.proofsystem.classes.ReEncryptionShuffleProofSystem;
+import ch.bfh.unicrypt.crypto.schemes.commitment.classes.PermutationCommitmentScheme;
+import ch.bfh.unicrypt.crypto.schemes.encryption.classes.ElGamalEncryptionScheme;
+import ch.bfh.unicrypt.helper.random.deterministic.DeterministicRandomByteSequence;
+import ch.bfh.unicrypt.math.algebra.general.classes.Pair;
+import ch.bfh.unicrypt.math.algebra.general.classes.PermutationElement;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductGroup;
+import ch.bfh.unicrypt.math.algebra.general.classes.Triple;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ *
+ * @see ParallelShuffleProofSystem
+ */
+public class ParallelShuffleProofSystemExample {
+
+	// Safe prime (same as in ShuffleProofSystemExample)
+	final static String P_1024 = "124839508901459225295131478904766553151715203799479873450319702669888301683936126519033292399204126892064039399466769614858812059914518351605494976695246338946504781671208279483554047133686061305170930849857475703281378907333309894394327830075584429809888154770188970744592711756609335320238222672153149255987";
+
+	public static void example1() {
+
+		// S E T U P
+		//-----------
+		final int size = 100;
+		final GStarModSafePrime G_q = GStarModSafePrime.getInstance(new BigInteger(P_1024, 10));
+		final DeterministicRandomByteSequence rrs = DeterministicRandomByteSequence.getInstance();
+		final Element g = G_q.getIndependentGenerators(rrs).get(0);
+		ElGamalEncryptionScheme es = ElGamalEncryptionScheme.getInstance(g);
+		Element publicKey = G_q.getRandomElement();
+
+		// S H U F F L E
+		//---------------
+		Tuple ciphertexts = ProductGroup.getInstance(es.getEncryptionSpace(), size).getRandomElement();
+		ParallelReEncryptionMixer mixer = ParallelReEncryptionMixer.getInstance(es, publicKey, size);
+		PermutationElement permutation = mixer.getPermutationGroup().getRandomElement();
+		Tuple randomizations = mixer.generateRandomizations();
+		Tuple shuffledCiphertexts = mixer.shuffle(ciphertexts, permutation, randomizations);
+
+		// Permutation commitment
+		PermutationCommitmentScheme pcs = PermutationCommitmentScheme.getInstance(G_q, size);
+		Tuple permutationCommitmentRandomizations = pcs.getRandomizationSpace().getRandomElement();
+		Tuple permutationCommitment = pcs.commit(permutation, permutationCommitmentRandomizations);
+
+		Triple privateInput = Triple.getInstance(permutation, permutationCommitmentRandomizations, randomizations);
+		Triple publicInput = Triple.getInstance(permutationCommitment, ciphertexts, shuffledCiphertexts);
+
+		// P R O O F
+		//-----------
+		PermutationCommitmentProofSystem pcps = PermutationCommitmentProofSystem.getInstance(G_q, size);
+		ReEncryptionShuffleProofSystem sps = ReEncryptionShuffleProofSystem.getInstance(size, es, publicKey);
+		ParallelShuffleProofSystem proofSystem = ParallelShuffleProofSystem.getInstance(pcps, sps);
+
+		// Serial proof generation
+		long time = System.currentTimeMillis();
+		Tuple proofPermutation = pcps.generate(Pair.getInstance(permutation, permutationCommitmentRandomizations), permutationCommitment);
+		Tuple proofShuffle = sps.generate(privateInput, publicInput);
+		long time1 = System.currentTimeMillis() - time;
+
+		// Parallel proof generation
+		time = System.currentTimeMillis();
+		Pair proof = proofSystem.generate(privateInput, publicInput);
+		long time2 = System.currentTimeMillis() - time;
+
+		// V E R I F Y
+		//-------------
+		time = System.currentTimeMillis();
+		boolean v1 = pcps.verify(proof.getFirst(), permutationCommitment) && sps.verify(proof.getSecond(), publicInput);
+		long time3 = System.currentTimeMillis() - time;
+
+		// Both proofs are verified in parallel, the serial proofs by the parallel verifier and vice versa
+		time = System.currentTimeMillis();
+		boolean[] v2 = proofSystem.verify(new Pair[]{proof, Pair.getInstance(proofPermutation, proofShuffle)}, new Tuple[]{publicInput, publicInput});
+		long time4 = System.currentTimeMillis() - time;
+
+		Example.setLabelLength("Parallel Verification");
+		Example.printLine("Parallelism", proofSystem.getParallelism());
+		Example.printLine("Generation", time1 + " ms");
+		Example.printLine("Parallel Generation", time2 + " ms");
+		Example.printLine("Verification", time3 + " ms");
+		Example.printLine("Parallel Verification", time4 + " ms");
+		Example.printLine("Valid", v1);
+		Example.printLine("Valid", Arrays.toString(v2));
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.proofsystem;
+
+import ch.bfh.unicrypt.crypto.proofsystem.classes.AbstractSigmaProofSystem;
+import ch.bfh.unicrypt.crypto.proofsystem.classes.ElGamalEncryptionValidityProofSystem;
+import ch.bfh.unicrypt.crypto.proofsystem.classes.EqualityPreimageProofSystem;
+import ch.bfh.unicrypt.crypto.proofsystem.classes.PlainPreimageProofSystem;
+import ch.bfh.unicrypt.helper.ParallelLoop;
+import ch.bfh.unicrypt.math.algebra.general.MultiExponentiation;
+import ch.bfh.unicrypt.math.algebra.general.classes.Triple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Group;
+import ch.bfh.unicrypt.math.function.interfaces.Function;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Verifies many sigma proofs of the same preimage proof system at once. A proof {@code (t,c,s)} for a public input
+ * {@code y} is valid if {@code c} is the challenge of {@code (y,t)} and {@code f(s) = t*y^c}, where {@code f} is the
+ * preimage proof function. The challenges are recomputed individually (in parallel), but the {@code n} equations are
+ * combined with random exponents {@code e_i} of {@link #SECURITY_LEVEL} bits into a single equation
+ * <pre>
+ * f(e_1*s_1 + ... + e_n*s_n) = t_1^e_1 * y_1^(c_1*e_1) * ... * t_n^e_n * y_n^(c_n*e_n),
+ * </pre>
+ * which requires one evaluation of {@code f} and one multi-exponentiation (see {@link MultiExponentiation}) instead
+ * of {@code n} evaluations of {@code f} and {@code n} exponentiations. If an invalid proof is contained in the batch,
+ * the combined equation fails except with probability {@code 2^-SECURITY_LEVEL}. In that case, all proofs are
+ * verified individually to find the invalid ones.
+ * <p>
+ * The combined equation is applied to {@link PlainPreimageProofSystem} and {@link EqualityPreimageProofSystem}. The
+ * proofs of {@link ElGamalEncryptionValidityProofSystem} (and of all other proof systems) are OR-compositions with
+ * split challenges, which do not have the form above. They are verified individually in parallel.
+ * <p>
+ * @see ch.bfh.unicrypt.crypto.proofsystem.SigmaProofBatchVerificationExample
+ */
+public class SigmaProofBatchVerification {
+
+	public static final int SECURITY_LEVEL = 64;
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	/**
+	 * Verifies the given proofs of the given proof system.
+	 * <p>
+	 * @param proofSystem  The proof system
+	 * @param proofs       The proofs
+	 * @param publicInputs The public inputs of the proofs
+	 * @return The aggregate result and the indices of the invalid proofs
+	 */
+	public static BatchVerificationResult verifyBatch(AbstractSigmaProofSystem proofSystem, List<? extends Element> proofs, List<? extends Element> publicInputs) {
+		if (proofSystem == null || proofs == null || publicInputs == null || proofs.size() != publicInputs.size()) {
+			throw new IllegalArgumentException();
+		}
+		Element[] proofArray = proofs.toArray(new Element[proofs.size()]);
+		Element[] publicInputArray = publicInputs.toArray(new Element[publicInputs.size()]);
+		if (proofArray.length > 0 && (proofSystem instanceof PlainPreimageProofSystem || proofSystem instanceof EqualityPreimageProofSystem) && verifyCombined(proofSystem, proofArray, publicInputArray)) {
+			return BatchVerificationResult.getInstance(proofArray.length);
+		}
+		return verifyIndividually(proofSystem, proofArray, publicInputArray);
+	}
+
+	private static boolean verifyCombined(final AbstractSigmaProofSystem proofSystem, final Element[] proofs, final Element[] publicInputs) {
+		final Function function = proofSystem.getPreimageProofFunction();
+		final int n = proofs.length;
+		final Element[] responses = new Element[n];
+		final Element[] bases = new Element[2 * n];
+		final BigInteger[] exponents = new BigInteger[2 * n];
+		final AtomicBoolean valid = new AtomicBoolean(true);
+
+		// check the form of the proofs and recompute the challenges
+		ParallelLoop.run(n, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				for (int i = from; i < to && valid.get(); i++) {
+					if (!(proofs[i] instanceof Triple) || publicInputs[i] == null) {
+						valid.set(false);
+						return;
+					}
+					Triple proof = (Triple) proofs[i];
+					Element commitment = proof.getFirst();
+					Element challenge = proof.getSecond();
+					Element response = proof.getThird();
+					if (!function.getCoDomain().contains(commitment) || !function.getDomain().contains(response) || !function.getCoDomain().contains(publicInputs[i])) {
+						valid.set(false);
+						return;
+					}
+					if (!challenge.isEquivalent(proofSystem.getChallengeGenerator().generate(publicInputs[i], commitment))) {
+						valid.set(false);
+						return;
+					}
+					BigInteger e = new BigInteger(SECURITY_LEVEL, RANDOM).add(BigInteger.ONE);
+					responses[i] = response.selfApply(e);
+					bases[2 * i] = commitment;
+					exponents[2 * i] = e;
+					bases[2 * i + 1] = publicInputs[i];
+					exponents[2 * i + 1] = challenge.convertToBigInteger().multiply(e);
+				}
+			}
+
+		});
+		if (!valid.get()) {
+			return false;
+		}
+		Element response = responses[0];
+		for (int i = 1; i < n; i++) {
+			response = response.apply(responses[i]);
+		}
+		Element left = function.apply(response);
+		Element right = MultiExponentiation.multiSelfApply((Group) function.getCoDomain(), bases, exponents);
+		return left.isEquivalent(right);
+	}
+
+	private static BatchVerificationResult verifyIndividually(final AbstractSigmaProofSystem proofSystem, final Element[] proofs, final Element[] publicInputs) {
+		final boolean[] results = new boolean[proofs.length];
+		ParallelLoop.run(proofs.length, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					try {
+						results[i] = proofSystem.verify(proofs[i], publicInputs[i]);
+					} catch (IllegalArgumentException exception) {
+						// malformed proof or public input
+						results[i] = false;
+					}
+				}
+			}
+
+		});
+		return BatchVerificationResult.getInstance(results);
+	}
+
+}
@@ -0,0 +1,153 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.proofsystem;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.crypto.proofsystem.challengegenerator.classes.FiatShamirSigmaChallengeGenerator;
+import ch.bfh.unicrypt.crypto.proofsystem.challengegenerator.interfaces.SigmaChallengeGenerator;
+import ch.bfh.unicrypt.crypto.proofsystem.classes.EqualityPreimageProofSystem;
+import ch.bfh.unicrypt.crypto.proofsystem.classes.PlainPreimageProofSystem;
+import ch.bfh.unicrypt.helper.math.Alphabet;
+import ch.bfh.unicrypt.math.algebra.concatenative.classes.StringMonoid;
+import ch.bfh.unicrypt.math.algebra.general.classes.Pair;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.CyclicGroup;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
+import ch.bfh.unicrypt.math.function.classes.GeneratorFunction;
+import ch.bfh.unicrypt.math.function.interfaces.Function;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ *
+ * @see SigmaProofBatchVerification
+ */
+public class SigmaProofBatchVerificationExample {
+
+	// Safe prime (same as in ShuffleProofSystemExample)
+	final static String P_1024 = "124839508901459225295131478904766553151715203799479873450319702669888301683936126519033292399204126892064039399466769614858812059914518351605494976695246338946504781671208279483554047133686061305170930849857475703281378907333309894394327830075584429809888154770188970744592711756609335320238222672153149255987";
+
+	public static void example1() {
+
+		// Proofs of knowledge of discrete logarithms y_i = g^x_i
+		CyclicGroup cyclicGroup = GStarModSafePrime.getInstance(new BigInteger(P_1024, 10));
+		Element g = cyclicGroup.getDefaultGenerator();
+		Function function = GeneratorFunction.getInstance(g);
+		PlainPreimageProofSystem proofSystem = PlainPreimageProofSystem.getInstance(function);
+
+		int size = 200;
+		List<Element> proofs = new ArrayList<>();
+		List<Element> publicInputs = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			Element x = cyclicGroup.getZModOrder().getRandomElement();
+			Element y = g.selfApply(x);
+			proofs.add(proofSystem.generate(x, y));
+			publicInputs.add(y);
+		}
+
+		long time = System.currentTimeMillis();
+		boolean result1 = true;
+		for (int i = 0; i < size; i++) {
+			result1 = result1 && proofSystem.verify(proofs.get(i), publicInputs.get(i));
+		}
+		long time1 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		BatchVerificationResult result2 = SigmaProofBatchVerification.verifyBatch(proofSystem, proofs, publicInputs);
+		long time2 = System.currentTimeMillis() - time;
+
+		// Exchange two public inputs, such that the proofs 3 and 7 become invalid
+		Element publicInput = publicInputs.get(3);
+		publicInputs.set(3, publicInputs.get(7));
+		publicInputs.set(7, publicInput);
+		time = System.currentTimeMillis();
+		BatchVerificationResult result3 = SigmaProofBatchVerification.verifyBatch(proofSystem, proofs, publicInputs);
+		long time3 = System.currentTimeMillis() - time;
+
+		Example.setLabelLength("Batch Verification");
+		Example.printLine("Verification", time1 + " ms");
+		Example.printLine("Batch Verification", time2 + " ms");
+		Example.printLine("Valid", result1);
+		Example.printLine("Valid", result2.isValid());
+		Example.printLine("Invalid Batch", time3 + " ms");
+		Example.printLine("Valid", result3.isValid());
+		Example.printLine("Failing Indices", Arrays.toString(result3.getFailingIndices()));
+	}
+
+	public static void example2() {
+
+		// Proofs of equal discrete logarithms y_i = g^x_i and z_i = h^x_i
+		CyclicGroup cyclicGroup = GStarModSafePrime.getInstance(new BigInteger(P_1024, 10));
+		Element g = cyclicGroup.getDefaultGenerator();
+		Element h = cyclicGroup.getRandomGenerator();
+		Function f1 = GeneratorFunction.getInstance(g);
+		Function f2 = GeneratorFunction.getInstance(h);
+		Element proverId = StringMonoid.getInstance(Alphabet.BASE64).getElement("Prover1");
+		SigmaChallengeGenerator challengeGenerator = FiatShamirSigmaChallengeGenerator.getInstance(cyclicGroup.getZModOrder(), proverId);
+		EqualityPreimageProofSystem proofSystem = EqualityPreimageProofSystem.getInstance(challengeGenerator, f1, f2);
+
+		int size = 100;
+		List<Element> proofs = new ArrayList<>();
+		List<Element> publicInputs = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			Element x = cyclicGroup.getZModOrder().getRandomElement();
+			Pair publicInput = Pair.getInstance(g.selfApply(x), h.selfApply(x));
+			proofs.add(proofSystem.generate(x, publicInput));
+			publicInputs.add(publicInput);
+		}
+
+		long time = System.currentTimeMillis();
+		BatchVerificationResult result = SigmaProofBatchVerification.verifyBatch(proofSystem, proofs, publicInputs);
+		time = System.currentTimeMillis() - time;
+
+		Example.setLabelLength("Batch Verification");
+		Example.printLine("Batch Verification", time + " ms");
+		Example.printLine("Result", result);
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
@@ -0,0 +1,441 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.proofsystem;
+
+import ch.bfh.unicrypt.crypto.proofsystem.classes.AbstractSigmaProofSystem;
+import ch.bfh.unicrypt.helper.ParallelLoop;
+import ch.bfh.unicrypt.math.algebra.general.BinarySerializer;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductSet;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Set;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Verifies a stream of proofs without loading it into memory. The stream consists of records of fixed length, each of
+ * them containing a public input followed by a proof, as written by
+ * {@code BinarySerializer.getInstance(ProductSet.getInstance(publicInputSpace, proofSpace))}. The verification is
+ * organized as a pipeline of three stages:
+ * <ol>
+ * <li>A reader thread reads the records from the channel.</li>
+ * <li>A decoder thread creates the public inputs and proofs and submits their verification to the pool.</li>
+ * <li>The threads of the pool verify the proofs.</li>
+ * </ol>
+ * The stages are connected by bounded queues, i.e. a stage blocks if the next stage is behind, and the number of
+ * records held in memory is bounded by the capacity of the queues. The results are delivered in the order of the
+ * records. For each stage, the number of processed records and the time spent are counted.
+ * <p>
+ * The reader and the decoder run on daemon threads, which are created per call and terminated at its end. If the
+ * handler or a stage fails, the stages are cancelled: the queues are cleared, pending verifications are cancelled,
+ * and the stages stop without waiting for space in a queue.
+ * <p>
+ * @see ch.bfh.unicrypt.crypto.proofsystem.StreamingProofVerifierExample
+ */
+public class StreamingProofVerifier {
+
+	public static final int DEFAULT_CAPACITY = 1024;
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final long END_TIMEOUT = 100;
+
+	private static final ThreadFactory STAGE_THREADS = new ThreadFactory() {
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	};
+
+	public enum Stage {
+
+		READ, DECODE, VERIFY
+
+	}
+
+	/**
+	 * Receives the results of the verification in the order of the records.
+	 */
+	public interface Handler {
+
+		public void handle(int index, boolean valid);
+
+	}
+
+	private static class Record {
+
+		private final int index;
+		private final byte[] bytes;
+		private final long time;
+		private Future<Boolean> result;
+
+		private Record(int index, byte[] bytes, long time) {
+			this.index = index;
+			this.bytes = bytes;
+			this.time = time;
+		}
+
+	}
+
+	private static final Record END = new Record(-1, null, 0);
+
+	private final AbstractSigmaProofSystem proofSystem;
+	private final BinarySerializer serializer;
+	private final ForkJoinPool pool;
+	private final int capacity;
+	private final AtomicLong[] counts;
+	private final AtomicLong[] times;
+	private final AtomicLong latency;
+	private final AtomicLong deliveries;
+
+	private StreamingProofVerifier(AbstractSigmaProofSystem proofSystem, BinarySerializer serializer, ForkJoinPool pool, int capacity) {
+		this.proofSystem = proofSystem;
+		this.serializer = serializer;
+		this.pool = pool;
+		this.capacity = capacity;
+		this.counts = new AtomicLong[Stage.values().length];
+		this.times = new AtomicLong[Stage.values().length];
+		for (int i = 0; i < this.counts.length; i++) {
+			this.counts[i] = new AtomicLong();
+			this.times[i] = new AtomicLong();
+		}
+		this.latency = new AtomicLong();
+		this.deliveries = new AtomicLong();
+	}
+
+	public static StreamingProofVerifier getInstance(AbstractSigmaProofSystem proofSystem, Set publicInputSpace) {
+		return StreamingProofVerifier.getInstance(proofSystem, publicInputSpace, ParallelLoop.getDefaultPool(), StreamingProofVerifier.DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Returns a streaming verifier for the given proof system. The records are decoded with the serializer of the
+	 * product of the public input space and the proof space.
+	 * <p>
+	 * @param proofSystem      The proof system
+	 * @param publicInputSpace The public input space
+	 * @param pool             The pool of the verification stage
+	 * @param capacity         The capacity of the queues between the stages
+	 * @return The streaming verifier
+	 */
+	public static StreamingProofVerifier getInstance(AbstractSigmaProofSystem proofSystem, Set publicInputSpace, ForkJoinPool pool, int capacity) {
+		if (proofSystem == null || publicInputSpace == null || pool == null || capacity < 1) {
+			throw new IllegalArgumentException();
+		}
+		BinarySerializer serializer = BinarySerializer.getInstance(ProductSet.getInstance(publicInputSpace, proofSystem.getProofSpace()));
+		return new StreamingProofVerifier(proofSystem, serializer, pool, capacity);
+	}
+
+	public AbstractSigmaProofSystem getProofSystem() {
+		return this.proofSystem;
+	}
+
+	public BinarySerializer getSerializer() {
+		return this.serializer;
+	}
+
+	/**
+	 * Verifies all records of the channel and returns the indices of the invalid proofs. Records that cannot be
+	 * decoded are invalid.
+	 * <p>
+	 * @param channel The channel
+	 * @return The result of the verification
+	 * @throws IOException If reading the channel fails or if its length is not a multiple of the record length
+	 */
+	public BatchVerificationResult verify(ReadableByteChannel channel) throws IOException {
+		final List<Integer> failingIndices = new ArrayList<>();
+		int size = this.verify(channel, new Handler() {
+
+			@Override
+			public void handle(int index, boolean valid) {
+				if (!valid) {
+					failingIndices.add(index);
+				}
+			}
+
+		});
+		int[] indices = new int[failingIndices.size()];
+		for (int i = 0; i < indices.length; i++) {
+			indices[i] = failingIndices.get(i);
+		}
+		return BatchVerificationResult.getInstance(size, indices);
+	}
+
+	/**
+	 * Verifies all records of the channel and passes the results to the handler in the order of the records. The
+	 * handler is called by the calling thread.
+	 * <p>
+	 * @param channel The channel
+	 * @param handler The handler
+	 * @return The number of records
+	 * @throws IOException If reading the channel fails or if its length is not a multiple of the record length
+	 */
+	public int verify(final ReadableByteChannel channel, Handler handler) throws IOException {
+		if (channel == null || handler == null) {
+			throw new IllegalArgumentException();
+		}
+		final BlockingQueue<Record> records = new ArrayBlockingQueue<>(this.capacity);
+		final BlockingQueue<Record> results = new ArrayBlockingQueue<>(this.capacity);
+		final AtomicReference<Exception> exception = new AtomicReference<>();
+		final AtomicBoolean cancelled = new AtomicBoolean();
+		ExecutorService stages = Executors.newFixedThreadPool(2, StreamingProofVerifier.STAGE_THREADS);
+		try {
+			stages.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() throws InterruptedException {
+					try {
+						StreamingProofVerifier.this.read(channel, records, cancelled);
+					} catch (IOException | RuntimeException e) {
+						exception.compareAndSet(null, e);
+					} finally {
+						StreamingProofVerifier.signalEnd(records, cancelled);
+					}
+					return null;
+				}
+
+			});
+			stages.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() throws InterruptedException {
+					try {
+						StreamingProofVerifier.this.decode(records, results, cancelled);
+					} catch (RuntimeException e) {
+						exception.compareAndSet(null, e);
+					} finally {
+						StreamingProofVerifier.signalEnd(results, cancelled);
+					}
+					return null;
+				}
+
+			});
+			int size = 0;
+			Record record = results.take();
+			while (record != StreamingProofVerifier.END) {
+				boolean valid;
+				try {
+					valid = record.result.get();
+				} catch (ExecutionException e) {
+					valid = false;
+				}
+				this.latency.addAndGet(System.nanoTime() - record.time);
+				this.deliveries.incrementAndGet();
+				handler.handle(record.index, valid);
+				size++;
+				record = results.take();
+			}
+			if (exception.get() instanceof IOException) {
+				throw (IOException) exception.get();
+			}
+			if (exception.get() != null) {
+				throw (RuntimeException) exception.get();
+			}
+			return size;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} finally {
+			// stages that are still running (e.g. after a failure of the handler or the decoder) must not block
+			StreamingProofVerifier.cancel(records, results, cancelled);
+			stages.shutdownNow();
+		}
+	}
+
+	// stops the stages and the pending verifications, such that no stage is blocked by a full queue
+	private static void cancel(BlockingQueue<Record> records, BlockingQueue<Record> results, AtomicBoolean cancelled) {
+		cancelled.set(true);
+		List<Record> pending = new ArrayList<>();
+		records.drainTo(pending);
+		results.drainTo(pending);
+		for (Record record : pending) {
+			if (record.result != null) {
+				record.result.cancel(false);
+			}
+		}
+	}
+
+	// blocks until the end is signalled, unless the next stage has been cancelled
+	private static void signalEnd(BlockingQueue<Record> queue, AtomicBoolean cancelled) throws InterruptedException {
+		while (!cancelled.get()) {
+			if (queue.offer(StreamingProofVerifier.END, StreamingProofVerifier.END_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				return;
+			}
+		}
+	}
+
+	private void read(ReadableByteChannel channel, BlockingQueue<Record> records, AtomicBoolean cancelled) throws IOException, InterruptedException {
+		int length = this.serializer.getLength();
+		ByteBuffer buffer = ByteBuffer.allocate(Math.max(length, StreamingProofVerifier.BUFFER_SIZE));
+		int index = 0;
+		long time = System.nanoTime();
+		boolean end = false;
+		while (!end && !cancelled.get()) {
+			end = channel.read(buffer) < 0;
+			buffer.flip();
+			while (buffer.remaining() >= length) {
+				byte[] bytes = new byte[length];
+				buffer.get(bytes);
+				long now = System.nanoTime();
+				this.count(Stage.READ, now - time);
+				records.put(new Record(index++, bytes, now));
+				time = System.nanoTime();
+			}
+			if (end && buffer.hasRemaining()) {
+				throw new IOException();
+			}
+			buffer.compact();
+		}
+	}
+
+	private void decode(BlockingQueue<Record> records, BlockingQueue<Record> results, AtomicBoolean cancelled) throws InterruptedException {
+		Record record = records.take();
+		while (record != StreamingProofVerifier.END && !cancelled.get()) {
+			long time = System.nanoTime();
+			Tuple tuple;
+			try {
+				tuple = (Tuple) this.serializer.deserialize(record.bytes);
+			} catch (IllegalArgumentException e) {
+				tuple = null;
+			}
+			this.count(Stage.DECODE, System.nanoTime() - time);
+			record.result = this.pool.submit(this.createTask(tuple));
+			results.put(record);
+			record = records.take();
+		}
+	}
+
+	private Callable<Boolean> createTask(final Tuple tuple) {
+		return new Callable<Boolean>() {
+
+			@Override
+			public Boolean call() {
+				if (tuple == null) {
+					return false;
+				}
+				long time = System.nanoTime();
+				boolean valid;
+				try {
+					valid = StreamingProofVerifier.this.proofSystem.verify(tuple.getAt(1), tuple.getAt(0));
+				} catch (IllegalArgumentException e) {
+					valid = false;
+				}
+				StreamingProofVerifier.this.count(Stage.VERIFY, System.nanoTime() - time);
+				return valid;
+			}
+
+		};
+	}
+
+	private void count(Stage stage, long time) {
+		this.counts[stage.ordinal()].incrementAndGet();
+		this.times[stage.ordinal()].addAndGet(time);
+	}
+
+	/**
+	 * Returns the number of records processed by the given stage since the creation of the verifier or the last reset.
+	 * <p>
+	 * @param stage The stage
+	 * @return The number of records
+	 */
+	public long getCount(Stage stage) {
+		return this.counts[stage.ordinal()].get();
+	}
+
+	/**
+	 * Returns the time in nanoseconds spent by the given stage. For the verification stage, this is the sum over all
+	 * threads of the pool.
+	 * <p>
+	 * @param stage The stage
+	 * @return The time in nanoseconds
+	 */
+	public long getTime(Stage stage) {
+		return this.times[stage.ordinal()].get();
+	}
+
+	/**
+	 * Returns the number of records per second processed by a single thread of the given stage.
+	 * <p>
+	 * @param stage The stage
+	 * @return The throughput
+	 */
+	public double getThroughput(Stage stage) {
+		long time = this.getTime(stage);
+		return time == 0 ? 0 : this.getCount(stage) * 1e9 / time;
+	}
+
+	/**
+	 * Returns the average time in nanoseconds between reading a record and delivering its result.
+	 * <p>
+	 * @return The average latency in nanoseconds
+	 */
+	public long getLatency() {
+		long count = this.deliveries.get();
+		return count == 0 ? 0 : this.latency.get() / count;
+	}
+
+	public void resetCounters() {
+		for (int i = 0; i < this.counts.length; i++) {
+			this.counts[i].set(0);
+			this.times[i].set(0);
+		}
+		this.latency.set(0);
+		this.deliveries.set(0);
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.proofsystem;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.crypto.proofsystem.StreamingProofVerifier.Stage;
+import ch.bfh.unicrypt.crypto.proofsystem.challengegenerator.interfaces.SigmaChallengeGenerator;
+import ch.bfh.unicrypt.crypto.proofsystem.classes.ElGamalEncryptionValidityProofSystem;
+import ch.bfh.unicrypt.crypto.schemes.encryption.classes.ElGamalEncryptionScheme;
+import ch.bfh.unicrypt.helper.math.Alphabet;
+import ch.bfh.unicrypt.math.algebra.concatenative.classes.StringElement;
+import ch.bfh.unicrypt.math.algebra.concatenative.classes.StringMonoid;
+import ch.bfh.unicrypt.math.algebra.general.BinarySerializer;
+import ch.bfh.unicrypt.math.algebra.general.classes.Pair;
+import ch.bfh.unicrypt.math.algebra.general.classes.Subset;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModElement;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ *
+ * @see StreamingProofVerifier
+ */
+public class StreamingProofVerifierExample {
+
+	// Safe prime (same as in ShuffleProofSystemExample)
+	final static String P_1024 = "124839508901459225295131478904766553151715203799479873450319702669888301683936126519033292399204126892064039399466769614858812059914518351605494976695246338946504781671208279483554047133686061305170930849857475703281378907333309894394327830075584429809888154770188970744592711756609335320238222672153149255987";
+
+	public static void example1() throws IOException {
+
+		// Create the validity proof system (see ValidityElGamalSerialization)
+		GStarModSafePrime G_q = GStarModSafePrime.getInstance(new BigInteger(P_1024, 10));
+		ElGamalEncryptionScheme elGamal = ElGamalEncryptionScheme.getInstance(G_q.getDefaultGenerator());
+		Pair keyPair = elGamal.getKeyPairGenerator().generateKeyPair();
+		Element publicKey = keyPair.getSecond();
+
+		GStarModElement[] possibleMessages = new GStarModElement[4];
+		for (int i = 0; i < possibleMessages.length; i++) {
+			possibleMessages[i] = G_q.getDefaultGenerator().power(i);
+		}
+		StringElement proverId = StringMonoid.getInstance(Alphabet.BASE64).getElement("Prover1");
+		SigmaChallengeGenerator scg = ElGamalEncryptionValidityProofSystem.createNonInteractiveChallengeGenerator(elGamal, possibleMessages.length, proverId);
+		ElGamalEncryptionValidityProofSystem pg = ElGamalEncryptionValidityProofSystem.getInstance(scg, elGamal, publicKey, Subset.getInstance(G_q, possibleMessages));
+
+		StreamingProofVerifier verifier = StreamingProofVerifier.getInstance(pg, elGamal.getEncryptionSpace());
+		BinarySerializer serializer = verifier.getSerializer();
+
+		// Write the records (cipher text and proof) into a file, the last record is modified
+		int size = 200;
+		File file = File.createTempFile("proofs", ".bin");
+		file.deleteOnExit();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			for (int i = 0; i < size; i++) {
+				Element randomization = elGamal.getRandomizationSpace().getRandomElement();
+				int index = i % possibleMessages.length;
+				Tuple cipherText = elGamal.encrypt(publicKey, possibleMessages[index], randomization);
+				Tuple proof = pg.generate(pg.createPrivateInput(randomization, index), cipherText);
+				ByteBuffer buffer = ByteBuffer.wrap(serializer.serialize(Tuple.getInstance(cipherText, proof)));
+				if (i == size - 1) {
+					buffer.put(serializer.getLength() - 1, (byte) (buffer.get(serializer.getLength() - 1) ^ 1));
+				}
+				channel.write(buffer);
+			}
+		}
+
+		// Verify the records while reading the file
+		long time = System.currentTimeMillis();
+		BatchVerificationResult result;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			result = verifier.verify(channel);
+		}
+		time = System.currentTimeMillis() - time;
+
+		Example.setLabelLength("Record Length");
+		Example.printLine("Record Length", serializer.getLength() + " bytes");
+		Example.printLine("File Size", file.length() + " bytes");
+		Example.printLine("Result", result);
+		Example.printLine("Time", time + " ms");
+		for (Stage stage : Stage.values()) {
+			Example.printLine(stage.toString(), verifier.getCount(stage) + " records", String.format("%.1f records/s", verifier.getThroughput(stage)));
+		}
+		Example.printLine("Latency", verifier.getLatency() / 1000000 + " ms");
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
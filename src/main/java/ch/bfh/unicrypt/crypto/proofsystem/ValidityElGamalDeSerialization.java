@@ -7,52 +7,38 @@ import ch.bfh.unicrypt.helper.math.Alphabet;
 import ch.bfh.unicrypt.math.algebra.concatenative.classes.StringElement;
 import ch.bfh.unicrypt.math.algebra.concatenative.classes.StringMonoid;
 import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZMod;
+import ch.bfh.unicrypt.math.algebra.general.BinarySerializer;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductSet;
 import ch.bfh.unicrypt.math.algebra.general.classes.Subset;
 import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
 import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModElement;
 import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
-import java.io.BufferedInputStream;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.ObjectInput;
-import java.io.ObjectInputStream;
 import java.math.BigInteger;
-
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Reads the file {@code proofs.bin} written by {@link ValidityElGamalSerialization} from the working directory and
+ * verifies the proof. Run {@link ValidityElGamalSerialization} first.
+ * <p>
+ * @see ValidityElGamalSerialization
+ */
 public class ValidityElGamalDeSerialization {
 
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
 
 		GStarModSafePrime gQ = GStarModSafePrime.getInstance(new BigInteger("1187"));
 		ZMod zQ = gQ.getZModOrder();
 
-		Tuple recoveredTuple = null;
-		try {
-			InputStream file = new FileInputStream("proofs.ser");
-			InputStream buffer = new BufferedInputStream(file);
-			ObjectInput input = new ObjectInputStream(buffer);
-			recoveredTuple = (Tuple) input.readObject();
-			input.close();
-		} catch (ClassNotFoundException ex) {
-			ex.printStackTrace();
-		} catch (IOException ex) {
-			ex.printStackTrace();
-		}
-
-		Tuple proof = (Tuple) recoveredTuple.getAt(0);
-		Tuple cipherText = (Tuple) recoveredTuple.getAt(1);
-		GStarModElement publicKey = (GStarModElement) recoveredTuple.getAt(2);
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(Paths.get("proofs.bin")));
+
+		// the public key is needed to create the proof system, which defines the layout of the proof
+		GStarModElement publicKey = (GStarModElement) BinarySerializer.getInstance(gQ).deserialize(buffer);
 		StringElement proverId = StringMonoid.getInstance(Alphabet.BASE64)
 			   .getElement("Prover1");
 
-		System.out.println("proof: " + proof);
-		System.out.println("cipherText: " + cipherText);
-		System.out.println("publicKey: " + publicKey);
-
-		System.out.println("P: " + gQ.getModulus());
-		System.out.println("Q: " + zQ.getModulus());
-		System.out.println("proverId: " + proverId);
-
 		GStarModElement[] possibleMessages = new GStarModElement[4];
 		ElGamalEncryptionScheme elGamal = ElGamalEncryptionScheme.getInstance(gQ);
 
@@ -70,6 +56,19 @@ public class ValidityElGamalDeSerialization {
 		ElGamalEncryptionValidityProofSystem pg = ElGamalEncryptionValidityProofSystem
 			   .getInstance(scg, elGamal, publicKey, plaintexts);
 
+		BinarySerializer serializer = BinarySerializer.getInstance(ProductSet.getInstance(elGamal.getEncryptionSpace(), pg.getProofSpace()));
+		Tuple recoveredTuple = (Tuple) serializer.deserialize(buffer);
+		Tuple cipherText = (Tuple) recoveredTuple.getAt(0);
+		Tuple proof = (Tuple) recoveredTuple.getAt(1);
+
+		System.out.println("proof: " + proof);
+		System.out.println("cipherText: " + cipherText);
+		System.out.println("publicKey: " + publicKey);
+
+		System.out.println("P: " + gQ.getModulus());
+		System.out.println("Q: " + zQ.getModulus());
+		System.out.println("proverId: " + proverId);
+
 		boolean v = pg.verify(proof, cipherText);
 
 		System.out.println("Proof valid: " + v);
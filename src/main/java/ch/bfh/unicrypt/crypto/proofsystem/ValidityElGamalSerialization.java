@@ -10,21 +10,28 @@ import ch.bfh.unicrypt.math.algebra.concatenative.classes.StringElement;
 import ch.bfh.unicrypt.math.algebra.concatenative.classes.StringMonoid;
 import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZMod;
 import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZModElement;
+import ch.bfh.unicrypt.math.algebra.general.BinarySerializer;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductSet;
 import ch.bfh.unicrypt.math.algebra.general.classes.Subset;
 import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
 import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModElement;
 import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
-import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutput;
-import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.math.BigInteger;
-
+import java.nio.ByteBuffer;
+
+/**
+ * Generates an ElGamal encryption validity proof and writes the public key, the ciphertext and the proof into the file
+ * {@code proofs.bin} in the working directory. Run this class before {@link ValidityElGamalDeSerialization}, which
+ * reads the file and verifies the proof.
+ * <p>
+ * @see ValidityElGamalDeSerialization
+ */
 public class ValidityElGamalSerialization {
 
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
 
 		GStarModSafePrime gQ = GStarModSafePrime.getInstance(new BigInteger("1187"));
 		ZMod zQ = gQ.getZModOrder();
@@ -74,15 +81,15 @@ public class ValidityElGamalSerialization {
 
 		Tuple proof = pg.generate(privateInput, cipherText);
 
-		try {
-			OutputStream file = new FileOutputStream("proofs.ser");
-			OutputStream buffer = new BufferedOutputStream(file);
-			ObjectOutput output = new ObjectOutputStream(buffer);
+		// public key, followed by cipher text and proof
+		BinarySerializer publicKeySerializer = BinarySerializer.getInstance(gQ);
+		BinarySerializer serializer = BinarySerializer.getInstance(ProductSet.getInstance(elGamal.getEncryptionSpace(), pg.getProofSpace()));
+		ByteBuffer buffer = ByteBuffer.allocate(publicKeySerializer.getLength() + serializer.getLength());
+		publicKeySerializer.serialize(publicKey, buffer);
+		serializer.serialize(Tuple.getInstance(cipherText, proof), buffer);
 
-			output.writeObject(Tuple.getInstance(proof, cipherText, publicKey));
-			output.close();
-		} catch (IOException ex) {
-			System.out.println("Problem");
+		try (OutputStream file = new FileOutputStream("proofs.bin")) {
+			file.write(buffer.array());
 		}
 
 		SigmaChallengeGenerator scg2 = ElGamalEncryptionValidityProofSystem.createNonInteractiveChallengeGenerator(elGamal, possibleMessages.length, proverId);
@@ -0,0 +1,182 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.schemes.commitment;
+
+import ch.bfh.unicrypt.crypto.schemes.commitment.classes.PermutationCommitmentScheme;
+import ch.bfh.unicrypt.helper.ParallelLoop;
+import ch.bfh.unicrypt.math.algebra.general.classes.PermutationElement;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.multiplicative.FixedBaseExponentiation;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModElement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Prepared version of a {@link PermutationCommitmentScheme} for computing many permutation commitments with the same
+ * generators. A commitment {@code c_i = g^(s_i) * h_j} consists of a randomization part, which is an exponentiation of
+ * the fixed generator {@code g}, and a message part, which is one of the independent generators {@code h_j} selected
+ * by the permutation. The exponentiations of {@code g} are computed with a {@link FixedBaseExponentiation} table,
+ * which is built once per scheme, and the message parts are obtained from the underlying scheme by committing with
+ * zero randomizations (no exponentiations are required for this). The values {@code c_i} are then computed in
+ * parallel (see {@link ParallelLoop}). For groups other than {@code GStarMod}, the exponentiations of {@code g} are
+ * computed by {@code selfApply}. Prepared instances are cached and can be shared among threads.
+ * <p>
+ * @see ch.bfh.unicrypt.crypto.schemes.commitment.PreparedPermutationCommitmentSchemeExample
+ */
+public class PreparedPermutationCommitmentScheme {
+
+	private static final Map<PermutationCommitmentScheme, PreparedPermutationCommitmentScheme> INSTANCES = new ConcurrentHashMap<>();
+
+	private final PermutationCommitmentScheme permutationCommitmentScheme;
+	private final Element randomizationGenerator;
+	private final FixedBaseExponentiation randomizationGeneratorTable;
+	private final Tuple zeroRandomizations;
+
+	private PreparedPermutationCommitmentScheme(PermutationCommitmentScheme permutationCommitmentScheme) {
+		this.permutationCommitmentScheme = permutationCommitmentScheme;
+		this.randomizationGenerator = permutationCommitmentScheme.getRandomizationGenerator();
+		if (this.randomizationGenerator instanceof GStarModElement) {
+			this.randomizationGeneratorTable = FixedBaseExponentiation.getInstance((GStarModElement) this.randomizationGenerator);
+		} else {
+			this.randomizationGeneratorTable = null;
+		}
+		this.zeroRandomizations = (Tuple) permutationCommitmentScheme.getRandomizationSpace().getIdentityElement();
+	}
+
+	public static PreparedPermutationCommitmentScheme getInstance(PermutationCommitmentScheme permutationCommitmentScheme) {
+		if (permutationCommitmentScheme == null) {
+			throw new IllegalArgumentException();
+		}
+		PreparedPermutationCommitmentScheme instance = INSTANCES.get(permutationCommitmentScheme);
+		if (instance == null) {
+			instance = new PreparedPermutationCommitmentScheme(permutationCommitmentScheme);
+			INSTANCES.put(permutationCommitmentScheme, instance);
+		}
+		return instance;
+	}
+
+	public PermutationCommitmentScheme getPermutationCommitmentScheme() {
+		return this.permutationCommitmentScheme;
+	}
+
+	public Tuple commit(PermutationElement permutation, Tuple randomizations) {
+		return this.commit(ParallelLoop.getDefaultPool(), permutation, randomizations);
+	}
+
+	/**
+	 * Computes the permutation commitment using the threads of the given pool. This corresponds to calling
+	 * {@code commit(permutation, randomizations)} of the underlying scheme.
+	 * <p>
+	 * @param pool           The pool
+	 * @param permutation    The permutation
+	 * @param randomizations The randomizations
+	 * @return The permutation commitment
+	 */
+	public Tuple commit(ForkJoinPool pool, PermutationElement permutation, Tuple randomizations) {
+		if (pool == null || randomizations == null || !this.permutationCommitmentScheme.getRandomizationSpace().contains(randomizations)) {
+			throw new IllegalArgumentException();
+		}
+		// h_j for all i
+		final Tuple messageParts = this.permutationCommitmentScheme.commit(permutation, this.zeroRandomizations);
+		final Element[] rs = new Element[randomizations.getArity()];
+		for (int i = 0; i < rs.length; i++) {
+			rs[i] = randomizations.getAt(i);
+		}
+		final Element[] commitments = new Element[rs.length];
+		ParallelLoop.run(pool, rs.length, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				PreparedPermutationCommitmentScheme prepared = PreparedPermutationCommitmentScheme.this;
+				for (int i = from; i < to; i++) {
+					Element randomizationPart;
+					if (prepared.randomizationGeneratorTable == null) {
+						randomizationPart = prepared.randomizationGenerator.selfApply(rs[i]);
+					} else {
+						randomizationPart = prepared.randomizationGeneratorTable.power(rs[i]);
+					}
+					commitments[i] = randomizationPart.apply(messageParts.getAt(i));
+				}
+			}
+
+		});
+		return Tuple.getInstance(commitments);
+	}
+
+	public boolean verify(Tuple commitment, PermutationElement permutation, Tuple randomizations) {
+		return this.verify(ParallelLoop.getDefaultPool(), commitment, permutation, randomizations);
+	}
+
+	/**
+	 * Verifies the permutation commitment by recomputing it in parallel and comparing the values.
+	 * <p>
+	 * @param pool           The pool
+	 * @param commitment     The permutation commitment
+	 * @param permutation    The permutation
+	 * @param randomizations The randomizations
+	 * @return {@code true} if the commitment is valid
+	 */
+	public boolean verify(ForkJoinPool pool, final Tuple commitment, PermutationElement permutation, Tuple randomizations) {
+		if (commitment == null || !this.permutationCommitmentScheme.getCommitmentSpace().contains(commitment)) {
+			throw new IllegalArgumentException();
+		}
+		final Tuple expected = this.commit(pool, permutation, randomizations);
+		final AtomicBoolean valid = new AtomicBoolean(true);
+		ParallelLoop.run(pool, expected.getArity(), new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				for (int i = from; i < to && valid.get(); i++) {
+					if (!expected.getAt(i).isEquivalent(commitment.getAt(i))) {
+						valid.set(false);
+					}
+				}
+			}
+
+		});
+		return valid.get();
+	}
+
+}
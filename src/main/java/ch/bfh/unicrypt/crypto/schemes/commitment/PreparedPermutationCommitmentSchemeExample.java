@@ -0,0 +1,110 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.schemes.commitment;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.crypto.schemes.commitment.classes.PermutationCommitmentScheme;
+import ch.bfh.unicrypt.helper.random.deterministic.DeterministicRandomByteSequence;
+import ch.bfh.unicrypt.math.algebra.general.classes.PermutationElement;
+import ch.bfh.unicrypt.math.algebra.general.classes.PermutationGroup;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
+import java.math.BigInteger;
+
+/**
+ *
+ * @see PreparedPermutationCommitmentScheme
+ */
+public class PreparedPermutationCommitmentSchemeExample {
+
+	// Safe prime (same as in ShuffleProofSystemExample)
+	final static String P_1024 = "124839508901459225295131478904766553151715203799479873450319702669888301683936126519033292399204126892064039399466769614858812059914518351605494976695246338946504781671208279483554047133686061305170930849857475703281378907333309894394327830075584429809888154770188970744592711756609335320238222672153149255987";
+
+	public static void example1() {
+
+		// Create permutation commitment scheme
+		final DeterministicRandomByteSequence rrs = DeterministicRandomByteSequence.getInstance();
+		final GStarModSafePrime G_q = GStarModSafePrime.getInstance(new BigInteger(P_1024, 10));
+		final int size = 1000;
+		PermutationCommitmentScheme pcs = PermutationCommitmentScheme.getInstance(G_q, size, rrs);
+
+		// The first call builds the fixed-base table
+		long time = System.currentTimeMillis();
+		PreparedPermutationCommitmentScheme prepared = PreparedPermutationCommitmentScheme.getInstance(pcs);
+		long time1 = System.currentTimeMillis() - time;
+
+		// Commit to a few permutations
+		int batches = 5;
+		long time2 = 0;
+		long time3 = 0;
+		boolean equal = true;
+		boolean valid = true;
+		for (int i = 0; i < batches; i++) {
+			PermutationElement permutation = PermutationGroup.getInstance(size).getRandomElement();
+			Tuple randomizations = pcs.getRandomizationSpace().getRandomElement();
+
+			time = System.currentTimeMillis();
+			Tuple commitment1 = pcs.commit(permutation, randomizations);
+			time2 += System.currentTimeMillis() - time;
+
+			time = System.currentTimeMillis();
+			Tuple commitment2 = prepared.commit(permutation, randomizations);
+			time3 += System.currentTimeMillis() - time;
+
+			equal = equal && commitment1.isEquivalent(commitment2);
+			valid = valid && prepared.verify(commitment1, permutation, randomizations);
+		}
+
+		Example.setLabelLength("Prepared Commit");
+		Example.printLine("Batches", batches);
+		Example.printLine("Table", time1 + " ms");
+		Example.printLine("Commit", time2 + " ms");
+		Example.printLine("Prepared Commit", time3 + " ms");
+		Example.printLine("Equal", equal);
+		Example.printLine("Valid", valid);
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
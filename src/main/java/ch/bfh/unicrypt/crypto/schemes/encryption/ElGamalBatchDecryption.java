@@ -0,0 +1,174 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.schemes.encryption;
+
+import ch.bfh.unicrypt.crypto.schemes.encryption.classes.ElGamalEncryptionScheme;
+import ch.bfh.unicrypt.helper.ParallelLoop;
+import ch.bfh.unicrypt.math.algebra.additive.ECZModScalarMultiplication;
+import ch.bfh.unicrypt.math.algebra.additive.JacobianECZModPrime;
+import ch.bfh.unicrypt.math.algebra.additive.JacobianECZModPrime.Point;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModElement;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModPrime;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.CyclicGroup;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Decrypts many ElGamal ciphertexts {@code (a,b)} with the same private key {@code x}. The work that depends only on
+ * the private key is done once when the instance is created:
+ * <ul>
+ * <li>The division {@code b/a^x} is replaced by the multiplication {@code b*a^(q-x)}, i.e. the negated exponent
+ * {@code q-x} is computed once and no inversion is required at all.</li>
+ * <li>For elliptic curves over prime fields, the exponent is recoded once into its wNAF representation, the scalar
+ * multiplications are performed in Jacobian coordinates, and the results of each chunk are normalized with a single
+ * inversion.</li>
+ * </ul>
+ * The ciphertexts are decrypted in parallel (see {@link ParallelLoop}). Instances contain the private key and are
+ * therefore not cached.
+ * <p>
+ * @see ch.bfh.unicrypt.crypto.schemes.encryption.ElGamalBatchDecryptionExample
+ */
+public class ElGamalBatchDecryption {
+
+	private final ElGamalEncryptionScheme elGamal;
+	private final CyclicGroup cyclicGroup;
+	private final BigInteger negatedPrivateKey;
+	private final ECZModScalarMultiplication multiplication;
+	private final int[] naf;
+
+	private ElGamalBatchDecryption(ElGamalEncryptionScheme elGamal, BigInteger negatedPrivateKey) {
+		this.elGamal = elGamal;
+		this.cyclicGroup = elGamal.getCyclicGroup();
+		this.negatedPrivateKey = negatedPrivateKey;
+		if (this.cyclicGroup instanceof ECZModPrime) {
+			this.multiplication = ECZModScalarMultiplication.getInstance((ECZModPrime) this.cyclicGroup);
+			this.naf = ECZModScalarMultiplication.getWNAF(negatedPrivateKey, ECZModScalarMultiplication.DEFAULT_NAF_WIDTH);
+		} else {
+			this.multiplication = null;
+			this.naf = null;
+		}
+	}
+
+	public static ElGamalBatchDecryption getInstance(ElGamalEncryptionScheme elGamal, Element privateKey) {
+		if (elGamal == null || privateKey == null || !elGamal.getCyclicGroup().getZModOrder().contains(privateKey)) {
+			throw new IllegalArgumentException();
+		}
+		BigInteger order = elGamal.getCyclicGroup().getOrder();
+		BigInteger negatedPrivateKey = order.subtract(privateKey.convertToBigInteger()).mod(order);
+		return new ElGamalBatchDecryption(elGamal, negatedPrivateKey);
+	}
+
+	/**
+	 * Decrypts all ciphertexts of the given tuple. This corresponds to calling
+	 * {@code elGamal.decrypt(privateKey, encryptions.getAt(i))} for each ciphertext.
+	 * <p>
+	 * @param elGamal     The ElGamal encryption scheme
+	 * @param privateKey  The private key
+	 * @param encryptions The tuple of ciphertexts
+	 * @return The tuple of messages
+	 */
+	public static Tuple decrypt(ElGamalEncryptionScheme elGamal, Element privateKey, Tuple encryptions) {
+		return ElGamalBatchDecryption.getInstance(elGamal, privateKey).decrypt(encryptions);
+	}
+
+	public ElGamalEncryptionScheme getElGamalEncryptionScheme() {
+		return this.elGamal;
+	}
+
+	public Element decrypt(Element encryption) {
+		return this.decrypt(Tuple.getInstance(encryption)).getAt(0);
+	}
+
+	public Tuple decrypt(Tuple encryptions) {
+		return this.decrypt(ParallelLoop.getDefaultPool(), encryptions);
+	}
+
+	/**
+	 * Decrypts all ciphertexts of the given tuple using the threads of the given pool.
+	 * <p>
+	 * @param pool        The pool
+	 * @param encryptions The tuple of ciphertexts
+	 * @return The tuple of messages
+	 */
+	public Tuple decrypt(ForkJoinPool pool, Tuple encryptions) {
+		if (pool == null || encryptions == null) {
+			throw new IllegalArgumentException();
+		}
+		final Element[] lefts = new Element[encryptions.getArity()];
+		final Element[] rights = new Element[encryptions.getArity()];
+		for (int i = 0; i < lefts.length; i++) {
+			Element encryption = encryptions.getAt(i);
+			if (!this.elGamal.getEncryptionSpace().contains(encryption)) {
+				throw new IllegalArgumentException();
+			}
+			lefts[i] = ((Tuple) encryption).getAt(0);
+			rights[i] = ((Tuple) encryption).getAt(1);
+		}
+		final Element[] messages = new Element[lefts.length];
+		ParallelLoop.run(pool, lefts.length, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				if (ElGamalBatchDecryption.this.multiplication == null) {
+					for (int i = from; i < to; i++) {
+						// m = b * a^(q-x)
+						messages[i] = rights[i].apply(lefts[i].selfApply(ElGamalBatchDecryption.this.negatedPrivateKey));
+					}
+				} else {
+					JacobianECZModPrime jacobian = ElGamalBatchDecryption.this.multiplication.getJacobian();
+					Point[] points = new Point[to - from];
+					for (int i = from; i < to; i++) {
+						Point point = ElGamalBatchDecryption.this.multiplication.times(jacobian.fromAffine((ECZModElement) lefts[i]), ElGamalBatchDecryption.this.naf);
+						points[i - from] = jacobian.add(point, jacobian.fromAffine((ECZModElement) rights[i]));
+					}
+					ECZModElement[] results = jacobian.toAffine(points);
+					System.arraycopy(results, 0, messages, from, results.length);
+				}
+			}
+
+		});
+		return Tuple.getInstance(messages);
+	}
+
+}
@@ -0,0 +1,251 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.schemes.encryption;
+
+import ch.bfh.unicrypt.crypto.schemes.encryption.classes.ElGamalEncryptionScheme;
+import ch.bfh.unicrypt.helper.ParallelLoop;
+import ch.bfh.unicrypt.math.algebra.additive.ECZModScalarMultiplication;
+import ch.bfh.unicrypt.math.algebra.additive.JacobianECZModPrime;
+import ch.bfh.unicrypt.math.algebra.additive.JacobianECZModPrime.Point;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModElement;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModPrime;
+import ch.bfh.unicrypt.math.algebra.general.classes.Pair;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductGroup;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.CyclicGroup;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.multiplicative.FixedBaseExponentiation;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarMod;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModElement;
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Encrypts many messages with the same ElGamal public key {@code y}. Each ciphertext {@code (g^r, m*y^r)} requires
+ * two exponentiations with the fixed bases {@code g} and {@code y}, which are therefore computed with precomputed
+ * tables: {@link FixedBaseExponentiation} for {@code GStarMod} groups and the comb tables of
+ * {@link ECZModScalarMultiplication} for elliptic curves over prime fields. For the latter, the points of each chunk
+ * are normalized with a single inversion. Other groups fall back to {@code elGamal.encrypt}. The messages are
+ * encrypted in parallel (see {@link ParallelLoop}), and the resulting tuple is created once from an array. The table
+ * of the public key is kept by the instance and not in the global caches of the generators.
+ * <p>
+ * @see ch.bfh.unicrypt.crypto.schemes.encryption.ElGamalBatchEncryptionExample
+ */
+public class ElGamalBatchEncryption {
+
+	private final ElGamalEncryptionScheme elGamal;
+	private final CyclicGroup cyclicGroup;
+	private final Element publicKey;
+	private final FixedBaseExponentiation generatorTable;
+	private final FixedBaseExponentiation publicKeyTable;
+	private final ECZModScalarMultiplication multiplication;
+	private final ECZModScalarMultiplication.Comb generatorComb;
+	private final ECZModScalarMultiplication.Comb publicKeyComb;
+
+	private ElGamalBatchEncryption(ElGamalEncryptionScheme elGamal, Element publicKey) {
+		this.elGamal = elGamal;
+		this.cyclicGroup = elGamal.getCyclicGroup();
+		this.publicKey = publicKey;
+		if (this.cyclicGroup instanceof GStarMod) {
+			this.generatorTable = FixedBaseExponentiation.getInstance((GStarModElement) elGamal.getGenerator());
+			this.publicKeyTable = FixedBaseExponentiation.getInstance((GStarModElement) publicKey, FixedBaseExponentiation.DEFAULT_WINDOW_SIZE);
+		} else {
+			this.generatorTable = null;
+			this.publicKeyTable = null;
+		}
+		if (this.cyclicGroup instanceof ECZModPrime) {
+			this.multiplication = ECZModScalarMultiplication.getInstance((ECZModPrime) this.cyclicGroup);
+			this.generatorComb = this.multiplication.getComb((ECZModElement) elGamal.getGenerator());
+			this.publicKeyComb = this.multiplication.createComb((ECZModElement) publicKey);
+		} else {
+			this.multiplication = null;
+			this.generatorComb = null;
+			this.publicKeyComb = null;
+		}
+	}
+
+	/**
+	 * Returns an instance for the given public key. The table of the generator is shared with other instances, whereas
+	 * the table of the public key belongs to the new instance, i.e. it is released together with the instance. An
+	 * instance should therefore be kept as long as the public key is used.
+	 * <p>
+	 * @param elGamal   The ElGamal encryption scheme
+	 * @param publicKey The public key
+	 * @return The instance
+	 */
+	public static ElGamalBatchEncryption getInstance(ElGamalEncryptionScheme elGamal, Element publicKey) {
+		if (elGamal == null || publicKey == null || !elGamal.getCyclicGroup().contains(publicKey)) {
+			throw new IllegalArgumentException();
+		}
+		return new ElGamalBatchEncryption(elGamal, publicKey);
+	}
+
+	/**
+	 * Encrypts all messages of the given tuple with the corresponding randomizations. This corresponds to calling
+	 * {@code elGamal.encrypt(publicKey, messages.getAt(i), randomizations.getAt(i))} for each message. The table of the
+	 * public key is computed for this call only.
+	 * <p>
+	 * @param elGamal        The ElGamal encryption scheme
+	 * @param publicKey      The public key
+	 * @param messages       The tuple of messages
+	 * @param randomizations The tuple of randomizations
+	 * @return The tuple of ciphertexts
+	 */
+	public static Tuple encrypt(ElGamalEncryptionScheme elGamal, Element publicKey, Tuple messages, Tuple randomizations) {
+		return ElGamalBatchEncryption.getInstance(elGamal, publicKey).encrypt(messages, randomizations);
+	}
+
+	public static Tuple encrypt(ElGamalEncryptionScheme elGamal, Element publicKey, Tuple messages) {
+		return ElGamalBatchEncryption.getInstance(elGamal, publicKey).encrypt(messages);
+	}
+
+	public ElGamalEncryptionScheme getElGamalEncryptionScheme() {
+		return this.elGamal;
+	}
+
+	public Element getPublicKey() {
+		return this.publicKey;
+	}
+
+	/**
+	 * Encrypts all messages of the given tuple with fresh random randomizations.
+	 * <p>
+	 * @param messages The tuple of messages
+	 * @return The tuple of ciphertexts
+	 */
+	public Tuple encrypt(Tuple messages) {
+		if (messages == null) {
+			throw new IllegalArgumentException();
+		}
+		Tuple randomizations = ProductGroup.getInstance(this.elGamal.getRandomizationSpace(), messages.getArity()).getRandomElement();
+		return this.encrypt(messages, randomizations);
+	}
+
+	public Tuple encrypt(Tuple messages, Tuple randomizations) {
+		return this.encrypt(ParallelLoop.getDefaultPool(), messages, randomizations);
+	}
+
+	/**
+	 * Encrypts all messages of the given tuple using the threads of the given pool.
+	 * <p>
+	 * @param pool           The pool
+	 * @param messages       The tuple of messages
+	 * @param randomizations The tuple of randomizations
+	 * @return The tuple of ciphertexts
+	 */
+	public Tuple encrypt(ForkJoinPool pool, Tuple messages, Tuple randomizations) {
+		if (pool == null || messages == null || randomizations == null || messages.getArity() != randomizations.getArity()) {
+			throw new IllegalArgumentException();
+		}
+		final Element[] ms = new Element[messages.getArity()];
+		final Element[] rs = new Element[messages.getArity()];
+		for (int i = 0; i < ms.length; i++) {
+			ms[i] = messages.getAt(i);
+			rs[i] = randomizations.getAt(i);
+			if (!this.elGamal.getMessageSpace().contains(ms[i]) || !this.elGamal.getRandomizationSpace().contains(rs[i])) {
+				throw new IllegalArgumentException();
+			}
+		}
+		final Element[] encryptions = new Element[ms.length];
+		ParallelLoop.run(pool, ms.length, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				ElGamalBatchEncryption batch = ElGamalBatchEncryption.this;
+				if (batch.generatorTable != null) {
+					for (int i = from; i < to; i++) {
+						BigInteger r = rs[i].convertToBigInteger();
+						encryptions[i] = Pair.getInstance(batch.generatorTable.power(r), batch.publicKeyTable.power(r).apply(ms[i]));
+					}
+				} else if (batch.multiplication != null) {
+					JacobianECZModPrime jacobian = batch.multiplication.getJacobian();
+					Point[] points = new Point[2 * (to - from)];
+					for (int i = from; i < to; i++) {
+						BigInteger r = rs[i].convertToBigInteger();
+						points[2 * (i - from)] = batch.generatorComb.times(r);
+						points[2 * (i - from) + 1] = jacobian.add(batch.publicKeyComb.times(r), jacobian.fromAffine((ECZModElement) ms[i]));
+					}
+					ECZModElement[] results = jacobian.toAffine(points);
+					for (int i = from; i < to; i++) {
+						encryptions[i] = Pair.getInstance(results[2 * (i - from)], results[2 * (i - from) + 1]);
+					}
+				} else {
+					for (int i = from; i < to; i++) {
+						encryptions[i] = batch.elGamal.encrypt(batch.publicKey, ms[i], rs[i]);
+					}
+				}
+			}
+
+		});
+		return Tuple.getInstance(encryptions);
+	}
+
+	/**
+	 * Re-encrypts a single ciphertext {@code (a,b)} into {@code (a*g^r, b*y^r)} using the same tables as the batch
+	 * encryption. This corresponds to calling {@code elGamal.reEncrypt(publicKey, encryption, randomization)}. The
+	 * method is thread-safe and intended to be called from parallel loops.
+	 * <p>
+	 * @param encryption    The ciphertext
+	 * @param randomization The randomization
+	 * @return The re-encrypted ciphertext
+	 */
+	public Tuple reEncrypt(Element encryption, Element randomization) {
+		if (!this.elGamal.getEncryptionSpace().contains(encryption) || !this.elGamal.getRandomizationSpace().contains(randomization)) {
+			throw new IllegalArgumentException();
+		}
+		Element left = ((Tuple) encryption).getAt(0);
+		Element right = ((Tuple) encryption).getAt(1);
+		BigInteger r = randomization.convertToBigInteger();
+		if (this.generatorTable != null) {
+			return Pair.getInstance(left.apply(this.generatorTable.power(r)), right.apply(this.publicKeyTable.power(r)));
+		}
+		if (this.multiplication != null) {
+			JacobianECZModPrime jacobian = this.multiplication.getJacobian();
+			Point newLeft = jacobian.add(this.generatorComb.times(r), jacobian.fromAffine((ECZModElement) left));
+			Point newRight = jacobian.add(this.publicKeyComb.times(r), jacobian.fromAffine((ECZModElement) right));
+			ECZModElement[] results = jacobian.toAffine(newLeft, newRight);
+			return Pair.getInstance(results[0], results[1]);
+		}
+		return this.elGamal.reEncrypt(this.publicKey, encryption, randomization);
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.schemes.signature;
+
+import ch.bfh.unicrypt.crypto.proofsystem.BatchVerificationResult;
+import ch.bfh.unicrypt.crypto.schemes.signature.classes.SchnorrSignatureScheme;
+import ch.bfh.unicrypt.helper.ParallelLoop;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Verifies many Schnorr signatures, under the same or different public keys, and reports both the aggregate result
+ * and the indices of the invalid signatures (see {@link BatchVerificationResult}). The signatures of
+ * {@link SchnorrSignatureScheme} consist of the challenge {@code c = H(m,t)} and the response {@code s}, but not of
+ * the commitment {@code t}. Since {@code t} is only obtained by computing {@code g^s*y^(-c)}, and since {@code c} can
+ * only be checked by hashing this value, the verification equations cannot be combined into a single
+ * multi-exponentiation. The signatures are therefore verified individually, but in parallel on the threads of a pool
+ * (see {@link ParallelLoop}). This works for all cyclic groups, e.g. {@code GStarModSafePrime} or {@code ECZModPrime}.
+ * <p>
+ * @see ch.bfh.unicrypt.crypto.schemes.signature.SchnorrBatchVerificationExample
+ */
+public class SchnorrBatchVerification {
+
+	/**
+	 * Verifies the given signatures under a single public key.
+	 * <p>
+	 * @param schnorr    The Schnorr signature scheme
+	 * @param publicKey  The public key
+	 * @param messages   The messages
+	 * @param signatures The signatures
+	 * @return The aggregate result and the indices of the invalid signatures
+	 */
+	public static BatchVerificationResult verify(SchnorrSignatureScheme<?> schnorr, Element publicKey, List<? extends Element> messages, List<? extends Element> signatures) {
+		if (messages == null) {
+			throw new IllegalArgumentException();
+		}
+		return SchnorrBatchVerification.verify(schnorr, Collections.nCopies(messages.size(), publicKey), messages, signatures);
+	}
+
+	public static BatchVerificationResult verify(SchnorrSignatureScheme<?> schnorr, List<? extends Element> publicKeys, List<? extends Element> messages, List<? extends Element> signatures) {
+		return SchnorrBatchVerification.verify(ParallelLoop.getDefaultPool(), schnorr, publicKeys, messages, signatures);
+	}
+
+	/**
+	 * Verifies the given signatures under the corresponding public keys using the threads of the given pool.
+	 * <p>
+	 * @param pool       The pool
+	 * @param schnorr    The Schnorr signature scheme
+	 * @param publicKeys The public keys
+	 * @param messages   The messages
+	 * @param signatures The signatures
+	 * @return The aggregate result and the indices of the invalid signatures
+	 */
+	public static BatchVerificationResult verify(ForkJoinPool pool, final SchnorrSignatureScheme<?> schnorr, List<? extends Element> publicKeys, List<? extends Element> messages, List<? extends Element> signatures) {
+		if (pool == null || schnorr == null || publicKeys == null || messages == null || signatures == null || publicKeys.size() != messages.size() || messages.size() != signatures.size()) {
+			throw new IllegalArgumentException();
+		}
+		final Element[] pks = publicKeys.toArray(new Element[publicKeys.size()]);
+		final Element[] ms = messages.toArray(new Element[messages.size()]);
+		final Element[] ss = signatures.toArray(new Element[signatures.size()]);
+		final boolean[] results = new boolean[ss.length];
+		ParallelLoop.run(pool, ss.length, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					try {
+						results[i] = schnorr.verify(pks[i], ms[i], ss[i]).getValue();
+					} catch (IllegalArgumentException exception) {
+						// malformed public key, message, or signature
+						results[i] = false;
+					}
+				}
+			}
+
+		});
+		return BatchVerificationResult.getInstance(results);
+	}
+
+}
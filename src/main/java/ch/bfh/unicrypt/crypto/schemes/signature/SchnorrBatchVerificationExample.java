@@ -0,0 +1,119 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.crypto.schemes.signature;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.crypto.proofsystem.BatchVerificationResult;
+import ch.bfh.unicrypt.crypto.schemes.signature.classes.SchnorrSignatureScheme;
+import ch.bfh.unicrypt.helper.math.Alphabet;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModPrime;
+import ch.bfh.unicrypt.math.algebra.additive.parameters.ECZModPrimeParameters;
+import ch.bfh.unicrypt.math.algebra.concatenative.classes.StringMonoid;
+import ch.bfh.unicrypt.math.algebra.general.classes.Pair;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.CyclicGroup;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ *
+ * @see SchnorrBatchVerification
+ */
+public class SchnorrBatchVerificationExample {
+
+	// Safe prime (same as in ShuffleProofSystemExample)
+	final static String P_1024 = "124839508901459225295131478904766553151715203799479873450319702669888301683936126519033292399204126892064039399466769614858812059914518351605494976695246338946504781671208279483554047133686061305170930849857475703281378907333309894394327830075584429809888154770188970744592711756609335320238222672153149255987";
+
+	public static void example1() {
+
+		// Signatures of different signers in G_q and on an elliptic curve
+		CyclicGroup[] cyclicGroups = {
+			GStarModSafePrime.getInstance(new BigInteger(P_1024, 10)),
+			ECZModPrime.getInstance(ECZModPrimeParameters.SECP256r1)
+		};
+		for (CyclicGroup cyclicGroup : cyclicGroups) {
+			SchnorrSignatureScheme<StringMonoid> schnorr = SchnorrSignatureScheme.getInstance(StringMonoid.getInstance(Alphabet.BASE64), cyclicGroup.getDefaultGenerator());
+
+			int size = 200;
+			List<Element> publicKeys = new ArrayList<>();
+			List<Element> messages = new ArrayList<>();
+			List<Element> signatures = new ArrayList<>();
+			for (int i = 0; i < size; i++) {
+				Pair keyPair = schnorr.getKeyPairGenerator().generateKeyPair();
+				Element message = schnorr.getMessageSpace().getElement("Ballot" + i);
+				publicKeys.add(keyPair.getSecond());
+				messages.add(message);
+				signatures.add(schnorr.sign(keyPair.getFirst(), message));
+			}
+			// Replace message 5
+			messages.set(5, schnorr.getMessageSpace().getElement("Ballot"));
+
+			long time = System.currentTimeMillis();
+			boolean valid = true;
+			for (int i = 0; i < size; i++) {
+				boolean signatureValid = schnorr.verify(publicKeys.get(i), messages.get(i), signatures.get(i)).getValue();
+				valid &= signatureValid;
+			}
+			long time1 = System.currentTimeMillis() - time;
+
+			time = System.currentTimeMillis();
+			BatchVerificationResult result = SchnorrBatchVerification.verify(schnorr, publicKeys, messages, signatures);
+			long time2 = System.currentTimeMillis() - time;
+
+			Example.setLabelLength("Batch Verification");
+			Example.printLine("Cyclic Group", cyclicGroup);
+			Example.printLine("Verification", time1 + " ms");
+			Example.printLine("Batch Verification", time2 + " ms");
+			Example.printLine("Valid", valid);
+			Example.printLine("Valid", result.isValid());
+			Example.printLine("Failing Indices", Arrays.toString(result.getFailingIndices()));
+		}
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
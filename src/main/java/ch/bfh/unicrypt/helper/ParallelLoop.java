@@ -0,0 +1,150 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.helper;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the iterations {@code 0,...,n-1} of a loop in parallel on a {@link ForkJoinPool}. The index range is split
+ * recursively until the ranges are smaller than a given threshold, and each range is then passed to the loop body.
+ * Exceptions thrown by the loop body are rethrown in the calling thread.
+ * <p>
+ * @see ch.bfh.unicrypt.helper.ParallelLoopExample
+ */
+public class ParallelLoop {
+
+	private static final ForkJoinPool DEFAULT_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * The body of a parallel loop.
+	 */
+	public interface Body {
+
+		/**
+		 * Executes the iterations {@code from,...,to-1}.
+		 * <p>
+		 * @param from The first index (inclusive)
+		 * @param to   The last index (exclusive)
+		 */
+		public void run(int from, int to);
+
+	}
+
+	public static ForkJoinPool getDefaultPool() {
+		return DEFAULT_POOL;
+	}
+
+	/**
+	 * Runs the loop on the default pool, which has one thread per available processor.
+	 * <p>
+	 * @param size The number of iterations
+	 * @param body The loop body
+	 */
+	public static void run(int size, Body body) {
+		ParallelLoop.run(DEFAULT_POOL, size, body);
+	}
+
+	/**
+	 * Runs the loop on the given pool. The threshold is chosen such that each thread gets about four ranges.
+	 * <p>
+	 * @param pool The pool
+	 * @param size The number of iterations
+	 * @param body The loop body
+	 */
+	public static void run(ForkJoinPool pool, int size, Body body) {
+		if (pool == null) {
+			throw new IllegalArgumentException();
+		}
+		ParallelLoop.run(pool, size, Math.max(1, size / (4 * pool.getParallelism())), body);
+	}
+
+	/**
+	 * Runs the loop on the given pool with the given threshold.
+	 * <p>
+	 * @param pool      The pool
+	 * @param size      The number of iterations
+	 * @param threshold The maximal number of iterations executed sequentially
+	 * @param body      The loop body
+	 */
+	public static void run(ForkJoinPool pool, int size, int threshold, Body body) {
+		if (pool == null || size < 0 || threshold < 1 || body == null) {
+			throw new IllegalArgumentException();
+		}
+		if (size == 0) {
+			return;
+		}
+		if (size <= threshold || pool.getParallelism() == 1) {
+			body.run(0, size);
+			return;
+		}
+		pool.invoke(new Task(body, 0, size, threshold));
+	}
+
+	private static class Task extends RecursiveAction {
+
+		private final Body body;
+		private final int from;
+		private final int to;
+		private final int threshold;
+
+		private Task(Body body, int from, int to, int threshold) {
+			this.body = body;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from <= this.threshold) {
+				this.body.run(this.from, this.to);
+			} else {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new Task(this.body, this.from, middle, this.threshold),
+						  new Task(this.body, middle, this.to, this.threshold));
+			}
+		}
+
+	}
+
+}
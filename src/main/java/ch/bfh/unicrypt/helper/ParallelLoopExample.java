@@ -0,0 +1,101 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.helper;
+
+import ch.bfh.unicrypt.Example;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+/**
+ *
+ * @see ParallelLoop
+ */
+public class ParallelLoopExample {
+
+	public static void example1() {
+
+		// Modular exponentiations in parallel
+		final BigInteger modulus = BigInteger.probablePrime(1024, new SecureRandom());
+		final int size = 1000;
+		final BigInteger[] values = new BigInteger[size];
+		final BigInteger[] results1 = new BigInteger[size];
+		final BigInteger[] results2 = new BigInteger[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = new BigInteger(1024, new SecureRandom()).mod(modulus);
+		}
+
+		long time = System.currentTimeMillis();
+		for (int i = 0; i < size; i++) {
+			results1[i] = values[i].modPow(modulus.subtract(BigInteger.ONE), modulus);
+		}
+		long time1 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		ParallelLoop.run(size, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					results2[i] = values[i].modPow(modulus.subtract(BigInteger.ONE), modulus);
+				}
+			}
+
+		});
+		long time2 = System.currentTimeMillis() - time;
+
+		boolean equal = true;
+		for (int i = 0; i < size; i++) {
+			equal = equal && results1[i].equals(results2[i]);
+		}
+
+		Example.setLabelLength("Processors");
+		Example.printLine("Processors", ParallelLoop.getDefaultPool().getParallelism());
+		Example.printLine("Sequential", time1 + " ms");
+		Example.printLine("Parallel", time2 + " ms");
+		Example.printLine("Equal", equal);
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
@@ -0,0 +1,171 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.helper;
+
+import ch.bfh.unicrypt.helper.aggregator.classes.ByteArrayAggregator;
+import ch.bfh.unicrypt.helper.array.classes.ByteArray;
+import ch.bfh.unicrypt.helper.converter.classes.ConvertMethod;
+import ch.bfh.unicrypt.helper.hash.HashAlgorithm;
+import ch.bfh.unicrypt.helper.tree.Leaf;
+import ch.bfh.unicrypt.helper.tree.Node;
+import ch.bfh.unicrypt.helper.tree.Tree;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes the hash value of a byte tree without aggregating it into a single byte array. The tree is traversed and
+ * the headers of the leaves and nodes are passed to a {@link MessageDigest} together with the values of the leaves,
+ * i.e. the result is the same as the hash value of {@code tree.aggregate(ByteArrayAggregator.getInstance())}, but no
+ * byte array of the size of the whole tree is created. The message digest is reused by each thread.
+ * <p>
+ * The headers are the ones of {@link ByteArrayAggregator} with its default identifiers: a leaf is encoded by the byte
+ * {@link #LEAF_IDENTIFIER}, the length of its value and the value, and a node by the byte {@link #NODE_IDENTIFIER},
+ * its number of children and the encodings of its children. Lengths and numbers of children are encoded by four
+ * bytes in big-endian order.
+ * <p>
+ * @see ch.bfh.unicrypt.helper.StreamingTreeHashExample
+ */
+public class StreamingTreeHash {
+
+	public static final byte LEAF_IDENTIFIER = 0;
+	public static final byte NODE_IDENTIFIER = 1;
+
+	private static final Map<HashAlgorithm, StreamingTreeHash> INSTANCES = new ConcurrentHashMap<>();
+
+	private final HashAlgorithm hashAlgorithm;
+	private final ThreadLocal<MessageDigest> messageDigest;
+
+	private StreamingTreeHash(final HashAlgorithm hashAlgorithm) {
+		this.hashAlgorithm = hashAlgorithm;
+		this.messageDigest = new ThreadLocal<MessageDigest>() {
+
+			@Override
+			protected MessageDigest initialValue() {
+				try {
+					return MessageDigest.getInstance(hashAlgorithm.getAlgorithmName());
+				} catch (NoSuchAlgorithmException exception) {
+					throw new IllegalStateException(exception);
+				}
+			}
+
+		};
+	}
+
+	public static StreamingTreeHash getInstance() {
+		return StreamingTreeHash.getInstance(HashAlgorithm.getInstance());
+	}
+
+	public static StreamingTreeHash getInstance(HashAlgorithm hashAlgorithm) {
+		if (hashAlgorithm == null) {
+			throw new IllegalArgumentException();
+		}
+		StreamingTreeHash instance = INSTANCES.get(hashAlgorithm);
+		if (instance == null) {
+			instance = new StreamingTreeHash(hashAlgorithm);
+			INSTANCES.put(hashAlgorithm, instance);
+		}
+		return instance;
+	}
+
+	public HashAlgorithm getHashAlgorithm() {
+		return this.hashAlgorithm;
+	}
+
+	/**
+	 * Computes the hash value of the given byte tree. The result is the same as
+	 * {@code tree.aggregate(ByteArrayAggregator.getInstance()).getHashValue(hashAlgorithm)}.
+	 * <p>
+	 * @param tree The byte tree
+	 * @return The hash value
+	 */
+	public ByteArray getHashValue(Tree<ByteArray> tree) {
+		if (tree == null) {
+			throw new IllegalArgumentException();
+		}
+		MessageDigest digest = this.messageDigest.get();
+		digest.reset();
+		StreamingTreeHash.update(digest, tree);
+		return ByteArray.getInstance(digest.digest());
+	}
+
+	/**
+	 * Computes the hash value of the byte tree of the given element, which is obtained with the default convert
+	 * method. The result is the same as
+	 * {@code element.convertTo(ConvertMethod.getInstance()).aggregate(ByteArrayAggregator.getInstance())} hashed with
+	 * the hash algorithm of this instance.
+	 * <p>
+	 * @param element The element
+	 * @return The hash value
+	 */
+	public ByteArray getHashValue(Element element) {
+		if (element == null) {
+			throw new IllegalArgumentException();
+		}
+		Tree<ByteArray> tree = element.convertTo(ConvertMethod.getInstance());
+		return this.getHashValue(tree);
+	}
+
+	private static void update(MessageDigest digest, Tree<ByteArray> tree) {
+		if (tree.isLeaf()) {
+			byte[] value = ((Leaf<ByteArray>) tree).getValue().getBytes();
+			digest.update(LEAF_IDENTIFIER);
+			digest.update(StreamingTreeHash.getBytes(value.length));
+			digest.update(value);
+		} else {
+			Node<ByteArray> node = (Node<ByteArray>) tree;
+			digest.update(NODE_IDENTIFIER);
+			digest.update(StreamingTreeHash.getBytes(node.getSize()));
+			for (Tree<ByteArray> child : node.getChildren()) {
+				StreamingTreeHash.update(digest, child);
+			}
+		}
+	}
+
+	// big-endian encoding of an integer with four bytes
+	private static byte[] getBytes(int value) {
+		return new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.helper;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.helper.aggregator.classes.ByteArrayAggregator;
+import ch.bfh.unicrypt.helper.array.classes.ByteArray;
+import ch.bfh.unicrypt.helper.converter.classes.ConvertMethod;
+import ch.bfh.unicrypt.helper.hash.HashAlgorithm;
+import ch.bfh.unicrypt.helper.tree.Tree;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductGroup;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
+import java.math.BigInteger;
+
+/**
+ *
+ * @see StreamingTreeHash
+ */
+public class StreamingTreeHashExample {
+
+	// Safe prime (same as in ShuffleProofSystemExample)
+	final static String P_1024 = "124839508901459225295131478904766553151715203799479873450319702669888301683936126519033292399204126892064039399466769614858812059914518351605494976695246338946504781671208279483554047133686061305170930849857475703281378907333309894394327830075584429809888154770188970744592711756609335320238222672153149255987";
+
+	public static void example1() {
+
+		// Define a small byte tree
+		Tree<ByteArray> l1 = Tree.getInstance(ByteArray.getInstance(1));
+		Tree<ByteArray> l2 = Tree.getInstance(ByteArray.getInstance(2));
+		Tree<ByteArray> l3 = Tree.getInstance(ByteArray.getInstance(1, 0));
+		Tree<ByteArray> tree = Tree.getInstance(Tree.getInstance(l1, l2), l3);
+
+		// Hash the tree with and without aggregation
+		HashAlgorithm hashAlgorithm = HashAlgorithm.SHA256;
+		StreamingTreeHash streamingTreeHash = StreamingTreeHash.getInstance(hashAlgorithm);
+		ByteArray hashValue1 = tree.aggregate(ByteArrayAggregator.getInstance()).getHashValue(hashAlgorithm);
+		ByteArray hashValue2 = streamingTreeHash.getHashValue(tree);
+
+		Example.setLabelLength("Hash Values");
+		Example.printLine("Tree", tree);
+		Example.printLines("Hash Values", hashValue1, hashValue2);
+		Example.printLine("Equal", hashValue1.equals(hashValue2));
+	}
+
+	public static void example2() {
+
+		// Large tuple as in the public input of a shuffle proof
+		GStarModSafePrime G_q = GStarModSafePrime.getInstance(new BigInteger(P_1024, 10));
+		int size = 100000;
+		ProductGroup group = ProductGroup.getInstance(G_q, size);
+		Tuple tuple = group.getRandomElement();
+		Tree<ByteArray> tree = tuple.convertTo(ConvertMethod.getInstance());
+
+		HashAlgorithm hashAlgorithm = HashAlgorithm.getInstance();
+		StreamingTreeHash streamingTreeHash = StreamingTreeHash.getInstance(hashAlgorithm);
+
+		// Aggregate the tree into a single byte array and hash it
+		long time = System.currentTimeMillis();
+		ByteArray hashValue1 = tree.aggregate(ByteArrayAggregator.getInstance()).getHashValue(hashAlgorithm);
+		long time1 = System.currentTimeMillis() - time;
+
+		// Hash the tree directly
+		time = System.currentTimeMillis();
+		ByteArray hashValue2 = streamingTreeHash.getHashValue(tree);
+		long time2 = System.currentTimeMillis() - time;
+
+		Example.setLabelLength("Aggregate and Hash");
+		Example.printLine("Size", size);
+		Example.printLine("Aggregate and Hash", time1 + " ms");
+		Example.printLine("Streaming", time2 + " ms");
+		Example.printLine("Equal", hashValue1.equals(hashValue2));
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
@@ -0,0 +1,320 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.additive;
+
+import ch.bfh.unicrypt.math.algebra.additive.JacobianECZModPrime.Point;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModElement;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModPrime;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Scalar multiplication on {@link ECZModPrime} curves (e.g. the SECP curves of {@code ECZModPrimeParameters}). For
+ * variable base points, the scalar is recoded into its width-w non-adjacent form (wNAF), which requires about
+ * {@code t/(w+1)} additions for a {@code t}-bit scalar. For fixed base points such as the default generator, a comb
+ * table of {@code 2^w-1} affine points is precomputed, which reduces the number of doublings to {@code t/w}. The comb
+ * table of the default generator is built lazily on first use and shared by all threads. All intermediate results are
+ * kept in Jacobian coordinates (see {@link JacobianECZModPrime}).
+ * <p>
+ * @see ch.bfh.unicrypt.math.algebra.additive.ECZModScalarMultiplicationExample
+ */
+public class ECZModScalarMultiplication {
+
+	public static final int DEFAULT_NAF_WIDTH = 5;
+	public static final int DEFAULT_COMB_WIDTH = 8;
+
+	private static final Map<ECZModPrime, ECZModScalarMultiplication> INSTANCES = new ConcurrentHashMap<>();
+
+	private final ECZModPrime ec;
+	private final JacobianECZModPrime jacobian;
+	private final BigInteger order;
+	private final ConcurrentMap<ECZModElement, Comb> combs;
+
+	private ECZModScalarMultiplication(ECZModPrime ec) {
+		this.ec = ec;
+		this.jacobian = JacobianECZModPrime.getInstance(ec);
+		this.order = ec.getOrder();
+		this.combs = new ConcurrentHashMap<>();
+	}
+
+	public static ECZModScalarMultiplication getInstance(ECZModPrime ec) {
+		if (ec == null) {
+			throw new IllegalArgumentException();
+		}
+		ECZModScalarMultiplication instance = INSTANCES.get(ec);
+		if (instance == null) {
+			instance = new ECZModScalarMultiplication(ec);
+			INSTANCES.put(ec, instance);
+		}
+		return instance;
+	}
+
+	public ECZModPrime getECZModPrime() {
+		return this.ec;
+	}
+
+	public JacobianECZModPrime getJacobian() {
+		return this.jacobian;
+	}
+
+	/**
+	 * Computes {@code k*P}. If {@code P} is a point with a comb table (e.g. the default generator after the first call
+	 * of {@link #selfApplyGenerator(BigInteger)}), the table is used, otherwise the wNAF method.
+	 * <p>
+	 * @param element The point {@code P}
+	 * @param scalar  The scalar {@code k}
+	 * @return The point {@code k*P}
+	 */
+	public ECZModElement selfApply(ECZModElement element, BigInteger scalar) {
+		if (element == null || scalar == null || !this.ec.contains(element)) {
+			throw new IllegalArgumentException();
+		}
+		Comb comb = this.combs.get(element);
+		if (comb != null) {
+			return comb.selfApply(scalar);
+		}
+		return this.jacobian.toAffine(this.times(this.jacobian.fromAffine(element), scalar));
+	}
+
+	public ECZModElement selfApplyGenerator(BigInteger scalar) {
+		return this.getComb(this.ec.getDefaultGenerator()).selfApply(scalar);
+	}
+
+	/**
+	 * Returns the comb table for the given base point. The table is computed on the first call and shared afterwards,
+	 * i.e. it is kept as long as this instance. This method is therefore intended for a small number of base points
+	 * such as generators. Tables for other base points (e.g. public keys) should be created with
+	 * {@link #createComb(ECZModElement)} and kept by the caller.
+	 * <p>
+	 * @param base The base point
+	 * @return The comb table for the base point
+	 */
+	public Comb getComb(ECZModElement base) {
+		if (base == null || !this.ec.contains(base)) {
+			throw new IllegalArgumentException();
+		}
+		Comb comb = this.combs.get(base);
+		if (comb == null) {
+			Comb newComb = new Comb(base, DEFAULT_COMB_WIDTH);
+			comb = this.combs.putIfAbsent(base, newComb);
+			if (comb == null) {
+				comb = newComb;
+			}
+		}
+		return comb;
+	}
+
+	/**
+	 * Creates a new comb table for the given base point, which is not shared with other callers.
+	 * <p>
+	 * @param base The base point
+	 * @return The comb table for the base point
+	 */
+	public Comb createComb(ECZModElement base) {
+		if (base == null || !this.ec.contains(base)) {
+			throw new IllegalArgumentException();
+		}
+		return new Comb(base, DEFAULT_COMB_WIDTH);
+	}
+
+	/**
+	 * Scalar multiplication by the wNAF method with the default width.
+	 * <p>
+	 * @param point  The point in Jacobian coordinates
+	 * @param scalar The scalar
+	 * @return The point {@code k*P} in Jacobian coordinates
+	 */
+	public Point times(Point point, BigInteger scalar) {
+		return this.times(point, getWNAF(scalar.mod(this.order), DEFAULT_NAF_WIDTH));
+	}
+
+	/**
+	 * Scalar multiplication for a scalar given in its wNAF representation of the default width (see
+	 * {@link #getWNAF(BigInteger, int)}). This allows the recoding of a scalar that is used many times (e.g. a private
+	 * key) to be performed only once.
+	 * <p>
+	 * @param point The point in Jacobian coordinates
+	 * @param naf   The digits of the scalar
+	 * @return The point {@code k*P} in Jacobian coordinates
+	 */
+	public Point times(Point point, int[] naf) {
+		if (point == null || naf == null) {
+			throw new IllegalArgumentException();
+		}
+
+		// precompute P, 3P, 5P, ..., (2^(w-1)-1)P
+		Point[] odd = new Point[1 << (DEFAULT_NAF_WIDTH - 2)];
+		odd[0] = point;
+		Point twice = this.jacobian.twice(point);
+		for (int i = 1; i < odd.length; i++) {
+			odd[i] = this.jacobian.add(odd[i - 1], twice);
+		}
+
+		Point result = this.jacobian.getInfinity();
+		for (int i = naf.length - 1; i >= 0; i--) {
+			result = this.jacobian.twice(result);
+			int digit = naf[i];
+			if (digit > 0) {
+				result = this.jacobian.add(result, odd[digit >> 1]);
+			} else if (digit < 0) {
+				result = this.jacobian.add(result, this.jacobian.negate(odd[(-digit) >> 1]));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the width-w non-adjacent form of a non-negative scalar. Each non-zero digit is odd and smaller than
+	 * {@code 2^(w-1)} in absolute value, and among any {@code w} consecutive digits at most one is non-zero.
+	 * <p>
+	 * @param scalar The non-negative scalar
+	 * @param width  The width {@code w >= 2}
+	 * @return The digits (least significant first)
+	 */
+	public static int[] getWNAF(BigInteger scalar, int width) {
+		if (scalar == null || scalar.signum() < 0 || width < 2 || width > 16) {
+			throw new IllegalArgumentException();
+		}
+		int[] digits = new int[scalar.bitLength() + 1];
+		int modulus = 1 << width;
+		BigInteger k = scalar;
+		int i = 0;
+		while (k.signum() > 0) {
+			if (k.testBit(0)) {
+				int digit = k.intValue() & (modulus - 1);
+				if (digit >= (modulus >> 1)) {
+					digit -= modulus;
+				}
+				digits[i] = digit;
+				k = k.subtract(BigInteger.valueOf(digit));
+			}
+			k = k.shiftRight(1);
+			i++;
+		}
+		int[] result = new int[i];
+		System.arraycopy(digits, 0, result, 0, i);
+		return result;
+	}
+
+	/**
+	 * Fixed-base comb table of a base point {@code P}. For a comb of width {@code w} and {@code d = ceil(t/w)} columns,
+	 * entry {@code j} contains {@code sum_i j_i * 2^(i*d) * P}, where {@code j_i} denotes bit {@code i} of {@code j}.
+	 * The table entries are stored in affine coordinates, such that all additions are mixed additions.
+	 */
+	public class Comb {
+
+		private final ECZModElement base;
+		private final int width;
+		private final int columns;
+		private final BigInteger[] xs;
+		private final BigInteger[] ys;
+
+		private Comb(ECZModElement base, int width) {
+			JacobianECZModPrime jac = ECZModScalarMultiplication.this.jacobian;
+			this.base = base;
+			this.width = width;
+			this.columns = (ECZModScalarMultiplication.this.order.bitLength() + width - 1) / width;
+
+			// rows[i] = 2^(i*d) * P
+			Point[] rows = new Point[width];
+			rows[0] = jac.fromAffine(base);
+			for (int i = 1; i < width; i++) {
+				Point row = rows[i - 1];
+				for (int s = 0; s < this.columns; s++) {
+					row = jac.twice(row);
+				}
+				rows[i] = row;
+			}
+			int size = 1 << width;
+			Point[] points = new Point[size];
+			points[0] = jac.getInfinity();
+			for (int j = 1; j < size; j++) {
+				int highest = 31 - Integer.numberOfLeadingZeros(j);
+				points[j] = jac.add(points[j ^ (1 << highest)], rows[highest]);
+			}
+			ECZModElement[] affinePoints = jac.toAffine(points);
+			this.xs = new BigInteger[size];
+			this.ys = new BigInteger[size];
+			for (int j = 1; j < size; j++) {
+				ECZModElement point = affinePoints[j];
+				if (!ECZModScalarMultiplication.this.ec.getIdentityElement().isEquivalent(point)) {
+					this.xs[j] = point.getX().convertToBigInteger();
+					this.ys[j] = point.getY().convertToBigInteger();
+				}
+			}
+		}
+
+		public ECZModElement getBase() {
+			return this.base;
+		}
+
+		public ECZModElement selfApply(BigInteger scalar) {
+			return ECZModScalarMultiplication.this.jacobian.toAffine(this.times(scalar));
+		}
+
+		public Point times(BigInteger scalar) {
+			if (scalar == null) {
+				throw new IllegalArgumentException();
+			}
+			JacobianECZModPrime jac = ECZModScalarMultiplication.this.jacobian;
+			BigInteger k = scalar.mod(ECZModScalarMultiplication.this.order);
+			Point result = jac.getInfinity();
+			for (int column = this.columns - 1; column >= 0; column--) {
+				result = jac.twice(result);
+				int index = 0;
+				for (int i = 0; i < this.width; i++) {
+					if (k.testBit(i * this.columns + column)) {
+						index |= 1 << i;
+					}
+				}
+				if (index != 0 && this.xs[index] != null) {
+					result = jac.addAffine(result, this.xs[index], this.ys[index]);
+				}
+			}
+			return result;
+		}
+
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.additive;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.crypto.schemes.encryption.classes.ElGamalEncryptionScheme;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModElement;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModPrime;
+import ch.bfh.unicrypt.math.algebra.additive.parameters.ECZModPrimeParameters;
+import ch.bfh.unicrypt.math.algebra.general.classes.Pair;
+import java.math.BigInteger;
+
+/**
+ *
+ * @see ECZModScalarMultiplication
+ */
+public class ECZModScalarMultiplicationExample {
+
+	public static void example1() {
+
+		// Scalar multiplication of the default generator and of a random point
+		ECZModPrimeParameters[] allParams = {
+			ECZModPrimeParameters.SECP256r1,
+			ECZModPrimeParameters.SECP384r1,
+			ECZModPrimeParameters.SECP521r1
+		};
+		for (ECZModPrimeParameters params : allParams) {
+			ECZModPrime ec = ECZModPrime.getInstance(params);
+			ECZModScalarMultiplication multiplication = ECZModScalarMultiplication.getInstance(ec);
+			ECZModElement generator = ec.getDefaultGenerator();
+			ECZModElement point = ec.getRandomElement();
+			BigInteger scalar = ec.getZModOrder().getRandomElement().convertToBigInteger();
+
+			// Builds the comb table of the generator
+			multiplication.selfApplyGenerator(scalar);
+
+			long time = System.currentTimeMillis();
+			ECZModElement result1 = null;
+			ECZModElement result2 = null;
+			for (int i = 0; i < 10; i++) {
+				result1 = generator.selfApply(scalar);
+				result2 = point.selfApply(scalar);
+			}
+			long time1 = System.currentTimeMillis() - time;
+
+			time = System.currentTimeMillis();
+			ECZModElement result3 = null;
+			for (int i = 0; i < 10; i++) {
+				result3 = multiplication.selfApplyGenerator(scalar);
+			}
+			long time2 = System.currentTimeMillis() - time;
+
+			time = System.currentTimeMillis();
+			ECZModElement result4 = null;
+			for (int i = 0; i < 10; i++) {
+				result4 = multiplication.selfApply(point, scalar);
+			}
+			long time3 = System.currentTimeMillis() - time;
+
+			Example.setLabelLength("Generator (Comb)");
+			Example.printLine(ec);
+			Example.printLine("Default", time1 + " ms");
+			Example.printLine("Generator (Comb)", time2 + " ms");
+			Example.printLine("Point (wNAF)", time3 + " ms");
+			Example.printLine("Equal", result1.isEquivalent(result3) && result2.isEquivalent(result4));
+		}
+	}
+
+	public static void example2() {
+
+		// EC ElGamal encryption with comb tables for the generator and the public key
+		ECZModPrime ec = ECZModPrime.getInstance(ECZModPrimeParameters.SECP256r1);
+		ECZModScalarMultiplication multiplication = ECZModScalarMultiplication.getInstance(ec);
+		ECZModElement generator = ec.getDefaultGenerator();
+		ElGamalEncryptionScheme elGamal = ElGamalEncryptionScheme.getInstance(generator);
+		BigInteger privateKey = ec.getZModOrder().getRandomElement().convertToBigInteger();
+		ECZModElement publicKey = multiplication.selfApplyGenerator(privateKey);
+		ECZModScalarMultiplication.Comb generatorComb = multiplication.getComb(generator);
+		ECZModScalarMultiplication.Comb publicKeyComb = multiplication.createComb(publicKey);
+
+		int size = 100;
+		ECZModElement[] messages = new ECZModElement[size];
+		BigInteger[] randomizations = new BigInteger[size];
+		for (int i = 0; i < size; i++) {
+			messages[i] = ec.getRandomElement();
+			randomizations[i] = ec.getZModOrder().getRandomElement().convertToBigInteger();
+		}
+
+		long time = System.currentTimeMillis();
+		Pair[] encryptions = new Pair[size];
+		for (int i = 0; i < size; i++) {
+			encryptions[i] = elGamal.encrypt(publicKey, messages[i], ec.getZModOrder().getElement(randomizations[i]));
+		}
+		long time1 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		ECZModElement[] lefts = new ECZModElement[size];
+		ECZModElement[] rights = new ECZModElement[size];
+		for (int i = 0; i < size; i++) {
+			lefts[i] = generatorComb.selfApply(randomizations[i]);
+			rights[i] = publicKeyComb.selfApply(randomizations[i]).add(messages[i]);
+		}
+		long time2 = System.currentTimeMillis() - time;
+
+		boolean equal = true;
+		for (int i = 0; i < size; i++) {
+			equal = equal && encryptions[i].getFirst().isEquivalent(lefts[i]) && encryptions[i].getSecond().isEquivalent(rights[i]);
+		}
+
+		Example.setLabelLength("ElGamal (Comb)");
+		Example.printLine("Encryptions", size);
+		Example.printLine("ElGamal", time1 + " ms");
+		Example.printLine("ElGamal (Comb)", time2 + " ms");
+		Example.printLine("Equal", equal);
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
@@ -0,0 +1,346 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.additive;
+
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModElement;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModPrime;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZModPrime;
+import ch.bfh.unicrypt.math.algebra.general.BatchInversion;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Point arithmetic on {@link ECZModPrime} curves {@code y^2 = x^3 + ax + b} in Jacobian coordinates. A point
+ * {@code (X,Y,Z)} represents the affine point {@code (X/Z^2, Y/Z^3)}, and {@code Z=0} represents the point at infinity.
+ * Additions and doublings in this representation require no modular inversion. Affine {@link ECZModElement}s are only
+ * created when a result is observed, i.e. one inversion per result instead of one inversion per group operation.
+ * <p>
+ * @see ch.bfh.unicrypt.math.algebra.additive.JacobianECZModPrimeExample
+ */
+public class JacobianECZModPrime {
+
+	private static final BigInteger TWO = BigInteger.valueOf(2);
+	private static final BigInteger THREE = BigInteger.valueOf(3);
+
+	private static final Map<ECZModPrime, JacobianECZModPrime> INSTANCES = new ConcurrentHashMap<>();
+
+	private final ECZModPrime ec;
+	private final ZModPrime field;
+	private final BigInteger p;
+	private final BigInteger a;
+	private final boolean aIsMinusThree;
+	private final Point infinity;
+
+	private JacobianECZModPrime(ECZModPrime ec) {
+		this.ec = ec;
+		this.field = ec.getFiniteField();
+		this.p = this.field.getModulus();
+		this.a = ec.getA().convertToBigInteger();
+		this.aIsMinusThree = this.a.equals(this.p.subtract(THREE));
+		this.infinity = new Point(BigInteger.ONE, BigInteger.ONE, BigInteger.ZERO);
+	}
+
+	public static JacobianECZModPrime getInstance(ECZModPrime ec) {
+		if (ec == null) {
+			throw new IllegalArgumentException();
+		}
+		JacobianECZModPrime instance = INSTANCES.get(ec);
+		if (instance == null) {
+			instance = new JacobianECZModPrime(ec);
+			INSTANCES.put(ec, instance);
+		}
+		return instance;
+	}
+
+	public ECZModPrime getECZModPrime() {
+		return this.ec;
+	}
+
+	public Point getInfinity() {
+		return this.infinity;
+	}
+
+	public Point fromAffine(ECZModElement element) {
+		if (element == null || !this.ec.contains(element)) {
+			throw new IllegalArgumentException();
+		}
+		if (this.ec.getIdentityElement().isEquivalent(element)) {
+			return this.infinity;
+		}
+		return new Point(element.getX().convertToBigInteger(), element.getY().convertToBigInteger(), BigInteger.ONE);
+	}
+
+	/**
+	 * Converts a point back into an affine {@link ECZModElement}. This is the only operation which requires a modular
+	 * inversion.
+	 * <p>
+	 * @param point The point in Jacobian coordinates
+	 * @return The corresponding affine point
+	 */
+	public ECZModElement toAffine(Point point) {
+		if (point.isInfinity()) {
+			return this.ec.getIdentityElement();
+		}
+		return this.toAffine(point, point.z.modInverse(this.p));
+	}
+
+	/**
+	 * Converts many points back into affine {@link ECZModElement}s. All inversions are performed at once by
+	 * {@link BatchInversion}, i.e. a single modular inversion is required in total.
+	 * <p>
+	 * @param points The points in Jacobian coordinates
+	 * @return The corresponding affine points
+	 */
+	public ECZModElement[] toAffine(Point... points) {
+		if (points == null) {
+			throw new IllegalArgumentException();
+		}
+		List<BigInteger> zs = new ArrayList<>();
+		for (Point point : points) {
+			if (!point.isInfinity()) {
+				zs.add(point.z);
+			}
+		}
+		BigInteger[] zInverses = BatchInversion.invert(this.p, zs.toArray(new BigInteger[zs.size()]));
+		ECZModElement[] result = new ECZModElement[points.length];
+		int j = 0;
+		for (int i = 0; i < points.length; i++) {
+			if (points[i].isInfinity()) {
+				result[i] = this.ec.getIdentityElement();
+			} else {
+				result[i] = this.toAffine(points[i], zInverses[j++]);
+			}
+		}
+		return result;
+	}
+
+	// the inverse of z is passed as argument to allow batch inversion
+	ECZModElement toAffine(Point point, BigInteger zInverse) {
+		BigInteger zInverse2 = zInverse.multiply(zInverse).mod(this.p);
+		BigInteger x = point.x.multiply(zInverse2).mod(this.p);
+		BigInteger y = point.y.multiply(zInverse2).multiply(zInverse).mod(this.p);
+		return this.ec.getElement(this.field.getElement(x), this.field.getElement(y));
+	}
+
+	public Point negate(Point point) {
+		if (point.isInfinity()) {
+			return point;
+		}
+		return new Point(point.x, this.p.subtract(point.y).mod(this.p), point.z);
+	}
+
+	public Point twice(Point point) {
+		if (point.isInfinity() || point.y.signum() == 0) {
+			return this.infinity;
+		}
+		BigInteger xx = point.x.multiply(point.x).mod(this.p);
+		BigInteger yy = point.y.multiply(point.y).mod(this.p);
+		BigInteger yyyy = yy.multiply(yy).mod(this.p);
+		BigInteger zz = point.z.multiply(point.z).mod(this.p);
+		BigInteger s = point.x.multiply(yy).shiftLeft(2).mod(this.p);
+		BigInteger m;
+		if (this.aIsMinusThree) {
+			// M = 3(X-Z^2)(X+Z^2)
+			m = point.x.subtract(zz).multiply(point.x.add(zz)).multiply(THREE).mod(this.p);
+		} else {
+			m = xx.multiply(THREE).add(this.a.multiply(zz.multiply(zz))).mod(this.p);
+		}
+		BigInteger x3 = m.multiply(m).subtract(s.shiftLeft(1)).mod(this.p);
+		BigInteger y3 = m.multiply(s.subtract(x3)).subtract(yyyy.shiftLeft(3)).mod(this.p);
+		BigInteger z3 = point.y.multiply(point.z).shiftLeft(1).mod(this.p);
+		return new Point(x3, y3, z3);
+	}
+
+	public Point add(Point point1, Point point2) {
+		if (point1.isInfinity()) {
+			return point2;
+		}
+		if (point2.isInfinity()) {
+			return point1;
+		}
+		if (point2.z.equals(BigInteger.ONE)) {
+			return this.addAffine(point1, point2.x, point2.y);
+		}
+		if (point1.z.equals(BigInteger.ONE)) {
+			return this.addAffine(point2, point1.x, point1.y);
+		}
+		BigInteger z1z1 = point1.z.multiply(point1.z).mod(this.p);
+		BigInteger z2z2 = point2.z.multiply(point2.z).mod(this.p);
+		BigInteger u1 = point1.x.multiply(z2z2).mod(this.p);
+		BigInteger u2 = point2.x.multiply(z1z1).mod(this.p);
+		BigInteger s1 = point1.y.multiply(point2.z).multiply(z2z2).mod(this.p);
+		BigInteger s2 = point2.y.multiply(point1.z).multiply(z1z1).mod(this.p);
+		BigInteger h = u2.subtract(u1).mod(this.p);
+		BigInteger r = s2.subtract(s1).mod(this.p);
+		if (h.signum() == 0) {
+			return (r.signum() == 0) ? this.twice(point1) : this.infinity;
+		}
+		BigInteger z3 = point1.z.multiply(point2.z).multiply(h).mod(this.p);
+		return this.finishAddition(u1, s1, h, r, z3);
+	}
+
+	/**
+	 * Mixed addition of a point in Jacobian coordinates and an affine point {@code (x2,y2)}, which saves about a third
+	 * of the multiplications of a general addition.
+	 * <p>
+	 * @param point The point in Jacobian coordinates
+	 * @param x2    The x-coordinate of the affine point
+	 * @param y2    The y-coordinate of the affine point
+	 * @return The sum of the two points
+	 */
+	public Point addAffine(Point point, BigInteger x2, BigInteger y2) {
+		if (point.isInfinity()) {
+			return new Point(x2, y2, BigInteger.ONE);
+		}
+		BigInteger z1z1 = point.z.multiply(point.z).mod(this.p);
+		BigInteger u2 = x2.multiply(z1z1).mod(this.p);
+		BigInteger s2 = y2.multiply(point.z).multiply(z1z1).mod(this.p);
+		BigInteger h = u2.subtract(point.x).mod(this.p);
+		BigInteger r = s2.subtract(point.y).mod(this.p);
+		if (h.signum() == 0) {
+			return (r.signum() == 0) ? this.twice(point) : this.infinity;
+		}
+		BigInteger z3 = point.z.multiply(h).mod(this.p);
+		return this.finishAddition(point.x, point.y, h, r, z3);
+	}
+
+	public ECZModElement add(ECZModElement element1, ECZModElement element2) {
+		return this.toAffine(this.add(this.fromAffine(element1), this.fromAffine(element2)));
+	}
+
+	/**
+	 * Computes the sum of all given points with a single modular inversion at the end.
+	 * <p>
+	 * @param elements The points to add
+	 * @return The sum of all points
+	 */
+	public ECZModElement sum(ECZModElement... elements) {
+		if (elements == null) {
+			throw new IllegalArgumentException();
+		}
+		Point result = this.infinity;
+		for (ECZModElement element : elements) {
+			result = this.add(result, this.fromAffine(element));
+		}
+		return this.toAffine(result);
+	}
+
+	/**
+	 * Computes the scalar multiplication {@code k*P} by double-and-add in Jacobian coordinates.
+	 * <p>
+	 * @param point  The point in Jacobian coordinates
+	 * @param scalar The scalar
+	 * @return The point {@code k*P}
+	 */
+	public Point times(Point point, BigInteger scalar) {
+		if (scalar.signum() < 0) {
+			return this.times(this.negate(point), scalar.negate());
+		}
+		Point result = this.infinity;
+		for (int i = scalar.bitLength() - 1; i >= 0; i--) {
+			result = this.twice(result);
+			if (scalar.testBit(i)) {
+				result = this.add(result, point);
+			}
+		}
+		return result;
+	}
+
+	public ECZModElement selfApply(ECZModElement element, BigInteger scalar) {
+		if (scalar == null) {
+			throw new IllegalArgumentException();
+		}
+		return this.toAffine(this.times(this.fromAffine(element), scalar.mod(this.ec.getOrder())));
+	}
+
+	public boolean isEquivalent(Point point1, Point point2) {
+		if (point1.isInfinity() || point2.isInfinity()) {
+			return point1.isInfinity() && point2.isInfinity();
+		}
+		BigInteger z1z1 = point1.z.multiply(point1.z).mod(this.p);
+		BigInteger z2z2 = point2.z.multiply(point2.z).mod(this.p);
+		if (!point1.x.multiply(z2z2).mod(this.p).equals(point2.x.multiply(z1z1).mod(this.p))) {
+			return false;
+		}
+		return point1.y.multiply(z2z2).multiply(point2.z).mod(this.p).equals(point2.y.multiply(z1z1).multiply(point1.z).mod(this.p));
+	}
+
+	private Point finishAddition(BigInteger u1, BigInteger s1, BigInteger h, BigInteger r, BigInteger z3) {
+		BigInteger hh = h.multiply(h).mod(this.p);
+		BigInteger hhh = hh.multiply(h).mod(this.p);
+		BigInteger v = u1.multiply(hh).mod(this.p);
+		BigInteger x3 = r.multiply(r).subtract(hhh).subtract(v.multiply(TWO)).mod(this.p);
+		BigInteger y3 = r.multiply(v.subtract(x3)).subtract(s1.multiply(hhh)).mod(this.p);
+		return new Point(x3, y3, z3);
+	}
+
+	/**
+	 * Immutable point in Jacobian coordinates. Points are only meaningful with respect to the instance of
+	 * {@link JacobianECZModPrime} that created them.
+	 */
+	public static class Point {
+
+		private final BigInteger x;
+		private final BigInteger y;
+		private final BigInteger z;
+
+		private Point(BigInteger x, BigInteger y, BigInteger z) {
+			this.x = x;
+			this.y = y;
+			this.z = z;
+		}
+
+		public boolean isInfinity() {
+			return this.z.signum() == 0;
+		}
+
+		@Override
+		public String toString() {
+			return "(" + this.x + "," + this.y + "," + this.z + ")";
+		}
+
+	}
+
+}
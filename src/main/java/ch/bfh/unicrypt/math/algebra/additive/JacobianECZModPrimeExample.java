@@ -0,0 +1,125 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.additive;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModElement;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModPrime;
+import ch.bfh.unicrypt.math.algebra.additive.parameters.ECZModPrimeParameters;
+import java.math.BigInteger;
+
+/**
+ *
+ * @see JacobianECZModPrime
+ */
+public class JacobianECZModPrimeExample {
+
+	public static void example1() {
+
+		// Scalar multiplication on all prime curves
+		ECZModPrimeParameters[] allParams = {
+			ECZModPrimeParameters.SECP256r1,
+			ECZModPrimeParameters.SECP384r1,
+			ECZModPrimeParameters.SECP521r1
+		};
+		for (ECZModPrimeParameters params : allParams) {
+			ECZModPrime ec = ECZModPrime.getInstance(params);
+			JacobianECZModPrime jacobian = JacobianECZModPrime.getInstance(ec);
+			ECZModElement generator = ec.getDefaultGenerator();
+			BigInteger scalar = ec.getZModOrder().getRandomElement().convertToBigInteger();
+
+			long time = System.currentTimeMillis();
+			ECZModElement result1 = null;
+			for (int i = 0; i < 10; i++) {
+				result1 = generator.selfApply(scalar);
+			}
+			long time1 = System.currentTimeMillis() - time;
+
+			time = System.currentTimeMillis();
+			ECZModElement result2 = null;
+			for (int i = 0; i < 10; i++) {
+				result2 = jacobian.selfApply(generator, scalar);
+			}
+			long time2 = System.currentTimeMillis() - time;
+
+			Example.setLabelLength("Jacobian");
+			Example.printLine(ec);
+			Example.printLine("Affine", time1 + " ms");
+			Example.printLine("Jacobian", time2 + " ms");
+			Example.printLine("Equal", result1.isEquivalent(result2));
+		}
+	}
+
+	public static void example2() {
+
+		// Sum of many points
+		ECZModPrime ec = ECZModPrime.getInstance(ECZModPrimeParameters.SECP256r1);
+		JacobianECZModPrime jacobian = JacobianECZModPrime.getInstance(ec);
+		int size = 10000;
+		ECZModElement[] points = new ECZModElement[size];
+		for (int i = 0; i < size; i++) {
+			points[i] = ec.getRandomElement();
+		}
+
+		long time = System.currentTimeMillis();
+		ECZModElement sum1 = ec.getIdentityElement();
+		for (ECZModElement point : points) {
+			sum1 = sum1.add(point);
+		}
+		long time1 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		ECZModElement sum2 = jacobian.sum(points);
+		long time2 = System.currentTimeMillis() - time;
+
+		Example.setLabelLength("Jacobian");
+		Example.printLine("Points", size);
+		Example.printLine("Affine", time1 + " ms");
+		Example.printLine("Jacobian", time2 + " ms");
+		Example.printLine("Equal", sum1.isEquivalent(sum2));
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
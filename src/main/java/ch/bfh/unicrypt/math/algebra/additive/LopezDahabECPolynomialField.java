@@ -0,0 +1,318 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.additive;
+
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECPolynomialElement;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECPolynomialField;
+import ch.bfh.unicrypt.math.algebra.dualistic.BinaryFieldArithmetic;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Point arithmetic on binary curves {@code y^2 + xy = x^3 + ax^2 + b} ({@link ECPolynomialField}) in López-Dahab
+ * coordinates. A point {@code (X,Y,Z)} represents the affine point {@code (X/Z, Y/Z^2)}, and {@code Z=0} represents
+ * the point at infinity. The field arithmetic is performed by {@link BinaryFieldArithmetic} on word-packed elements,
+ * and additions and doublings require no field inversion. Affine {@link ECPolynomialElement}s are only created when a
+ * result is observed.
+ * <p>
+ * @see ch.bfh.unicrypt.math.algebra.additive.LopezDahabECPolynomialFieldExample
+ */
+public class LopezDahabECPolynomialField {
+
+	public static final int DEFAULT_NAF_WIDTH = 4;
+
+	private static final Map<ECPolynomialField, LopezDahabECPolynomialField> INSTANCES = new ConcurrentHashMap<>();
+
+	private final ECPolynomialField ec;
+	private final BinaryFieldArithmetic field;
+	private final long[] a;
+	private final long[] b;
+	private final boolean aIsZero;
+	private final BigInteger order;
+	private final Point infinity;
+
+	private LopezDahabECPolynomialField(ECPolynomialField ec, BinaryFieldArithmetic field, long[] a, long[] b, BigInteger order) {
+		this.ec = ec;
+		this.field = field;
+		this.a = a;
+		this.b = b;
+		this.aIsZero = field.isZero(a);
+		this.order = order;
+		this.infinity = new Point(field.getOne(), field.getZero(), field.getZero());
+	}
+
+	public static LopezDahabECPolynomialField getInstance(ECPolynomialField ec) {
+		if (ec == null) {
+			throw new IllegalArgumentException();
+		}
+		LopezDahabECPolynomialField instance = INSTANCES.get(ec);
+		if (instance == null) {
+			BinaryFieldArithmetic field = BinaryFieldArithmetic.getInstance(ec.getFiniteField());
+			instance = new LopezDahabECPolynomialField(ec, field, field.toLongs(ec.getA()), field.toLongs(ec.getB()), ec.getOrder());
+			INSTANCES.put(ec, instance);
+		}
+		return instance;
+	}
+
+	public ECPolynomialField getECPolynomialField() {
+		return this.ec;
+	}
+
+	public BinaryFieldArithmetic getFieldArithmetic() {
+		return this.field;
+	}
+
+	public Point getInfinity() {
+		return this.infinity;
+	}
+
+	public Point fromAffine(ECPolynomialElement element) {
+		if (element == null || !this.ec.contains(element)) {
+			throw new IllegalArgumentException();
+		}
+		if (this.ec.getIdentityElement().isEquivalent(element)) {
+			return this.infinity;
+		}
+		return new Point(this.field.toLongs(element.getX()), this.field.toLongs(element.getY()), this.field.getOne());
+	}
+
+	/**
+	 * Converts a point back into an affine {@link ECPolynomialElement}. This is the only operation which requires a
+	 * field inversion.
+	 * <p>
+	 * @param point The point in López-Dahab coordinates
+	 * @return The corresponding affine point
+	 */
+	public ECPolynomialElement toAffine(Point point) {
+		if (point.isInfinity()) {
+			return this.ec.getIdentityElement();
+		}
+		Point normalized = this.normalize(point);
+		return this.ec.getElement(this.field.toPolynomialElement(normalized.x), this.field.toPolynomialElement(normalized.y));
+	}
+
+	/**
+	 * Returns an equivalent point with {@code Z=1}, i.e. the affine coordinates of the point.
+	 * <p>
+	 * @param point The point in López-Dahab coordinates
+	 * @return The equivalent point with {@code Z=1}
+	 */
+	public Point normalize(Point point) {
+		if (point.isInfinity() || this.field.isOne(point.z)) {
+			return point;
+		}
+		long[] zInverse = this.field.invert(point.z);
+		long[] x = this.field.multiply(point.x, zInverse);
+		long[] y = this.field.multiply(point.y, this.field.square(zInverse));
+		return new Point(x, y, this.field.getOne());
+	}
+
+	public Point negate(Point point) {
+		if (point.isInfinity()) {
+			return point;
+		}
+		// -(x,y) = (x,x+y)
+		return new Point(point.x, this.field.add(this.field.multiply(point.x, point.z), point.y), point.z);
+	}
+
+	public Point twice(Point point) {
+		if (point.isInfinity() || this.field.isZero(point.x)) {
+			return this.infinity;
+		}
+		BinaryFieldArithmetic f = this.field;
+		long[] xx = f.square(point.x);
+		long[] zz = f.square(point.z);
+		long[] z3 = f.multiply(xx, zz);
+		long[] bzzzz = f.multiply(this.b, f.square(zz));
+		long[] x3 = f.add(f.square(xx), bzzzz);
+		// Y3 = bZ^4*Z3 + X3*(aZ3 + Y^2 + bZ^4)
+		long[] t = f.add(f.square(point.y), bzzzz);
+		if (!this.aIsZero) {
+			t = f.add(t, f.multiply(this.a, z3));
+		}
+		long[] y3 = f.add(f.multiply(bzzzz, z3), f.multiply(x3, t));
+		return new Point(x3, y3, z3);
+	}
+
+	public Point add(Point point1, Point point2) {
+		if (point1.isInfinity()) {
+			return point2;
+		}
+		if (point2.isInfinity()) {
+			return point1;
+		}
+		if (this.field.isOne(point2.z)) {
+			return this.addAffine(point1, point2.x, point2.y);
+		}
+		if (this.field.isOne(point1.z)) {
+			return this.addAffine(point2, point1.x, point1.y);
+		}
+		return this.add(point1, point2.x, point2.y, point2.z);
+	}
+
+	/**
+	 * Mixed addition of a point in López-Dahab coordinates and an affine point {@code (x2,y2)}.
+	 * <p>
+	 * @param point The point in López-Dahab coordinates
+	 * @param x2    The x-coordinate of the affine point
+	 * @param y2    The y-coordinate of the affine point
+	 * @return The sum of the two points
+	 */
+	public Point addAffine(Point point, long[] x2, long[] y2) {
+		if (point.isInfinity()) {
+			return new Point(x2, y2, this.field.getOne());
+		}
+		return this.add(point, x2, y2, null);
+	}
+
+	public ECPolynomialElement add(ECPolynomialElement element1, ECPolynomialElement element2) {
+		return this.toAffine(this.add(this.fromAffine(element1), this.fromAffine(element2)));
+	}
+
+	/**
+	 * Computes the scalar multiplication {@code k*P} by the wNAF method. The odd multiples of {@code P} are normalized,
+	 * such that all additions in the main loop are mixed additions.
+	 * <p>
+	 * @param point  The point in López-Dahab coordinates
+	 * @param scalar The scalar
+	 * @return The point {@code k*P}
+	 */
+	public Point times(Point point, BigInteger scalar) {
+		int[] naf = ECZModScalarMultiplication.getWNAF(scalar.mod(this.order), DEFAULT_NAF_WIDTH);
+
+		// precompute P, 3P, 5P, ..., (2^(w-1)-1)P and their negations
+		Point[] odd = new Point[1 << (DEFAULT_NAF_WIDTH - 2)];
+		Point[] negatedOdd = new Point[odd.length];
+		odd[0] = this.normalize(point);
+		Point twice = this.twice(odd[0]);
+		for (int i = 1; i < odd.length; i++) {
+			odd[i] = this.normalize(this.add(odd[i - 1], twice));
+		}
+		for (int i = 0; i < odd.length; i++) {
+			negatedOdd[i] = this.negate(odd[i]);
+		}
+
+		Point result = this.infinity;
+		for (int i = naf.length - 1; i >= 0; i--) {
+			result = this.twice(result);
+			int digit = naf[i];
+			if (digit > 0) {
+				result = this.add(result, odd[digit >> 1]);
+			} else if (digit < 0) {
+				result = this.add(result, negatedOdd[(-digit) >> 1]);
+			}
+		}
+		return result;
+	}
+
+	public ECPolynomialElement selfApply(ECPolynomialElement element, BigInteger scalar) {
+		if (scalar == null) {
+			throw new IllegalArgumentException();
+		}
+		return this.toAffine(this.times(this.fromAffine(element), scalar));
+	}
+
+	public boolean isEquivalent(Point point1, Point point2) {
+		if (point1.isInfinity() || point2.isInfinity()) {
+			return point1.isInfinity() && point2.isInfinity();
+		}
+		BinaryFieldArithmetic f = this.field;
+		if (!f.isEqual(f.multiply(point1.x, point2.z), f.multiply(point2.x, point1.z))) {
+			return false;
+		}
+		return f.isEqual(f.multiply(point1.y, f.square(point2.z)), f.multiply(point2.y, f.square(point1.z)));
+	}
+
+	// general addition, z2 == null denotes Z2 = 1
+	private Point add(Point point1, long[] x2, long[] y2, long[] z2) {
+		BinaryFieldArithmetic f = this.field;
+		long[] zz1 = f.square(point1.z);
+		long[] a1 = (z2 == null) ? point1.y : f.multiply(point1.y, f.square(z2));
+		long[] b1 = (z2 == null) ? point1.x : f.multiply(point1.x, z2);
+		long[] aa = f.add(a1, f.multiply(y2, zz1));
+		long[] bb = f.add(b1, f.multiply(x2, point1.z));
+		if (f.isZero(bb)) {
+			return f.isZero(aa) ? this.twice(point1) : this.infinity;
+		}
+		long[] e = (z2 == null) ? bb : f.multiply(z2, bb);
+		long[] c = f.multiply(point1.z, e);
+		long[] z3 = f.square(c);
+		// X3 = A(A+C) + C*B^2 + a*Z3
+		long[] x3 = f.add(f.multiply(aa, f.add(aa, c)), f.multiply(c, f.square(bb)));
+		if (!this.aIsZero) {
+			x3 = f.add(x3, f.multiply(this.a, z3));
+		}
+		// Y3 = X3*(A*C + Z3) + Z3*E*(A*X1 + Y1*E)
+		long[] t = f.multiply(e, f.add(f.multiply(aa, point1.x), f.multiply(point1.y, e)));
+		long[] y3 = f.add(f.multiply(x3, f.add(f.multiply(aa, c), z3)), f.multiply(z3, t));
+		return new Point(x3, y3, z3);
+	}
+
+	/**
+	 * Immutable point in López-Dahab coordinates. Points are only meaningful with respect to the instance of
+	 * {@link LopezDahabECPolynomialField} that created them.
+	 */
+	public static class Point {
+
+		private final long[] x;
+		private final long[] y;
+		private final long[] z;
+
+		private Point(long[] x, long[] y, long[] z) {
+			this.x = x;
+			this.y = y;
+			this.z = z;
+		}
+
+		public boolean isInfinity() {
+			for (long word : this.z) {
+				if (word != 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
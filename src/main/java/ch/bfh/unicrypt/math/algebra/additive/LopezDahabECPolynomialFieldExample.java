@@ -0,0 +1,137 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.additive;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.crypto.schemes.encryption.classes.ElGamalEncryptionScheme;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECPolynomialElement;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECPolynomialField;
+import ch.bfh.unicrypt.math.algebra.additive.parameters.ECPolynomialFieldParameters;
+import ch.bfh.unicrypt.math.algebra.general.classes.Pair;
+import java.math.BigInteger;
+
+/**
+ *
+ * @see LopezDahabECPolynomialField
+ */
+public class LopezDahabECPolynomialFieldExample {
+
+	public static void example1() {
+
+		// Scalar multiplication on binary curves
+		ECPolynomialFieldParameters[] allParams = {
+			ECPolynomialFieldParameters.SECT163k1,
+			ECPolynomialFieldParameters.SECT163r1,
+			ECPolynomialFieldParameters.SECT233r1,
+			ECPolynomialFieldParameters.SECT283k1,
+			ECPolynomialFieldParameters.SECT409r1,
+			ECPolynomialFieldParameters.SECT571k1
+		};
+		for (ECPolynomialFieldParameters params : allParams) {
+			ECPolynomialField ec = ECPolynomialField.getInstance(params);
+			LopezDahabECPolynomialField lopezDahab = LopezDahabECPolynomialField.getInstance(ec);
+			ECPolynomialElement generator = ec.getDefaultGenerator();
+			BigInteger scalar = ec.getZModOrder().getRandomElement().convertToBigInteger();
+
+			long time = System.currentTimeMillis();
+			ECPolynomialElement result1 = null;
+			for (int i = 0; i < 10; i++) {
+				result1 = generator.selfApply(scalar);
+			}
+			long time1 = System.currentTimeMillis() - time;
+
+			time = System.currentTimeMillis();
+			ECPolynomialElement result2 = null;
+			for (int i = 0; i < 10; i++) {
+				result2 = lopezDahab.selfApply(generator, scalar);
+			}
+			long time2 = System.currentTimeMillis() - time;
+
+			Example.setLabelLength("Lopez-Dahab");
+			Example.printLine(ec);
+			Example.printLine("Affine", time1 + " ms");
+			Example.printLine("Lopez-Dahab", time2 + " ms");
+			Example.printLine("Equal", result1.isEquivalent(result2));
+			Example.printLine("Order", lopezDahab.selfApply(generator, ec.getOrder()));
+		}
+	}
+
+	public static void example2() {
+
+		// ElGamal encryption on SECT163r1 (see ElGamalECCExample.example3)
+		ECPolynomialField ec = ECPolynomialField.getInstance(ECPolynomialFieldParameters.SECT163r1);
+		LopezDahabECPolynomialField lopezDahab = LopezDahabECPolynomialField.getInstance(ec);
+		ECPolynomialElement generator = ec.getDefaultGenerator();
+		ElGamalEncryptionScheme elGamal = ElGamalEncryptionScheme.getInstance(generator);
+
+		Pair keyPair = elGamal.getKeyPairGenerator().generateKeyPair();
+		ECPolynomialElement publicKey = (ECPolynomialElement) keyPair.getSecond();
+		ECPolynomialElement message = ec.getRandomElement();
+		BigInteger randomization = ec.getZModOrder().getRandomElement().convertToBigInteger();
+
+		long time = System.currentTimeMillis();
+		Pair encryption1 = null;
+		for (int i = 0; i < 10; i++) {
+			encryption1 = elGamal.encrypt(publicKey, message, ec.getZModOrder().getElement(randomization));
+		}
+		long time1 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		ECPolynomialElement left = null;
+		ECPolynomialElement right = null;
+		for (int i = 0; i < 10; i++) {
+			left = lopezDahab.selfApply(generator, randomization);
+			right = lopezDahab.add(lopezDahab.selfApply(publicKey, randomization), message);
+		}
+		long time2 = System.currentTimeMillis() - time;
+
+		Example.setLabelLength("Lopez-Dahab");
+		Example.printLine("ElGamal", time1 + " ms");
+		Example.printLine("Lopez-Dahab", time2 + " ms");
+		Example.printLine("Equal", encryption1.getFirst().isEquivalent(left) && encryption1.getSecond().isEquivalent(right));
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
@@ -0,0 +1,438 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.dualistic;
+
+import ch.bfh.unicrypt.helper.math.Polynomial;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.PolynomialElement;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.PolynomialField;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZModTwo;
+import ch.bfh.unicrypt.math.algebra.dualistic.interfaces.DualisticElement;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Arithmetic in binary fields {@code GF(2^m) = GF(2)[x]/f(x)} for reduction trinomials or pentanomials
+ * {@code f(x) = x^m + x^k_1 + ... + 1}. Field elements are stored as arrays of {@code ceil(m/64)} words, where bit
+ * {@code i} of the array is the coefficient of {@code x^i}. Multiplication is carry-less by the left-to-right comb
+ * method with windows of 4 bits, squaring spreads the bits by table lookup, and reduction folds whole words using the
+ * sparse form of {@code f(x)}. This requires {@code m - k_1 >= 64} for the largest middle term {@code k_1}, which holds
+ * for all reduction polynomials of the SECT curves in SEC 2:
+ * <ul>
+ * <li>{@code x^113 + x^9 + 1}</li>
+ * <li>{@code x^163 + x^7 + x^6 + x^3 + 1}</li>
+ * <li>{@code x^193 + x^15 + 1}</li>
+ * <li>{@code x^233 + x^74 + 1}</li>
+ * <li>{@code x^239 + x^158 + 1}</li>
+ * <li>{@code x^283 + x^12 + x^7 + x^5 + 1}</li>
+ * <li>{@code x^409 + x^87 + 1}</li>
+ * <li>{@code x^571 + x^10 + x^5 + x^2 + 1}</li>
+ * </ul>
+ * Instances are immutable and can be shared among threads.
+ * <p>
+ * @see ch.bfh.unicrypt.math.algebra.dualistic.BinaryFieldArithmeticExample
+ */
+public class BinaryFieldArithmetic {
+
+	private static final int WORD_SIZE = 64;
+	private static final int WINDOW_SIZE = 4;
+	private static final long[] SPREAD = new long[256];
+
+	static {
+		for (int i = 0; i < 256; i++) {
+			long spread = 0;
+			for (int j = 0; j < 8; j++) {
+				if ((i & (1 << j)) != 0) {
+					spread |= 1L << (2 * j);
+				}
+			}
+			SPREAD[i] = spread;
+		}
+	}
+
+	private static final Map<BigInteger, BinaryFieldArithmetic> INSTANCES = new ConcurrentHashMap<>();
+
+	private final BigInteger reductionPolynomial;
+	private final int degree;
+	private final int size;
+	private final int[] exponents;
+	private final PolynomialField field;
+
+	private BinaryFieldArithmetic(BigInteger reductionPolynomial, PolynomialField field) {
+		this.reductionPolynomial = reductionPolynomial;
+		this.degree = reductionPolynomial.bitLength() - 1;
+		this.size = (this.degree + WORD_SIZE - 1) / WORD_SIZE;
+		List<Integer> list = new ArrayList<>();
+		for (int i = this.degree - 1; i >= 0; i--) {
+			if (reductionPolynomial.testBit(i)) {
+				list.add(i);
+			}
+		}
+		this.exponents = new int[list.size()];
+		for (int i = 0; i < this.exponents.length; i++) {
+			this.exponents[i] = list.get(i);
+		}
+		this.field = field;
+	}
+
+	/**
+	 * Returns the arithmetic for the reduction polynomial given by its bits, i.e. bit {@code i} of
+	 * {@code reductionPolynomial} is the coefficient of {@code x^i}.
+	 * <p>
+	 * @param reductionPolynomial The reduction polynomial
+	 * @return The binary field arithmetic
+	 */
+	public static BinaryFieldArithmetic getInstance(BigInteger reductionPolynomial) {
+		if (reductionPolynomial == null || !reductionPolynomial.testBit(0)
+			   || reductionPolynomial.bitLength() - 1 - secondBit(reductionPolynomial) < WORD_SIZE) {
+			throw new IllegalArgumentException();
+		}
+		BinaryFieldArithmetic instance = INSTANCES.get(reductionPolynomial);
+		if (instance == null) {
+			instance = new BinaryFieldArithmetic(reductionPolynomial, null);
+			INSTANCES.put(reductionPolynomial, instance);
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the arithmetic for the reduction polynomial {@code x^m + x^k_1 + ... + x^k_r + 1}.
+	 * <p>
+	 * @param degree    The degree {@code m}
+	 * @param exponents The exponents {@code k_1, ..., k_r} of the middle terms
+	 * @return The binary field arithmetic
+	 */
+	public static BinaryFieldArithmetic getInstance(int degree, int... exponents) {
+		if (degree <= 0 || exponents == null) {
+			throw new IllegalArgumentException();
+		}
+		BigInteger reductionPolynomial = BigInteger.ONE.setBit(degree);
+		for (int exponent : exponents) {
+			if (exponent <= 0 || exponent >= degree) {
+				throw new IllegalArgumentException();
+			}
+			reductionPolynomial = reductionPolynomial.setBit(exponent);
+		}
+		return BinaryFieldArithmetic.getInstance(reductionPolynomial);
+	}
+
+	/**
+	 * Returns the arithmetic for a {@link PolynomialField} over {@link ZModTwo}. Instances obtained by this method
+	 * support the conversion from and to {@link PolynomialElement}s.
+	 * <p>
+	 * @param field The binary polynomial field
+	 * @return The binary field arithmetic
+	 */
+	public static BinaryFieldArithmetic getInstance(PolynomialField field) {
+		if (field == null) {
+			throw new IllegalArgumentException();
+		}
+		BigInteger reductionPolynomial = toBits(field.getIrreduciblePolynomial());
+		BinaryFieldArithmetic instance = BinaryFieldArithmetic.getInstance(reductionPolynomial);
+		if (instance.field == null) {
+			instance = new BinaryFieldArithmetic(reductionPolynomial, field);
+			INSTANCES.put(reductionPolynomial, instance);
+		}
+		return instance;
+	}
+
+	public BigInteger getReductionPolynomial() {
+		return this.reductionPolynomial;
+	}
+
+	public int getDegree() {
+		return this.degree;
+	}
+
+	public int getSize() {
+		return this.size;
+	}
+
+	public long[] getZero() {
+		return new long[this.size];
+	}
+
+	public long[] getOne() {
+		long[] one = new long[this.size];
+		one[0] = 1;
+		return one;
+	}
+
+	public boolean isZero(long[] a) {
+		for (long word : a) {
+			if (word != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public boolean isOne(long[] a) {
+		if (a[0] != 1) {
+			return false;
+		}
+		for (int i = 1; i < a.length; i++) {
+			if (a[i] != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public boolean isEqual(long[] a, long[] b) {
+		for (int i = 0; i < this.size; i++) {
+			if (a[i] != b[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public long[] add(long[] a, long[] b) {
+		long[] result = new long[this.size];
+		for (int i = 0; i < this.size; i++) {
+			result[i] = a[i] ^ b[i];
+		}
+		return result;
+	}
+
+	/**
+	 * Multiplies two field elements by the left-to-right comb method. For each 4-bit window value {@code u}, the
+	 * product {@code u(x)*b(x)} is precomputed, such that the inner loop consists of table lookups and word-wise XOR
+	 * only.
+	 * <p>
+	 * @param a The first factor
+	 * @param b The second factor
+	 * @return The reduced product
+	 */
+	public long[] multiply(long[] a, long[] b) {
+		int n = this.size;
+		long[][] table = new long[1 << WINDOW_SIZE][n + 1];
+		System.arraycopy(b, 0, table[1], 0, n);
+		for (int u = 2; u < table.length; u += 2) {
+			// table[u] = x * table[u/2], table[u+1] = table[u] + b
+			long[] half = table[u >>> 1];
+			long[] row = table[u];
+			long carry = 0;
+			for (int j = 0; j <= n; j++) {
+				row[j] = (half[j] << 1) | carry;
+				carry = half[j] >>> (WORD_SIZE - 1);
+			}
+			long[] next = table[u + 1];
+			for (int j = 0; j <= n; j++) {
+				next[j] = row[j] ^ table[1][j];
+			}
+		}
+		long[] c = new long[2 * n];
+		for (int k = WORD_SIZE - WINDOW_SIZE; k >= 0; k -= WINDOW_SIZE) {
+			for (int j = 0; j < n; j++) {
+				int u = (int) (a[j] >>> k) & ((1 << WINDOW_SIZE) - 1);
+				if (u != 0) {
+					long[] row = table[u];
+					int limit = Math.min(n + 1, 2 * n - j);
+					for (int i = 0; i < limit; i++) {
+						c[i + j] ^= row[i];
+					}
+				}
+			}
+			if (k != 0) {
+				for (int i = 2 * n - 1; i > 0; i--) {
+					c[i] = (c[i] << WINDOW_SIZE) | (c[i - 1] >>> (WORD_SIZE - WINDOW_SIZE));
+				}
+				c[0] <<= WINDOW_SIZE;
+			}
+		}
+		return this.reduce(c);
+	}
+
+	/**
+	 * Squares a field element. Squaring is linear in {@code GF(2)[x]}, i.e. it inserts a zero bit between any two
+	 * bits of the element.
+	 * <p>
+	 * @param a The field element
+	 * @return The reduced square
+	 */
+	public long[] square(long[] a) {
+		long[] c = new long[2 * this.size];
+		for (int i = 0; i < this.size; i++) {
+			long word = a[i];
+			c[2 * i] = SPREAD[(int) word & 0xFF] | SPREAD[(int) (word >>> 8) & 0xFF] << 16
+				   | SPREAD[(int) (word >>> 16) & 0xFF] << 32 | SPREAD[(int) (word >>> 24) & 0xFF] << 48;
+			c[2 * i + 1] = SPREAD[(int) (word >>> 32) & 0xFF] | SPREAD[(int) (word >>> 40) & 0xFF] << 16
+				   | SPREAD[(int) (word >>> 48) & 0xFF] << 32 | SPREAD[(int) (word >>> 56) & 0xFF] << 48;
+		}
+		return this.reduce(c);
+	}
+
+	/**
+	 * Computes the multiplicative inverse {@code a^(2^m-2)} by the Itoh-Tsujii method, which requires {@code m-1}
+	 * squarings and about {@code log(m)} multiplications.
+	 * <p>
+	 * @param a The non-zero field element
+	 * @return The inverse of {@code a}
+	 */
+	public long[] invert(long[] a) {
+		if (this.isZero(a)) {
+			throw new IllegalArgumentException();
+		}
+		// beta = a^(2^k-1)
+		long[] beta = a;
+		int k = 1;
+		int e = this.degree - 1;
+		for (int i = 30 - Integer.numberOfLeadingZeros(e); i >= 0; i--) {
+			long[] power = beta;
+			for (int j = 0; j < k; j++) {
+				power = this.square(power);
+			}
+			beta = this.multiply(power, beta);
+			k = 2 * k;
+			if ((e & (1 << i)) != 0) {
+				beta = this.multiply(this.square(beta), a);
+				k = k + 1;
+			}
+		}
+		return this.square(beta);
+	}
+
+	public long[] divide(long[] a, long[] b) {
+		return this.multiply(a, this.invert(b));
+	}
+
+	public long[] toLongs(BigInteger value) {
+		if (value == null || value.signum() < 0 || value.bitLength() > this.degree) {
+			throw new IllegalArgumentException();
+		}
+		long[] result = new long[this.size];
+		for (int i = 0; i < this.size; i++) {
+			result[i] = value.shiftRight(WORD_SIZE * i).longValue();
+		}
+		return result;
+	}
+
+	public BigInteger toBigInteger(long[] a) {
+		byte[] bytes = new byte[8 * this.size];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[bytes.length - 1 - i] = (byte) (a[i / 8] >>> (8 * (i % 8)));
+		}
+		return new BigInteger(1, bytes);
+	}
+
+	public long[] toLongs(PolynomialElement element) {
+		if (element == null) {
+			throw new IllegalArgumentException();
+		}
+		return this.toLongs(toBits(element));
+	}
+
+	public PolynomialElement toPolynomialElement(long[] a) {
+		if (this.field == null) {
+			throw new IllegalArgumentException();
+		}
+		ZModTwo zModTwo = ZModTwo.getInstance();
+		DualisticElement<BigInteger> zero = zModTwo.getZeroElement();
+		DualisticElement<BigInteger> one = zModTwo.getOneElement();
+		DualisticElement<BigInteger>[] coefficients = new DualisticElement[this.degree];
+		for (int i = 0; i < this.degree; i++) {
+			coefficients[i] = ((a[i / WORD_SIZE] >>> (i % WORD_SIZE)) & 1) == 1 ? one : zero;
+		}
+		return this.field.getElement(Polynomial.getInstance(coefficients, zero, one));
+	}
+
+	private long[] reduce(long[] c) {
+		int top = this.degree / WORD_SIZE;
+		// fold the words above the word containing x^m, using x^m = x^k_1 + ... + 1
+		for (int i = c.length - 1; i > top; i--) {
+			long word = c[i];
+			if (word != 0) {
+				c[i] = 0;
+				int shift = WORD_SIZE * i - this.degree;
+				for (int exponent : this.exponents) {
+					xorShifted(c, word, shift + exponent);
+				}
+			}
+		}
+		// fold the remaining bits of the top word
+		int bits = this.degree % WORD_SIZE;
+		long word = c[top] >>> bits;
+		if (word != 0) {
+			c[top] &= (1L << bits) - 1;
+			for (int exponent : this.exponents) {
+				xorShifted(c, word, exponent);
+			}
+		}
+		long[] result = new long[this.size];
+		System.arraycopy(c, 0, result, 0, this.size);
+		return result;
+	}
+
+	private static void xorShifted(long[] c, long word, int position) {
+		int index = position / WORD_SIZE;
+		int shift = position % WORD_SIZE;
+		c[index] ^= word << shift;
+		if (shift != 0 && index + 1 < c.length) {
+			c[index + 1] ^= word >>> (WORD_SIZE - shift);
+		}
+	}
+
+	private static int secondBit(BigInteger polynomial) {
+		for (int i = polynomial.bitLength() - 2; i >= 0; i--) {
+			if (polynomial.testBit(i)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static BigInteger toBits(PolynomialElement element) {
+		Polynomial<DualisticElement<BigInteger>> polynomial = element.getValue();
+		BigInteger bits = BigInteger.ZERO;
+		for (int i = 0; i <= polynomial.getDegree(); i++) {
+			if (polynomial.getCoefficient(i).getValue().testBit(0)) {
+				bits = bits.setBit(i);
+			}
+		}
+		return bits;
+	}
+
+}
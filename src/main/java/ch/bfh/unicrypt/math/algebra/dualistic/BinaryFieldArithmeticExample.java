@@ -0,0 +1,122 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.dualistic;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECPolynomialField;
+import ch.bfh.unicrypt.math.algebra.additive.parameters.ECPolynomialFieldParameters;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.PolynomialElement;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.PolynomialField;
+
+/**
+ *
+ * @see BinaryFieldArithmetic
+ */
+public class BinaryFieldArithmeticExample {
+
+	public static void example1() {
+
+		// Multiplication and inversion in the field of SECT163r1
+		ECPolynomialField ec = ECPolynomialField.getInstance(ECPolynomialFieldParameters.SECT163r1);
+		PolynomialField field = ec.getFiniteField();
+		BinaryFieldArithmetic arithmetic = BinaryFieldArithmetic.getInstance(field);
+
+		PolynomialElement x = ec.getRandomElement().getX();
+		PolynomialElement y = ec.getRandomElement().getX();
+		long[] xs = arithmetic.toLongs(x);
+		long[] ys = arithmetic.toLongs(y);
+
+		Example.setLabelLength("Packed Product");
+		Example.printLine("Field", field);
+		Example.printLine("Reduction", arithmetic.getReductionPolynomial().toString(2));
+		Example.printLine("Elements", x, y);
+		Example.printLine("Product", x.multiply(y));
+		Example.printLine("Packed Product", arithmetic.toPolynomialElement(arithmetic.multiply(xs, ys)));
+		Example.printLine("Inverse", x.oneOver());
+		Example.printLine("Packed Inverse", arithmetic.toPolynomialElement(arithmetic.invert(xs)));
+	}
+
+	public static void example2() {
+
+		// Multiplications in the fields of all SECT curves
+		ECPolynomialFieldParameters[] allParams = {
+			ECPolynomialFieldParameters.SECT163k1,
+			ECPolynomialFieldParameters.SECT233k1,
+			ECPolynomialFieldParameters.SECT283k1,
+			ECPolynomialFieldParameters.SECT409k1,
+			ECPolynomialFieldParameters.SECT571k1
+		};
+		for (ECPolynomialFieldParameters params : allParams) {
+			ECPolynomialField ec = ECPolynomialField.getInstance(params);
+			BinaryFieldArithmetic arithmetic = BinaryFieldArithmetic.getInstance(ec.getFiniteField());
+			PolynomialElement x = ec.getRandomElement().getX();
+			PolynomialElement y = ec.getRandomElement().getY();
+			int size = 1000;
+
+			long time = System.currentTimeMillis();
+			PolynomialElement product1 = x;
+			for (int i = 0; i < size; i++) {
+				product1 = product1.multiply(y);
+			}
+			long time1 = System.currentTimeMillis() - time;
+
+			time = System.currentTimeMillis();
+			long[] product2 = arithmetic.toLongs(x);
+			long[] ys = arithmetic.toLongs(y);
+			for (int i = 0; i < size; i++) {
+				product2 = arithmetic.multiply(product2, ys);
+			}
+			long time2 = System.currentTimeMillis() - time;
+
+			Example.setLabelLength("PolynomialField");
+			Example.printLine("Degree", arithmetic.getDegree());
+			Example.printLine("PolynomialField", time1 + " ms");
+			Example.printLine("Packed", time2 + " ms");
+			Example.printLine("Equal", product1.isEquivalent(arithmetic.toPolynomialElement(product2)));
+		}
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
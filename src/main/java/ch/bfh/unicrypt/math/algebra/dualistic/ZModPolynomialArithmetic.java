@@ -0,0 +1,847 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.dualistic;
+
+import ch.bfh.unicrypt.helper.ParallelLoop;
+import ch.bfh.unicrypt.helper.math.Polynomial;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.PolynomialElement;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.PolynomialSemiRing;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZMod;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZModElement;
+import ch.bfh.unicrypt.math.algebra.dualistic.interfaces.DualisticElement;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Arithmetic for polynomials over {@code ZMod}. Polynomials are stored as arrays of coefficients in {@code [0,n)},
+ * where the coefficient of {@code x^i} is stored at index {@code i}. Depending on the degrees, products are computed
+ * by one of the following methods:
+ * <ul>
+ * <li>Small products are computed by the schoolbook method.</li>
+ * <li>Medium products are computed by Kronecker substitution, i.e. the coefficients of each polynomial are packed into
+ * a single integer with slots large enough to hold the coefficients of the integer product. Then the two integers are
+ * multiplied by {@link BigInteger#multiply(BigInteger)}, which uses the Karatsuba and Toom-Cook methods for large
+ * numbers, and the coefficients are unpacked.</li>
+ * <li>Large products are computed modulo several primes {@code q_j = c*2^k+1 < 2^31} by the number-theoretic
+ * transform (NTT) of length {@code 2^k} in {@code O(d*log(d))}. The products modulo the different primes are computed
+ * in parallel and combined by the explicit Chinese remainder theorem, which yields the coefficients modulo {@code n}
+ * without computing the coefficients of the integer product. If there are not enough primes for the required length,
+ * Kronecker substitution is used instead.</li>
+ * </ul>
+ * Products of many linear factors {@code (x-u_1)*...*(x-u_k)} are computed by a balanced product tree, i.e. the factors
+ * are multiplied pairwise, then the results are multiplied pairwise, etc. The multiplications of the same level of the
+ * tree are performed in parallel (see {@link ParallelLoop}). The same tree is used to evaluate a polynomial at many
+ * points (scaled remainder tree), where the only division is reduced to multiplications by Newton iteration. Instances
+ * are immutable and can be shared among threads.
+ * <p>
+ * @see ch.bfh.unicrypt.math.algebra.dualistic.ZModPolynomialArithmeticExample
+ */
+public class ZModPolynomialArithmetic {
+
+	private static final int SCHOOLBOOK_THRESHOLD = 32;
+	private static final int NTT_THRESHOLD = 1024;
+	private static final int NTT_PRIME_BITS = 31;
+	private static final int HORNER_BLOCK_SIZE = 4096;
+	private static final int MULTIPOINT_THRESHOLD = 512;
+
+	private static final Map<BigInteger, ZModPolynomialArithmetic> INSTANCES = new ConcurrentHashMap<>();
+
+	private final ZMod zMod;
+	private final BigInteger modulus;
+	private final PolynomialSemiRing polynomialSemiRing;
+	private final Map<Integer, NTTParameters> nttParameters;
+
+	private ZModPolynomialArithmetic(ZMod zMod) {
+		this.zMod = zMod;
+		this.modulus = zMod.getModulus();
+		this.polynomialSemiRing = PolynomialSemiRing.getInstance(zMod);
+		this.nttParameters = new ConcurrentHashMap<>();
+	}
+
+	public static ZModPolynomialArithmetic getInstance(ZMod zMod) {
+		if (zMod == null) {
+			throw new IllegalArgumentException();
+		}
+		ZModPolynomialArithmetic instance = INSTANCES.get(zMod.getModulus());
+		if (instance == null) {
+			instance = new ZModPolynomialArithmetic(zMod);
+			INSTANCES.put(zMod.getModulus(), instance);
+		}
+		return instance;
+	}
+
+	public ZMod getZMod() {
+		return this.zMod;
+	}
+
+	public PolynomialSemiRing getPolynomialSemiRing() {
+		return this.polynomialSemiRing;
+	}
+
+	/**
+	 * Multiplies two polynomials given by their coefficients.
+	 * <p>
+	 * @param a The coefficients of the first polynomial
+	 * @param b The coefficients of the second polynomial
+	 * @return The coefficients of the product
+	 */
+	public BigInteger[] multiply(BigInteger[] a, BigInteger[] b) {
+		if (a == null || b == null || a.length == 0 || b.length == 0) {
+			throw new IllegalArgumentException();
+		}
+		BigInteger[] x = this.reduce(a);
+		BigInteger[] y = this.reduce(b);
+		int length = Math.min(x.length, y.length);
+		if (length <= SCHOOLBOOK_THRESHOLD) {
+			return this.multiplySchoolbook(x, y);
+		}
+		if (length >= NTT_THRESHOLD) {
+			NTTParameters parameters = this.getNTTParameters(x.length + y.length - 1);
+			if (parameters != null) {
+				return this.multiplyNTT(x, y, parameters);
+			}
+		}
+		return this.multiplyKronecker(x, y);
+	}
+
+	public PolynomialElement multiply(PolynomialElement a, PolynomialElement b) {
+		return this.getElement(this.multiply(this.getCoefficients(a), this.getCoefficients(b)));
+	}
+
+	/**
+	 * Computes the coefficients of the monic polynomial {@code (x-u_1)*...*(x-u_k)} by a product tree.
+	 * <p>
+	 * @param roots The roots {@code u_1,...,u_k}
+	 * @return The coefficients of the product
+	 */
+	public BigInteger[] multiplyLinearFactors(BigInteger... roots) {
+		if (roots == null) {
+			throw new IllegalArgumentException();
+		}
+		if (roots.length == 0) {
+			return new BigInteger[]{BigInteger.ONE};
+		}
+		BigInteger[][][] tree = this.getProductTree(roots);
+		return tree[tree.length - 1][0];
+	}
+
+	/**
+	 * Divides the first polynomial by the second polynomial with remainder. The leading coefficient of the divisor must
+	 * be invertible modulo {@code n}. For large degrees, the quotient is computed from the reversed polynomials and the
+	 * inverse power series of the reversed divisor, which is obtained by Newton iteration. This requires a constant
+	 * number of multiplications.
+	 * <p>
+	 * @param a The coefficients of the dividend
+	 * @param b The coefficients of the divisor
+	 * @return The coefficients of the quotient and the coefficients of the remainder
+	 */
+	public BigInteger[][] divide(BigInteger[] a, BigInteger[] b) {
+		if (a == null || b == null || a.length == 0 || b.length == 0) {
+			throw new IllegalArgumentException();
+		}
+		BigInteger[] x = ZModPolynomialArithmetic.trim(this.reduce(a));
+		BigInteger[] y = ZModPolynomialArithmetic.trim(this.reduce(b));
+		BigInteger leadingCoefficient = y[y.length - 1];
+		if (!leadingCoefficient.gcd(this.modulus).equals(BigInteger.ONE)) {
+			throw new IllegalArgumentException();
+		}
+		return this.divide(x, y, leadingCoefficient.modInverse(this.modulus));
+	}
+
+	/**
+	 * Evaluates the polynomial at the given point by Horner's method. For large degrees, the coefficients are split
+	 * into blocks of length {@code m}, the blocks are evaluated in parallel, and the results are combined by Horner's
+	 * method with {@code x^m}.
+	 * <p>
+	 * @param coefficients The coefficients of the polynomial
+	 * @param x            The point
+	 * @return The value of the polynomial at {@code x}
+	 */
+	public BigInteger evaluate(final BigInteger[] coefficients, BigInteger x) {
+		if (coefficients == null || x == null) {
+			throw new IllegalArgumentException();
+		}
+		final BigInteger point = x.mod(this.modulus);
+		if (coefficients.length <= HORNER_BLOCK_SIZE) {
+			return this.evaluate(coefficients, 0, coefficients.length, point);
+		}
+		final BigInteger[] values = new BigInteger[(coefficients.length + HORNER_BLOCK_SIZE - 1) / HORNER_BLOCK_SIZE];
+		ParallelLoop.run(values.length, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					int end = Math.min(coefficients.length, (i + 1) * HORNER_BLOCK_SIZE);
+					values[i] = ZModPolynomialArithmetic.this.evaluate(coefficients, i * HORNER_BLOCK_SIZE, end, point);
+				}
+			}
+
+		});
+		return this.evaluate(values, 0, values.length, point.modPow(BigInteger.valueOf(HORNER_BLOCK_SIZE), this.modulus));
+	}
+
+	public ZModElement evaluate(PolynomialElement element, ZModElement x) {
+		if (x == null || !this.zMod.contains(x)) {
+			throw new IllegalArgumentException();
+		}
+		return this.zMod.getElement(this.evaluate(this.getCoefficients(element), x.getValue()));
+	}
+
+	/**
+	 * Evaluates the polynomial at many points. For many points and large degrees, the points are split into blocks of
+	 * at most {@code d} points, and the polynomial is reduced modulo the root of the product tree of the linear factors
+	 * {@code (x-u_i)} of each block. From there, the values are obtained by a scaled remainder tree, i.e. each node
+	 * stores the power series {@code (f mod P)/P}, and the series of the children are computed by a single
+	 * multiplication with the sibling. The nodes of the same level are processed in parallel. This requires
+	 * {@code O(M(d)*log(d))} operations instead of {@code O(d^2)}, where {@code M(d)} is the cost of a multiplication.
+	 * <p>
+	 * @param coefficients The coefficients of the polynomial
+	 * @param points       The points {@code u_1,...,u_k}
+	 * @return The values of the polynomial at the given points
+	 */
+	public BigInteger[] evaluate(BigInteger[] coefficients, final BigInteger[] points) {
+		if (coefficients == null || points == null || coefficients.length == 0) {
+			throw new IllegalArgumentException();
+		}
+		for (BigInteger point : points) {
+			if (point == null) {
+				throw new IllegalArgumentException();
+			}
+		}
+		final BigInteger[] values = new BigInteger[points.length];
+		if (points.length == 0) {
+			return values;
+		}
+		final BigInteger[] polynomial = ZModPolynomialArithmetic.trim(this.reduce(coefficients));
+		if (points.length <= MULTIPOINT_THRESHOLD || polynomial.length <= MULTIPOINT_THRESHOLD) {
+			ParallelLoop.run(points.length, new ParallelLoop.Body() {
+
+				@Override
+				public void run(int from, int to) {
+					for (int i = from; i < to; i++) {
+						values[i] = ZModPolynomialArithmetic.this.evaluate(polynomial, 0, polynomial.length, points[i].mod(ZModPolynomialArithmetic.this.modulus));
+					}
+				}
+
+			});
+			return values;
+		}
+		// the product tree is built for blocks of at most max(d,threshold) points
+		int blockSize = Math.max(polynomial.length, MULTIPOINT_THRESHOLD);
+		for (int from = 0; from < points.length; from += blockSize) {
+			BigInteger[] block = Arrays.copyOfRange(points, from, Math.min(points.length, from + blockSize));
+			System.arraycopy(this.evaluateTree(polynomial, block), 0, values, from, block.length);
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the powers {@code 1,x,...,x^(k-1)} of the given point. The powers are computed in parallel blocks, each
+	 * starting with a modular exponentiation.
+	 * <p>
+	 * @param x      The point
+	 * @param number The number {@code k} of powers
+	 * @return The powers
+	 */
+	public BigInteger[] getPowers(BigInteger x, int number) {
+		if (x == null || number < 0) {
+			throw new IllegalArgumentException();
+		}
+		final BigInteger point = x.mod(this.modulus);
+		final BigInteger[] powers = new BigInteger[number];
+		ParallelLoop.run((number + HORNER_BLOCK_SIZE - 1) / HORNER_BLOCK_SIZE, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				BigInteger modulus = ZModPolynomialArithmetic.this.modulus;
+				for (int i = from; i < to; i++) {
+					int start = i * HORNER_BLOCK_SIZE;
+					int end = Math.min(powers.length, start + HORNER_BLOCK_SIZE);
+					powers[start] = point.modPow(BigInteger.valueOf(start), modulus);
+					for (int j = start + 1; j < end; j++) {
+						powers[j] = powers[j - 1].multiply(point).mod(modulus);
+					}
+				}
+			}
+
+		});
+		return powers;
+	}
+
+	/**
+	 * Returns the monic polynomial with the given roots. This corresponds to multiplying the linear factors
+	 * {@code (x-u_i)} one by one.
+	 * <p>
+	 * @param roots The roots
+	 * @return The polynomial
+	 */
+	public PolynomialElement getElementWithRoots(ZModElement... roots) {
+		if (roots == null) {
+			throw new IllegalArgumentException();
+		}
+		BigInteger[] values = new BigInteger[roots.length];
+		for (int i = 0; i < roots.length; i++) {
+			if (!this.zMod.contains(roots[i])) {
+				throw new IllegalArgumentException();
+			}
+			values[i] = roots[i].getValue();
+		}
+		return this.getElement(this.multiplyLinearFactors(values));
+	}
+
+	/**
+	 * Returns the coefficients of the given polynomial. The length of the array is the degree plus one.
+	 * <p>
+	 * @param element The polynomial
+	 * @return The coefficients
+	 */
+	public BigInteger[] getCoefficients(PolynomialElement element) {
+		if (element == null || !this.polynomialSemiRing.contains(element)) {
+			throw new IllegalArgumentException();
+		}
+		Polynomial<DualisticElement<BigInteger>> polynomial = element.getValue();
+		BigInteger[] coefficients = new BigInteger[Math.max(1, polynomial.getDegree() + 1)];
+		for (int i = 0; i < coefficients.length; i++) {
+			coefficients[i] = polynomial.getCoefficient(i).getValue();
+		}
+		return coefficients;
+	}
+
+	public PolynomialElement getElement(BigInteger[] coefficients) {
+		if (coefficients == null) {
+			throw new IllegalArgumentException();
+		}
+		DualisticElement<BigInteger> zero = this.zMod.getZeroElement();
+		DualisticElement<BigInteger> one = this.zMod.getOneElement();
+		DualisticElement<BigInteger>[] elements = new DualisticElement[coefficients.length];
+		for (int i = 0; i < coefficients.length; i++) {
+			elements[i] = this.zMod.getElement(coefficients[i]);
+		}
+		return this.polynomialSemiRing.getElement(Polynomial.getInstance(elements, zero, one));
+	}
+
+	// returns a copy of the coefficients in [0,n)
+	private BigInteger[] reduce(BigInteger[] a) {
+		BigInteger[] result = new BigInteger[a.length];
+		for (int i = 0; i < a.length; i++) {
+			if (a[i].signum() < 0 || a[i].compareTo(this.modulus) >= 0) {
+				result[i] = a[i].mod(this.modulus);
+			} else {
+				result[i] = a[i];
+			}
+		}
+		return result;
+	}
+
+	// the levels of the product tree of the linear factors (x-u_i), the leaves are at level 0
+	private BigInteger[][][] getProductTree(BigInteger[] roots) {
+		List<BigInteger[][]> levels = new ArrayList<>();
+		BigInteger[][] level = new BigInteger[roots.length][];
+		for (int i = 0; i < roots.length; i++) {
+			level[i] = new BigInteger[]{roots[i].negate().mod(this.modulus), BigInteger.ONE};
+		}
+		levels.add(level);
+		while (level.length > 1) {
+			final BigInteger[][] lower = level;
+			final BigInteger[][] upper = new BigInteger[(lower.length + 1) / 2][];
+			ParallelLoop.run(lower.length / 2, new ParallelLoop.Body() {
+
+				@Override
+				public void run(int from, int to) {
+					for (int i = from; i < to; i++) {
+						upper[i] = ZModPolynomialArithmetic.this.multiply(lower[2 * i], lower[2 * i + 1]);
+					}
+				}
+
+			});
+			if (lower.length % 2 == 1) {
+				upper[upper.length - 1] = lower[lower.length - 1];
+			}
+			level = upper;
+			levels.add(level);
+		}
+		return levels.toArray(new BigInteger[0][][]);
+	}
+
+	// the polynomial is reduced and trimmed
+	private BigInteger[] evaluateTree(BigInteger[] polynomial, BigInteger[] points) {
+		final BigInteger[][][] tree = this.getProductTree(points);
+		int level = tree.length - 1;
+		BigInteger[] root = tree[level][0];
+		int degree = root.length - 1;
+		// the scaled remainder of a node P of degree m consists of the first m coefficients of the power series
+		// (f mod P)/P in 1/x, it is obtained from the root by rev(f mod P)*rev(P)^-1
+		BigInteger[] remainder = this.divide(polynomial, root, BigInteger.ONE)[1];
+		BigInteger[] reversedRemainder = ZModPolynomialArithmetic.zeros(degree);
+		BigInteger[] reversedRoot = new BigInteger[degree];
+		for (int i = 0; i < degree; i++) {
+			if (degree - 1 - i < remainder.length) {
+				reversedRemainder[i] = remainder[degree - 1 - i];
+			}
+			reversedRoot[i] = root[degree - i];
+		}
+		BigInteger[][] series = new BigInteger[][]{ZModPolynomialArithmetic.truncate(this.multiply(reversedRemainder, this.invert(reversedRoot, degree, BigInteger.ONE)), degree)};
+		// for P = A*B, the scaled remainder of A is the window of B times the scaled remainder of P (scaled remainder tree)
+		while (level > 0) {
+			final BigInteger[][] upper = series;
+			final BigInteger[][] nodes = tree[level - 1];
+			final BigInteger[][] lower = new BigInteger[nodes.length][];
+			ParallelLoop.run(nodes.length, new ParallelLoop.Body() {
+
+				@Override
+				public void run(int from, int to) {
+					for (int i = from; i < to; i++) {
+						int sibling = i ^ 1;
+						if (sibling == nodes.length) {
+							// the last node of an odd level is the same polynomial on the upper level
+							lower[i] = upper[i / 2];
+						} else {
+							BigInteger[] reversedSibling = new BigInteger[nodes[sibling].length];
+							for (int j = 0; j < reversedSibling.length; j++) {
+								reversedSibling[j] = nodes[sibling][reversedSibling.length - 1 - j];
+							}
+							BigInteger[] product = ZModPolynomialArithmetic.this.multiply(reversedSibling, upper[i / 2]);
+							int offset = nodes[sibling].length - 1;
+							lower[i] = Arrays.copyOfRange(product, offset, offset + nodes[i].length - 1);
+						}
+					}
+				}
+
+			});
+			series = lower;
+			level--;
+		}
+		// the scaled remainder of (x-u) is f(u)/(x-u)
+		BigInteger[] values = new BigInteger[points.length];
+		for (int i = 0; i < points.length; i++) {
+			values[i] = series[i][0];
+		}
+		return values;
+	}
+
+	// Horner's method for the coefficients in [from,to), the point is in [0,n)
+	private BigInteger evaluate(BigInteger[] coefficients, int from, int to, BigInteger x) {
+		BigInteger result = BigInteger.ZERO;
+		for (int i = to - 1; i >= from; i--) {
+			result = result.multiply(x).add(coefficients[i]).mod(this.modulus);
+		}
+		return result;
+	}
+
+	// the coefficients are in [0,n), the leading coefficient of b is non-zero with the given inverse
+	private BigInteger[][] divide(BigInteger[] a, BigInteger[] b, BigInteger inverse) {
+		if (a.length < b.length) {
+			return new BigInteger[][]{new BigInteger[]{BigInteger.ZERO}, a};
+		}
+		int length = a.length - b.length + 1;
+		if (b.length <= SCHOOLBOOK_THRESHOLD || length <= SCHOOLBOOK_THRESHOLD) {
+			return this.divideSchoolbook(a, b, inverse);
+		}
+		// rev(q) = rev(a)*rev(b)^-1 mod x^length, where rev(a) is the polynomial with the coefficients in reverse order
+		BigInteger[] reversedA = new BigInteger[length];
+		for (int i = 0; i < length; i++) {
+			reversedA[i] = a[a.length - 1 - i];
+		}
+		BigInteger[] reversedB = new BigInteger[Math.min(b.length, length)];
+		for (int i = 0; i < reversedB.length; i++) {
+			reversedB[i] = b[b.length - 1 - i];
+		}
+		BigInteger[] reversedQuotient = this.multiply(reversedA, this.invert(reversedB, length, inverse));
+		BigInteger[] quotient = new BigInteger[length];
+		for (int i = 0; i < length; i++) {
+			quotient[i] = reversedQuotient[length - 1 - i];
+		}
+		// r = a-q*b has degree smaller than the degree of b
+		BigInteger[] product = this.multiply(quotient, b);
+		BigInteger[] remainder = new BigInteger[Math.max(1, b.length - 1)];
+		remainder[0] = BigInteger.ZERO;
+		for (int i = 0; i < b.length - 1; i++) {
+			remainder[i] = a[i].subtract(product[i]).mod(this.modulus);
+		}
+		return new BigInteger[][]{quotient, ZModPolynomialArithmetic.trim(remainder)};
+	}
+
+	private BigInteger[][] divideSchoolbook(BigInteger[] a, BigInteger[] b, BigInteger inverse) {
+		BigInteger[] remainder = a.clone();
+		BigInteger[] quotient = new BigInteger[a.length - b.length + 1];
+		for (int i = quotient.length - 1; i >= 0; i--) {
+			quotient[i] = remainder[i + b.length - 1].multiply(inverse).mod(this.modulus);
+			if (quotient[i].signum() != 0) {
+				for (int j = 0; j < b.length; j++) {
+					remainder[i + j] = remainder[i + j].subtract(quotient[i].multiply(b[j])).mod(this.modulus);
+				}
+			}
+		}
+		if (b.length == 1) {
+			return new BigInteger[][]{quotient, new BigInteger[]{BigInteger.ZERO}};
+		}
+		return new BigInteger[][]{quotient, ZModPolynomialArithmetic.trim(Arrays.copyOf(remainder, b.length - 1))};
+	}
+
+	// the power series g with g*h = 1 mod x^length by Newton iteration g = g*(2-h*g), the inverse of h_0 is given
+	private BigInteger[] invert(BigInteger[] h, int length, BigInteger inverse) {
+		BigInteger[] g = new BigInteger[]{inverse};
+		int precision = 1;
+		while (precision < length) {
+			precision = Math.min(2 * precision, length);
+			BigInteger[] e = ZModPolynomialArithmetic.truncate(this.multiply(ZModPolynomialArithmetic.truncate(h, precision), g), precision);
+			for (int i = 0; i < e.length; i++) {
+				e[i] = (i == 0 ? BigInteger.valueOf(2).subtract(e[i]) : e[i].negate()).mod(this.modulus);
+			}
+			g = ZModPolynomialArithmetic.truncate(this.multiply(g, e), precision);
+		}
+		return g;
+	}
+
+	private BigInteger[] multiplySchoolbook(BigInteger[] a, BigInteger[] b) {
+		BigInteger[] c = ZModPolynomialArithmetic.zeros(a.length + b.length - 1);
+		for (int i = 0; i < a.length; i++) {
+			if (a[i].signum() != 0) {
+				for (int j = 0; j < b.length; j++) {
+					c[i + j] = c[i + j].add(a[i].multiply(b[j]));
+				}
+			}
+		}
+		for (int i = 0; i < c.length; i++) {
+			c[i] = c[i].mod(this.modulus);
+		}
+		return c;
+	}
+
+	private BigInteger[] multiplyKronecker(BigInteger[] a, BigInteger[] b) {
+		if (a.length < b.length) {
+			return this.multiplyKronecker(b, a);
+		}
+		if (a.length > 2 * b.length) {
+			// split the longer polynomial into blocks of the length of the shorter one
+			BigInteger[] c = ZModPolynomialArithmetic.zeros(a.length + b.length - 1);
+			for (int offset = 0; offset < a.length; offset += b.length) {
+				BigInteger[] block = Arrays.copyOfRange(a, offset, Math.min(a.length, offset + b.length));
+				BigInteger[] product = this.multiplyKronecker(block, b);
+				for (int i = 0; i < product.length; i++) {
+					c[offset + i] = c[offset + i].add(product[i]);
+					if (c[offset + i].compareTo(this.modulus) >= 0) {
+						c[offset + i] = c[offset + i].subtract(this.modulus);
+					}
+				}
+			}
+			return c;
+		}
+		// the coefficients of the integer product are smaller than min(|a|,|b|)*(n-1)^2
+		int bits = 2 * this.modulus.bitLength() + Integer.SIZE - Integer.numberOfLeadingZeros(Math.min(a.length, b.length));
+		int slot = (bits + 7) / 8;
+		byte[] product = ZModPolynomialArithmetic.pack(a, slot).multiply(ZModPolynomialArithmetic.pack(b, slot)).toByteArray();
+		BigInteger[] c = new BigInteger[a.length + b.length - 1];
+		byte[] bytes = new byte[slot];
+		for (int i = 0; i < c.length; i++) {
+			int to = product.length - i * slot;
+			int from = Math.max(0, to - slot);
+			if (to <= 0) {
+				c[i] = BigInteger.ZERO;
+			} else {
+				Arrays.fill(bytes, (byte) 0);
+				System.arraycopy(product, from, bytes, slot - (to - from), to - from);
+				c[i] = new BigInteger(1, bytes).mod(this.modulus);
+			}
+		}
+		return c;
+	}
+
+	// the coefficient of x^i is stored in the i-th slot from the right
+	private static BigInteger pack(BigInteger[] a, int slot) {
+		byte[] bytes = new byte[a.length * slot];
+		for (int i = 0; i < a.length; i++) {
+			byte[] value = a[i].toByteArray();
+			// skip the sign byte
+			int offset = (value.length > 1 && value[0] == 0) ? 1 : 0;
+			int length = value.length - offset;
+			System.arraycopy(value, offset, bytes, bytes.length - i * slot - length, length);
+		}
+		return new BigInteger(1, bytes);
+	}
+
+	private BigInteger[] multiplyNTT(final BigInteger[] a, final BigInteger[] b, final NTTParameters parameters) {
+		final int size = a.length + b.length - 1;
+		final int numberOfPrimes = parameters.primes.length;
+		// for the explicit CRT, sums[i] = sum_j v_ij*(M/q_j) mod n and fractions[i] = sum_j v_ij/q_j
+		final BigInteger[] sums = ZModPolynomialArithmetic.zeros(size);
+		final double[] fractions = new double[size];
+		final int groupSize = ParallelLoop.getDefaultPool().getParallelism();
+		for (int first = 0; first < numberOfPrimes; first += groupSize) {
+			final int offset = first;
+			final long[][] residues = new long[Math.min(groupSize, numberOfPrimes - first)][];
+			ParallelLoop.run(ParallelLoop.getDefaultPool(), residues.length, 1, new ParallelLoop.Body() {
+
+				@Override
+				public void run(int from, int to) {
+					for (int j = from; j < to; j++) {
+						residues[j] = ZModPolynomialArithmetic.multiplyModPrime(a, b, size, parameters, offset + j);
+					}
+				}
+
+			});
+			ParallelLoop.run(size, new ParallelLoop.Body() {
+
+				@Override
+				public void run(int from, int to) {
+					for (int i = from; i < to; i++) {
+						for (int j = 0; j < residues.length; j++) {
+							long prime = parameters.primes[offset + j];
+							// v_ij = r_ij*(M/q_j)^-1 mod q_j
+							long v = residues[j][i] * parameters.inverses[offset + j] % prime;
+							sums[i] = sums[i].add(parameters.factors[offset + j].multiply(BigInteger.valueOf(v)));
+							fractions[i] += (double) v / prime;
+						}
+					}
+				}
+
+			});
+		}
+		// the coefficient of the integer product is x_i = sum_j v_ij*(M/q_j) - t_i*M, where t_i = floor(fractions[i])
+		ParallelLoop.run(size, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					// x_i/M is in [0,1/2), which makes the rounding robust
+					long t = (long) Math.floor(fractions[i] + 0.25);
+					BigInteger correction = parameters.productModN.multiply(BigInteger.valueOf(t));
+					sums[i] = sums[i].subtract(correction).mod(ZModPolynomialArithmetic.this.modulus);
+				}
+			}
+
+		});
+		return sums;
+	}
+
+	// returns the coefficients of the product modulo the j-th prime
+	private static long[] multiplyModPrime(BigInteger[] a, BigInteger[] b, int size, NTTParameters parameters, int j) {
+		long prime = parameters.primes[j];
+		BigInteger bigPrime = BigInteger.valueOf(prime);
+		long[] x = new long[parameters.length];
+		long[] y = new long[parameters.length];
+		for (int i = 0; i < a.length; i++) {
+			x[i] = a[i].remainder(bigPrime).longValue();
+		}
+		for (int i = 0; i < b.length; i++) {
+			y[i] = b[i].remainder(bigPrime).longValue();
+		}
+		ZModPolynomialArithmetic.transform(x, prime, parameters.roots[j]);
+		ZModPolynomialArithmetic.transform(y, prime, parameters.roots[j]);
+		for (int i = 0; i < x.length; i++) {
+			x[i] = x[i] * y[i] % prime;
+		}
+		ZModPolynomialArithmetic.transform(x, prime, parameters.inverseRoots[j]);
+		long[] result = new long[size];
+		for (int i = 0; i < size; i++) {
+			result[i] = x[i] * parameters.inverseLengths[j] % prime;
+		}
+		return result;
+	}
+
+	// iterative radix-2 transform, the root is a primitive root of unity of order a.length
+	private static void transform(long[] a, long prime, long root) {
+		int n = a.length;
+		for (int i = 1, j = 0; i < n; i++) {
+			int bit = n >> 1;
+			for (; (j & bit) != 0; bit >>= 1) {
+				j ^= bit;
+			}
+			j ^= bit;
+			if (i < j) {
+				long temp = a[i];
+				a[i] = a[j];
+				a[j] = temp;
+			}
+		}
+		long[] powers = new long[n / 2];
+		for (int length = 2; length <= n; length <<= 1) {
+			int half = length / 2;
+			long w = ZModPolynomialArithmetic.power(root, n / length, prime);
+			powers[0] = 1;
+			for (int k = 1; k < half; k++) {
+				powers[k] = powers[k - 1] * w % prime;
+			}
+			for (int i = 0; i < n; i += length) {
+				for (int k = 0; k < half; k++) {
+					long u = a[i + k];
+					long v = a[i + k + half] * powers[k] % prime;
+					a[i + k] = u + v < prime ? u + v : u + v - prime;
+					a[i + k + half] = u - v >= 0 ? u - v : u - v + prime;
+				}
+			}
+		}
+	}
+
+	private NTTParameters getNTTParameters(int size) {
+		int k = Integer.SIZE - Integer.numberOfLeadingZeros(size - 1);
+		if (k >= NTT_PRIME_BITS) {
+			return null;
+		}
+		NTTParameters parameters = this.nttParameters.get(k);
+		if (parameters == null) {
+			parameters = new NTTParameters(this.modulus, k);
+			this.nttParameters.put(k, parameters);
+		}
+		return parameters.primes.length == 0 ? null : parameters;
+	}
+
+	private static class NTTParameters {
+
+		private final int length;
+		private final long[] primes;
+		private final long[] roots;
+		private final long[] inverseRoots;
+		private final long[] inverseLengths;
+		// (M/q_j)^-1 mod q_j and (M/q_j) mod n, where M is the product of all primes
+		private final long[] inverses;
+		private final BigInteger[] factors;
+		private final BigInteger productModN;
+
+		private NTTParameters(BigInteger modulus, int k) {
+			this.length = 1 << k;
+			// the product of the primes must be larger than twice the coefficients of the integer product
+			BigInteger bound = modulus.subtract(BigInteger.ONE).pow(2).shiftLeft(k + 1);
+			List<Long> list = new ArrayList<>();
+			BigInteger product = BigInteger.ONE;
+			for (long c = ((1L << NTT_PRIME_BITS) - 2) >> k; c > 0 && product.compareTo(bound) <= 0; c--) {
+				long prime = (c << k) + 1;
+				if (BigInteger.valueOf(prime).isProbablePrime(50)) {
+					list.add(prime);
+					product = product.multiply(BigInteger.valueOf(prime));
+				}
+			}
+			if (product.compareTo(bound) <= 0) {
+				// not enough primes for this length
+				list.clear();
+			}
+			int size = list.size();
+			this.primes = new long[size];
+			this.roots = new long[size];
+			this.inverseRoots = new long[size];
+			this.inverseLengths = new long[size];
+			this.inverses = new long[size];
+			this.factors = new BigInteger[size];
+			for (int j = 0; j < size; j++) {
+				long prime = list.get(j);
+				BigInteger bigPrime = BigInteger.valueOf(prime);
+				this.primes[j] = prime;
+				this.roots[j] = ZModPolynomialArithmetic.power(ZModPolynomialArithmetic.getPrimitiveRoot(prime), (prime - 1) >> k, prime);
+				this.inverseRoots[j] = ZModPolynomialArithmetic.power(this.roots[j], prime - 2, prime);
+				this.inverseLengths[j] = ZModPolynomialArithmetic.power(this.length, prime - 2, prime);
+				BigInteger cofactor = product.divide(bigPrime);
+				this.inverses[j] = cofactor.mod(bigPrime).modInverse(bigPrime).longValue();
+				this.factors[j] = cofactor.mod(modulus);
+			}
+			this.productModN = product.mod(modulus);
+		}
+
+	}
+
+	private static long getPrimitiveRoot(long prime) {
+		List<Long> factors = new ArrayList<>();
+		long m = prime - 1;
+		for (long f = 2; f * f <= m; f++) {
+			if (m % f == 0) {
+				factors.add(f);
+				while (m % f == 0) {
+					m /= f;
+				}
+			}
+		}
+		if (m > 1) {
+			factors.add(m);
+		}
+		for (long g = 2;; g++) {
+			boolean primitive = true;
+			for (long f : factors) {
+				if (ZModPolynomialArithmetic.power(g, (prime - 1) / f, prime) == 1) {
+					primitive = false;
+					break;
+				}
+			}
+			if (primitive) {
+				return g;
+			}
+		}
+	}
+
+	// base^exponent mod prime for primes smaller than 2^31
+	private static long power(long base, long exponent, long prime) {
+		long result = 1;
+		base = base % prime;
+		while (exponent > 0) {
+			if ((exponent & 1) == 1) {
+				result = result * base % prime;
+			}
+			base = base * base % prime;
+			exponent >>= 1;
+		}
+		return result;
+	}
+
+	private static BigInteger[] truncate(BigInteger[] a, int length) {
+		return a.length <= length ? a : Arrays.copyOf(a, length);
+	}
+
+	// removes leading zero coefficients, at least one coefficient remains
+	private static BigInteger[] trim(BigInteger[] a) {
+		int length = a.length;
+		while (length > 1 && a[length - 1].signum() == 0) {
+			length--;
+		}
+		return length == a.length ? a : Arrays.copyOf(a, length);
+	}
+
+	private static BigInteger[] zeros(int length) {
+		BigInteger[] result = new BigInteger[length];
+		for (int i = 0; i < length; i++) {
+			result[i] = BigInteger.ZERO;
+		}
+		return result;
+	}
+
+}
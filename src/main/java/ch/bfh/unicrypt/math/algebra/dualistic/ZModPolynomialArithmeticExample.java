@@ -0,0 +1,188 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.dualistic;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.helper.math.Polynomial;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.PolynomialElement;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.PolynomialSemiRing;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZModElement;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZModPrime;
+import ch.bfh.unicrypt.math.algebra.dualistic.interfaces.DualisticElement;
+import java.math.BigInteger;
+
+/**
+ *
+ * @see ZModPolynomialArithmetic
+ */
+public class ZModPolynomialArithmeticExample {
+
+	// Prime of 1024 bits (same as in MemProofBasedVoting)
+	final static String P = "132981118064499312972124229719551507064282251442693318094413647002876359530119444044769383265695686373097209253015503887096288112369989708235068428214124661556800389180762828009952422599372290980806417384771730325122099441368051976156139223257233269955912341167062173607119895128870594055324929155200165347329";
+
+	public static void example1() {
+
+		// Multiply the linear factors one by one and by a product tree
+		ZModPrime zModPrime = ZModPrime.getInstance(new BigInteger(P, 10));
+		PolynomialSemiRing ring = PolynomialSemiRing.getInstance(zModPrime);
+		ZModPolynomialArithmetic arithmetic = ZModPolynomialArithmetic.getInstance(zModPrime);
+		DualisticElement<BigInteger> zero = zModPrime.getZeroElement();
+		DualisticElement<BigInteger> one = zModPrime.getOneElement();
+
+		int size = 1000;
+		ZModElement[] roots = new ZModElement[size];
+		for (int i = 0; i < size; i++) {
+			roots[i] = zModPrime.getRandomElement();
+		}
+
+		long time = System.currentTimeMillis();
+		PolynomialElement result1 = ring.getElement(Polynomial.getInstance(new DualisticElement[]{one}, zero, one));
+		for (ZModElement root : roots) {
+			Polynomial factor = Polynomial.getInstance(new DualisticElement[]{root.invert(), one}, zero, one);
+			result1 = result1.multiply(ring.getElement(factor));
+		}
+		long time1 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		PolynomialElement result2 = arithmetic.getElementWithRoots(roots);
+		long time2 = System.currentTimeMillis() - time;
+
+		Example.setLabelLength("Product Tree");
+		Example.printLine("Degree", size);
+		Example.printLine("One by One", time1 + " ms");
+		Example.printLine("Product Tree", time2 + " ms");
+		Example.printLine("Equal", result1.isEquivalent(result2));
+		Example.printLine("Root", result2.evaluate(roots[0]));
+	}
+
+	public static void example2() {
+
+		// Large products of linear factors
+		ZModPrime zModPrime = ZModPrime.getInstance(new BigInteger(P, 10));
+		ZModPolynomialArithmetic arithmetic = ZModPolynomialArithmetic.getInstance(zModPrime);
+
+		Example.setLabelLength("Degree");
+		for (int size : new int[]{1000, 10000, 100000}) {
+			BigInteger[] roots = new BigInteger[size];
+			for (int i = 0; i < size; i++) {
+				roots[i] = zModPrime.getRandomElement().getValue();
+			}
+			long time = System.currentTimeMillis();
+			BigInteger[] coefficients = arithmetic.multiplyLinearFactors(roots);
+			time = System.currentTimeMillis() - time;
+			Example.printLine("Degree", coefficients.length - 1, time + " ms");
+		}
+	}
+
+	public static void example3() {
+
+		// Products of random polynomials of increasing degrees (schoolbook, Kronecker substitution, NTT)
+		ZModPrime zModPrime = ZModPrime.getInstance(new BigInteger(P, 10));
+		ZModPolynomialArithmetic arithmetic = ZModPolynomialArithmetic.getInstance(zModPrime);
+
+		Example.setLabelLength("Degree");
+		for (int degree : new int[]{10, 100, 1000, 10000, 100000}) {
+			BigInteger[] a = new BigInteger[degree + 1];
+			BigInteger[] b = new BigInteger[degree + 1];
+			for (int i = 0; i <= degree; i++) {
+				a[i] = zModPrime.getRandomElement().getValue();
+				b[i] = zModPrime.getRandomElement().getValue();
+			}
+			long time = System.currentTimeMillis();
+			BigInteger[] c = arithmetic.multiply(a, b);
+			time = System.currentTimeMillis() - time;
+
+			// compare with the schoolbook method for small degrees
+			if (degree <= 100) {
+				PolynomialElement product = arithmetic.getElement(a).multiply(arithmetic.getElement(b));
+				Example.printLine("Degree", degree, time + " ms", product.isEquivalent(arithmetic.getElement(c)));
+			} else {
+				Example.printLine("Degree", degree, time + " ms");
+			}
+		}
+	}
+
+	public static void example4() {
+
+		// Evaluate a polynomial at a single point and at all of its roots
+		ZModPrime zModPrime = ZModPrime.getInstance(new BigInteger(P, 10));
+		ZModPolynomialArithmetic arithmetic = ZModPolynomialArithmetic.getInstance(zModPrime);
+
+		int size = 2000;
+		BigInteger[] roots = new BigInteger[size];
+		for (int i = 0; i < size; i++) {
+			roots[i] = zModPrime.getRandomElement().getValue();
+		}
+		BigInteger[] coefficients = arithmetic.multiplyLinearFactors(roots);
+		PolynomialElement polynomial = arithmetic.getElement(coefficients);
+		ZModElement point = zModPrime.getRandomElement();
+
+		long time = System.currentTimeMillis();
+		DualisticElement value1 = polynomial.evaluate(point);
+		long time1 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		ZModElement value2 = arithmetic.evaluate(polynomial, point);
+		long time2 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		BigInteger[] values = arithmetic.evaluate(coefficients, roots);
+		long time3 = System.currentTimeMillis() - time;
+		boolean zeros = true;
+		for (BigInteger value : values) {
+			zeros = zeros && value.signum() == 0;
+		}
+
+		Example.setLabelLength("Multipoint Evaluation");
+		Example.printLine("Degree", size);
+		Example.printLine("Evaluate", time1 + " ms");
+		Example.printLine("Horner", time2 + " ms");
+		Example.printLine("Equal", value1.isEquivalent(value2));
+		Example.printLine("Multipoint Evaluation", time3 + " ms");
+		Example.printLine("Roots", zeros);
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
@@ -0,0 +1,237 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.general;
+
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZMod;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZModElement;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductGroup;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Group;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Set;
+import ch.bfh.unicrypt.math.algebra.multiplicative.interfaces.MultiplicativeElement;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverts many values or elements at once by Montgomery's trick. The prefix products {@code x_1*...*x_i} are computed
+ * first, then the total product is inverted, and finally all individual inverses are obtained from the prefix
+ * products by going backwards. This requires a single inversion and {@code 3(n-1)} multiplications instead of
+ * {@code n} inversions. The trick is beneficial in groups where an inversion is considerably more expensive than a
+ * multiplication, e.g. {@code ZMod}, {@code ZStarMod}, or {@code GStarMod}, or for the normalization of many elliptic
+ * curve points from projective to affine coordinates (see {@code JacobianECZModPrime}).
+ * <p>
+ * @see ch.bfh.unicrypt.math.algebra.general.BatchInversionExample
+ */
+public class BatchInversion {
+
+	/**
+	 * Inverts the given values modulo {@code n}.
+	 * <p>
+	 * @param modulus The modulus {@code n}
+	 * @param values  The values, all of them invertible modulo {@code n}
+	 * @return The inverses of the values
+	 */
+	public static BigInteger[] invert(BigInteger modulus, BigInteger... values) {
+		if (modulus == null || values == null) {
+			throw new IllegalArgumentException();
+		}
+		int n = values.length;
+		BigInteger[] result = new BigInteger[n];
+		if (n == 0) {
+			return result;
+		}
+		// result[i] = x_0 * ... * x_i
+		result[0] = values[0].mod(modulus);
+		for (int i = 1; i < n; i++) {
+			result[i] = result[i - 1].multiply(values[i]).mod(modulus);
+		}
+		BigInteger inverse;
+		try {
+			inverse = result[n - 1].modInverse(modulus);
+		} catch (ArithmeticException exception) {
+			throw new IllegalArgumentException();
+		}
+		// inverse = (x_0 * ... * x_i)^-1
+		for (int i = n - 1; i > 0; i--) {
+			BigInteger value = values[i];
+			result[i] = inverse.multiply(result[i - 1]).mod(modulus);
+			inverse = inverse.multiply(value).mod(modulus);
+		}
+		result[0] = inverse;
+		return result;
+	}
+
+	/**
+	 * Computes the multiplicative inverses of the given elements of {@code ZMod}. This corresponds to calling
+	 * {@code oneOver()} for each element.
+	 * <p>
+	 * @param zMod     The ring of the elements
+	 * @param elements The elements, all of them invertible
+	 * @return The multiplicative inverses of the elements
+	 */
+	public static ZModElement[] oneOver(ZMod zMod, ZModElement... elements) {
+		if (zMod == null || elements == null) {
+			throw new IllegalArgumentException();
+		}
+		BigInteger[] values = new BigInteger[elements.length];
+		for (int i = 0; i < elements.length; i++) {
+			if (!zMod.contains(elements[i])) {
+				throw new IllegalArgumentException();
+			}
+			values[i] = elements[i].getValue();
+		}
+		BigInteger[] inverses = BatchInversion.invert(zMod.getModulus(), values);
+		ZModElement[] result = new ZModElement[elements.length];
+		for (int i = 0; i < elements.length; i++) {
+			result[i] = zMod.getElement(inverses[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Inverts the given elements of a group. Only the group operation and a single call of {@code invert} are used,
+	 * i.e. no element is created by value and no membership test is performed.
+	 * <p>
+	 * @param group    The group
+	 * @param elements The elements of the group
+	 * @return The inverses of the elements
+	 */
+	public static Element[] invert(Group group, Element... elements) {
+		if (group == null || elements == null) {
+			throw new IllegalArgumentException();
+		}
+		int n = elements.length;
+		Element[] result = new Element[n];
+		if (n == 0) {
+			return result;
+		}
+		for (Element element : elements) {
+			if (!group.contains(element)) {
+				throw new IllegalArgumentException();
+			}
+		}
+		result[0] = elements[0];
+		for (int i = 1; i < n; i++) {
+			result[i] = group.apply(result[i - 1], elements[i]);
+		}
+		Element inverse = group.invert(result[n - 1]);
+		for (int i = n - 1; i > 0; i--) {
+			result[i] = group.apply(inverse, result[i - 1]);
+			inverse = group.apply(inverse, elements[i]);
+		}
+		result[0] = inverse;
+		return result;
+	}
+
+	/**
+	 * Inverts a (possibly nested) tuple. The multiplicative leaf elements are grouped by their set and inverted by
+	 * {@link #invert(Group, Element...)}, all other leaf elements are inverted individually. The result corresponds to
+	 * {@code tuple.invert()}, i.e. the tuple and its sub-tuples must be elements of product groups, and the inverses are
+	 * elements of the same product groups.
+	 * <p>
+	 * @param tuple The tuple
+	 * @return The inverse of the tuple
+	 */
+	public static Tuple invert(Tuple tuple) {
+		if (tuple == null || !(tuple.getSet() instanceof ProductGroup)) {
+			throw new IllegalArgumentException();
+		}
+		List<Element> leaves = new ArrayList<>();
+		collectLeaves(tuple, leaves);
+
+		Map<Set, List<Integer>> indicesBySet = new LinkedHashMap<>();
+		Element[] inverses = new Element[leaves.size()];
+		for (int i = 0; i < leaves.size(); i++) {
+			Element leaf = leaves.get(i);
+			if (leaf instanceof MultiplicativeElement && leaf.getSet() instanceof Group) {
+				List<Integer> indices = indicesBySet.get(leaf.getSet());
+				if (indices == null) {
+					indices = new ArrayList<>();
+					indicesBySet.put(leaf.getSet(), indices);
+				}
+				indices.add(i);
+			} else {
+				inverses[i] = leaf.invert();
+			}
+		}
+		for (Map.Entry<Set, List<Integer>> entry : indicesBySet.entrySet()) {
+			List<Integer> indices = entry.getValue();
+			Element[] elements = new Element[indices.size()];
+			for (int j = 0; j < elements.length; j++) {
+				elements[j] = leaves.get(indices.get(j));
+			}
+			Element[] groupInverses = BatchInversion.invert((Group) entry.getKey(), elements);
+			for (int j = 0; j < elements.length; j++) {
+				inverses[indices.get(j)] = groupInverses[j];
+			}
+		}
+		return (Tuple) rebuild(tuple, inverses, new int[]{0});
+	}
+
+	private static void collectLeaves(Element element, List<Element> leaves) {
+		if (element instanceof Tuple) {
+			Tuple tuple = (Tuple) element;
+			for (int i = 0; i < tuple.getArity(); i++) {
+				collectLeaves(tuple.getAt(i), leaves);
+			}
+		} else {
+			leaves.add(element);
+		}
+	}
+
+	private static Element rebuild(Element template, Element[] leaves, int[] position) {
+		if (template instanceof Tuple) {
+			Tuple tuple = (Tuple) template;
+			Element[] elements = new Element[tuple.getArity()];
+			for (int i = 0; i < elements.length; i++) {
+				elements[i] = rebuild(tuple.getAt(i), leaves, position);
+			}
+			return ((ProductGroup) tuple.getSet()).getElement(elements);
+		}
+		return leaves[position[0]++];
+	}
+
+}
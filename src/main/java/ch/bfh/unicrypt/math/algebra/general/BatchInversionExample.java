@@ -0,0 +1,143 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.general;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.math.algebra.additive.JacobianECZModPrime;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModElement;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModPrime;
+import ch.bfh.unicrypt.math.algebra.additive.parameters.ECZModPrimeParameters;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZModElement;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZModPrime;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductGroup;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
+import java.math.BigInteger;
+
+/**
+ *
+ * @see BatchInversion
+ */
+public class BatchInversionExample {
+
+	// Safe prime (same as in ShuffleProofSystemExample)
+	final static String P_2048 = "32317006071311007300714876688669951960444102669715484032130345427524655138867890893197201411522913463688717960921898019494119559150490921095088152386448283120630877367300996091750197750389652106796057638384067568276792218642619756161838094338476170470581645852036305042887575891541065808607552399123930385521914333389668342420684974786564569494856176035326322058077805659331026192708460314150258592864177116725943603718461857357598351152301645904403697613233287231227125684710820209725157101726931323469678542580656697935045997268352998638215525166389437335543602135433229604645318478604952148193555853611059594288367";
+
+	public static void example1() {
+
+		// Multiplicative inverses in a prime field
+		ZModPrime zModPrime = ZModPrime.getInstance(23);
+		ZModElement[] elements = new ZModElement[5];
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = zModPrime.getElement(i + 2);
+		}
+		ZModElement[] inverses = BatchInversion.oneOver(zModPrime, elements);
+
+		Example.setLabelLength("Element");
+		for (int i = 0; i < elements.length; i++) {
+			Example.printLine("Element", elements[i], elements[i].oneOver(), inverses[i]);
+		}
+	}
+
+	public static void example2() {
+
+		// Inverse of a large tuple of ciphertexts
+		GStarModSafePrime G_q = GStarModSafePrime.getInstance(new BigInteger(P_2048, 10));
+		int size = 10000;
+		Tuple tuple = ProductGroup.getInstance(ProductGroup.getInstance(G_q, 2), size).getRandomElement();
+
+		long time = System.currentTimeMillis();
+		Tuple inverse1 = tuple.invert();
+		long time1 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		Tuple inverse2 = BatchInversion.invert(tuple);
+		long time2 = System.currentTimeMillis() - time;
+
+		Example.setLabelLength("Batch Inversion");
+		Example.printLine("Elements", 2 * size);
+		Example.printLine("Tuple Inversion", time1 + " ms");
+		Example.printLine("Batch Inversion", time2 + " ms");
+		Example.printLine("Equal", inverse1.isEquivalent(inverse2));
+	}
+
+	public static void example3() {
+
+		// Normalization of many points in Jacobian coordinates
+		ECZModPrime ec = ECZModPrime.getInstance(ECZModPrimeParameters.SECP256r1);
+		JacobianECZModPrime jacobian = JacobianECZModPrime.getInstance(ec);
+		int size = 1000;
+		JacobianECZModPrime.Point[] points = new JacobianECZModPrime.Point[size];
+		JacobianECZModPrime.Point point = jacobian.fromAffine(ec.getDefaultGenerator());
+		for (int i = 0; i < size; i++) {
+			point = jacobian.twice(point);
+			points[i] = point;
+		}
+
+		long time = System.currentTimeMillis();
+		ECZModElement[] elements1 = new ECZModElement[size];
+		for (int i = 0; i < size; i++) {
+			elements1[i] = jacobian.toAffine(points[i]);
+		}
+		long time1 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		ECZModElement[] elements2 = jacobian.toAffine(points);
+		long time2 = System.currentTimeMillis() - time;
+
+		boolean equal = true;
+		for (int i = 0; i < size; i++) {
+			equal = equal && elements1[i].isEquivalent(elements2[i]);
+		}
+
+		Example.setLabelLength("Batch Inversion");
+		Example.printLine("Points", size);
+		Example.printLine("Individual", time1 + " ms");
+		Example.printLine("Batch Inversion", time2 + " ms");
+		Example.printLine("Equal", equal);
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
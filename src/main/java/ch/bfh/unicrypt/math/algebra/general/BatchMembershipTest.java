@@ -0,0 +1,330 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.general;
+
+import ch.bfh.unicrypt.helper.ParallelLoop;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductSet;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Set;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarMod;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModPrime;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests whether many values are members of a subgroup {@link GStarMod} of {@code Z*_p}, for example the values of a
+ * large tuple of ElGamal ciphertexts received from outside. All tests run in parallel (see {@link ParallelLoop}).
+ * <p>
+ * If {@code p} is prime and the cofactor {@code (p-1)/q} is {@code 2} (e.g. for {@code GStarModSafePrime}), the
+ * group consists of the quadratic residues modulo {@code p}. Membership is then decided exactly by the Legendre
+ * symbol, which costs about as much as a gcd instead of a full modular exponentiation.
+ * <p>
+ * Otherwise, a randomized small-exponent batch test is applied: with random exponents {@code e_i} of
+ * {@link #SECURITY_LEVEL} bits, all values are members with high probability if
+ * {@code (v_1^e_1 * ... * v_n^e_n)^q = 1}. A single round fails to detect a non-member with probability at most
+ * {@code 1/r}, where {@code r} is the smallest prime factor of the cofactor (after removing the factor 2 by the
+ * Legendre symbol if {@code p = 3 mod 4}). The number of rounds is chosen accordingly. If this is not clearly cheaper
+ * than testing each value individually, the values are tested individually by {@code v^q = 1}.
+ * <p>
+ * @see ch.bfh.unicrypt.math.algebra.general.BatchMembershipTestExample
+ */
+public class BatchMembershipTest {
+
+	public static final int SECURITY_LEVEL = 64;
+
+	private static final int EXPONENT_BYTES = SECURITY_LEVEL / 8;
+	private static final int TRIAL_DIVISION_BOUND = 1 << 16;
+	private static final int BATCH_CHUNK_SIZE = 256;
+	private static final BigInteger TWO = BigInteger.valueOf(2);
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+	private static final Map<GStarMod, Integer> ROUNDS = new ConcurrentHashMap<>();
+
+	/**
+	 * Tests whether all given values are members of the given group.
+	 * <p>
+	 * @param group  The group
+	 * @param values The values
+	 * @return {@code true} if all values are members of the group (with high probability for the batch test)
+	 */
+	public static boolean isMember(GStarMod group, BigInteger... values) {
+		if (group == null || values == null) {
+			throw new IllegalArgumentException();
+		}
+		final BigInteger p = group.getModulus();
+		final BigInteger q = group.getOrder();
+		final boolean legendre = hasLegendreTest(group);
+		final BigInteger[] vs = values;
+		final AtomicBoolean valid = new AtomicBoolean(true);
+
+		// range and Legendre symbol
+		ParallelLoop.run(vs.length, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				for (int i = from; i < to && valid.get(); i++) {
+					BigInteger v = vs[i];
+					if (v == null || v.signum() <= 0 || v.compareTo(p) >= 0 || (legendre && jacobiSymbol(v, p) != 1)) {
+						valid.set(false);
+					}
+				}
+			}
+
+		});
+		if (!valid.get() || (legendre && group.getCoFactor().equals(TWO))) {
+			return valid.get();
+		}
+
+		int rounds = getRounds(group);
+		if (2 * rounds * SECURITY_LEVEL >= q.bitLength()) {
+			// individual test
+			ParallelLoop.run(vs.length, new ParallelLoop.Body() {
+
+				@Override
+				public void run(int from, int to) {
+					for (int i = from; i < to && valid.get(); i++) {
+						if (!vs[i].modPow(q, p).equals(BigInteger.ONE)) {
+							valid.set(false);
+						}
+					}
+				}
+
+			});
+			return valid.get();
+		}
+
+		// small-exponent batch test
+		final int chunks = (vs.length + BATCH_CHUNK_SIZE - 1) / BATCH_CHUNK_SIZE;
+		final BigInteger[] products = new BigInteger[chunks];
+		for (int round = 0; round < rounds; round++) {
+			ParallelLoop.run(ParallelLoop.getDefaultPool(), chunks, 1, new ParallelLoop.Body() {
+
+				@Override
+				public void run(int from, int to) {
+					for (int chunk = from; chunk < to; chunk++) {
+						int start = chunk * BATCH_CHUNK_SIZE;
+						int end = Math.min(vs.length, start + BATCH_CHUNK_SIZE);
+						byte[] randomBytes = new byte[(end - start) * EXPONENT_BYTES];
+						RANDOM.nextBytes(randomBytes);
+						BigInteger product = BigInteger.ONE;
+						for (int i = start; i < end; i++) {
+							byte[] exponentBytes = new byte[EXPONENT_BYTES];
+							System.arraycopy(randomBytes, (i - start) * EXPONENT_BYTES, exponentBytes, 0, EXPONENT_BYTES);
+							product = product.multiply(vs[i].modPow(new BigInteger(1, exponentBytes), p)).mod(p);
+						}
+						products[chunk] = product;
+					}
+				}
+
+			});
+			BigInteger product = BigInteger.ONE;
+			for (BigInteger value : products) {
+				product = product.multiply(value).mod(p);
+			}
+			if (!product.modPow(q, p).equals(BigInteger.ONE)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tests whether the given values are the values of an element of the given product set, i.e. whether the i-th value
+	 * belongs to the i-th leaf of the product set. All leaves of the product set must be of type {@link GStarMod}. The
+	 * values of each leaf group are tested together by {@link #isMember(GStarMod, BigInteger...)}.
+	 * <p>
+	 * @param productSet The product set
+	 * @param values     The values in the order of the leaves of the product set
+	 * @return {@code true} if all values are members of the corresponding leaf group
+	 */
+	public static boolean isMember(ProductSet productSet, BigInteger... values) {
+		if (productSet == null || values == null) {
+			throw new IllegalArgumentException();
+		}
+		List<GStarMod> leaves = new ArrayList<>();
+		getLeaves(productSet, leaves);
+		if (leaves.size() != values.length) {
+			return false;
+		}
+		Map<GStarMod, List<BigInteger>> valuesByGroup = new LinkedHashMap<>();
+		for (int i = 0; i < values.length; i++) {
+			List<BigInteger> groupValues = valuesByGroup.get(leaves.get(i));
+			if (groupValues == null) {
+				groupValues = new ArrayList<>();
+				valuesByGroup.put(leaves.get(i), groupValues);
+			}
+			groupValues.add(values[i]);
+		}
+		for (Map.Entry<GStarMod, List<BigInteger>> entry : valuesByGroup.entrySet()) {
+			List<BigInteger> groupValues = entry.getValue();
+			if (!isMember(entry.getKey(), groupValues.toArray(new BigInteger[groupValues.size()]))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tests whether the leaf values of the given tuple belong to the leaves of the given product set. This is useful for
+	 * tuples whose elements stem from a larger set, e.g. from {@code ZStarMod} instead of {@code GStarMod}.
+	 * <p>
+	 * @param productSet The product set
+	 * @param tuple      The tuple
+	 * @return {@code true} if all leaf values of the tuple are members of the corresponding leaf group
+	 */
+	public static boolean isMember(ProductSet productSet, Tuple tuple) {
+		if (productSet == null || tuple == null) {
+			throw new IllegalArgumentException();
+		}
+		List<BigInteger> values = new ArrayList<>();
+		if (!getLeafValues(tuple, values)) {
+			return false;
+		}
+		return isMember(productSet, values.toArray(new BigInteger[values.size()]));
+	}
+
+	/**
+	 * Computes the Jacobi symbol {@code (a/n)} for an odd positive {@code n}. For a prime {@code n}, this is the Legendre
+	 * symbol, i.e. {@code 1} for quadratic residues, {@code -1} for non-residues, and {@code 0} for multiples of
+	 * {@code n}.
+	 * <p>
+	 * @param a The value
+	 * @param n The odd positive modulus
+	 * @return The Jacobi symbol
+	 */
+	public static int jacobiSymbol(BigInteger a, BigInteger n) {
+		if (n.signum() <= 0 || !n.testBit(0)) {
+			throw new IllegalArgumentException();
+		}
+		a = a.mod(n);
+		int result = 1;
+		while (a.signum() != 0) {
+			int shift = a.getLowestSetBit();
+			a = a.shiftRight(shift);
+			int nMod8 = n.intValue() & 7;
+			if ((shift & 1) == 1 && (nMod8 == 3 || nMod8 == 5)) {
+				result = -result;
+			}
+			if ((a.intValue() & 3) == 3 && (nMod8 & 3) == 3) {
+				result = -result;
+			}
+			BigInteger temp = a;
+			a = n.mod(temp);
+			n = temp;
+		}
+		return n.equals(BigInteger.ONE) ? result : 0;
+	}
+
+	// the Legendre symbol is 1 for all members if p is prime and q divides (p-1)/2
+	private static boolean hasLegendreTest(GStarMod group) {
+		return group instanceof GStarModPrime && !group.getCoFactor().testBit(0);
+	}
+
+	private static int getRounds(GStarMod group) {
+		Integer rounds = ROUNDS.get(group);
+		if (rounds == null) {
+			BigInteger cofactor = group.getCoFactor();
+			if (hasLegendreTest(group) && (group.getModulus().intValue() & 3) == 3) {
+				// p = 3 mod 4 implies that 2 divides the cofactor only once, i.e. the Legendre symbol removes the factor 2
+				cofactor = cofactor.shiftRight(1);
+			}
+			int bits = smallestPrimeFactorBits(cofactor);
+			rounds = (SECURITY_LEVEL + bits - 1) / bits;
+			ROUNDS.put(group, rounds);
+		}
+		return rounds;
+	}
+
+	// returns floor(log2(r)) for the smallest prime factor r of the cofactor (bounded by the trial division bound)
+	private static int smallestPrimeFactorBits(BigInteger cofactor) {
+		if (cofactor.equals(BigInteger.ONE)) {
+			return SECURITY_LEVEL;
+		}
+		if (!cofactor.testBit(0)) {
+			return 1;
+		}
+		for (int r = 3; r < TRIAL_DIVISION_BOUND; r += 2) {
+			if (cofactor.mod(BigInteger.valueOf(r)).signum() == 0) {
+				return 31 - Integer.numberOfLeadingZeros(r);
+			}
+		}
+		return 31 - Integer.numberOfLeadingZeros(TRIAL_DIVISION_BOUND);
+	}
+
+	private static void getLeaves(Set set, List<GStarMod> leaves) {
+		if (set instanceof ProductSet) {
+			ProductSet productSet = (ProductSet) set;
+			for (int i = 0; i < productSet.getArity(); i++) {
+				getLeaves(productSet.getAt(i), leaves);
+			}
+		} else if (set instanceof GStarMod) {
+			leaves.add((GStarMod) set);
+		} else {
+			throw new IllegalArgumentException();
+		}
+	}
+
+	private static boolean getLeafValues(Element element, List<BigInteger> values) {
+		if (element instanceof Tuple) {
+			Tuple tuple = (Tuple) element;
+			for (int i = 0; i < tuple.getArity(); i++) {
+				if (!getLeafValues(tuple.getAt(i), values)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (element.getValue() instanceof BigInteger) {
+			values.add((BigInteger) element.getValue());
+			return true;
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.general;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductGroup;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
+import java.math.BigInteger;
+
+/**
+ *
+ * @see BatchMembershipTest
+ */
+public class BatchMembershipTestExample {
+
+	// Safe prime (same as in ShuffleProofSystemExample)
+	final static String P_2048 = "32317006071311007300714876688669951960444102669715484032130345427524655138867890893197201411522913463688717960921898019494119559150490921095088152386448283120630877367300996091750197750389652106796057638384067568276792218642619756161838094338476170470581645852036305042887575891541065808607552399123930385521914333389668342420684974786564569494856176035326322058077805659331026192708460314150258592864177116725943603718461857357598351152301645904403697613233287231227125684710820209725157101726931323469678542580656697935045997268352998638215525166389437335543602135433229604645318478604952148193555853611059594288367";
+
+	public static void example1() {
+
+		// Membership of single values
+		GStarModSafePrime G_q = GStarModSafePrime.getInstance(23);
+		Example.setLabelLength("Value");
+		for (int i = 1; i < 23; i++) {
+			Example.printLine("Value", i, BatchMembershipTest.isMember(G_q, BigInteger.valueOf(i)));
+		}
+	}
+
+	public static void example2() {
+
+		// Membership of the values of a large tuple of ciphertexts
+		GStarModSafePrime G_q = GStarModSafePrime.getInstance(new BigInteger(P_2048, 10));
+		BigInteger p = G_q.getModulus();
+		BigInteger q = G_q.getOrder();
+		int size = 10000;
+		ProductGroup uVSpace = ProductGroup.getInstance(ProductGroup.getInstance(G_q, 2), size);
+		Tuple uV = uVSpace.getRandomElement();
+		BigInteger[] values = new BigInteger[2 * size];
+		for (int i = 0; i < size; i++) {
+			Tuple ciphertext = (Tuple) uV.getAt(i);
+			values[2 * i] = (BigInteger) ciphertext.getAt(0).getValue();
+			values[2 * i + 1] = (BigInteger) ciphertext.getAt(1).getValue();
+		}
+
+		long time = System.currentTimeMillis();
+		boolean result1 = true;
+		for (BigInteger value : values) {
+			result1 = result1 && value.modPow(q, p).equals(BigInteger.ONE);
+		}
+		long time1 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		boolean result2 = BatchMembershipTest.isMember(uVSpace, values);
+		long time2 = System.currentTimeMillis() - time;
+
+		// Replace one value by a non-member
+		values[size] = p.subtract(values[size]);
+		boolean result3 = BatchMembershipTest.isMember(uVSpace, values);
+
+		Example.setLabelLength("Non-Member");
+		Example.printLine("Values", values.length);
+		Example.printLine("Individual", time1 + " ms", result1);
+		Example.printLine("Batch", time2 + " ms", result2);
+		Example.printLine("Non-Member", result3);
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
@@ -0,0 +1,273 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.general;
+
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModElement;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModPrime;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZMod;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZModElement;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZModPrime;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductSet;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Set;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarMod;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModElement;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializes the elements of a given set into a compact binary format. The layout is entirely determined by the set:
+ * <ul>
+ * <li>An element of {@code ZMod} or {@code GStarMod} is written as its value in big-endian order, padded with leading
+ * zeros to the byte length of the largest value of the set.</li>
+ * <li>A point of {@code ECZModPrime} is written as its two affine coordinates, padded to the byte length of the
+ * finite field. The point at infinity is written as {@code (0,0)}, which is not on the curve for {@code b!=0}.</li>
+ * <li>A tuple of a {@code ProductSet} is written as the concatenation of its elements.</li>
+ * </ul>
+ * Every element of a set is therefore written with the same number of bytes, no type information or length is stored,
+ * and the elements can be read back from a {@link ByteBuffer} at fixed offsets without creating intermediate
+ * {@code ByteArray} or {@code Tree} objects. The reader needs to know the set, and each value read is checked for
+ * membership when the element is created. Other sets are not supported.
+ * <p>
+ * @see ch.bfh.unicrypt.math.algebra.general.BinarySerializerExample
+ */
+public class BinarySerializer {
+
+	private static final Map<Set, BinarySerializer> INSTANCES = new ConcurrentHashMap<>();
+
+	private final Set set;
+	private final BinarySerializer[] serializers;
+	private final int valueLength;
+	private final int length;
+
+	private BinarySerializer(Set set, BinarySerializer[] serializers, int valueLength, int length) {
+		this.set = set;
+		this.serializers = serializers;
+		this.valueLength = valueLength;
+		this.length = length;
+	}
+
+	/**
+	 * Returns the serializer for the given set. Serializers are immutable and shared among threads.
+	 * <p>
+	 * @param set The set
+	 * @return The serializer
+	 */
+	public static BinarySerializer getInstance(Set set) {
+		if (set == null) {
+			throw new IllegalArgumentException();
+		}
+		BinarySerializer serializer = BinarySerializer.INSTANCES.get(set);
+		if (serializer == null) {
+			serializer = BinarySerializer.createInstance(set);
+			BinarySerializer.INSTANCES.put(set, serializer);
+		}
+		return serializer;
+	}
+
+	private static BinarySerializer createInstance(Set set) {
+		if (set instanceof ProductSet) {
+			ProductSet productSet = (ProductSet) set;
+			BinarySerializer[] serializers = new BinarySerializer[productSet.getArity()];
+			int length = 0;
+			for (int i = 0; i < serializers.length; i++) {
+				serializers[i] = BinarySerializer.getInstance(productSet.getAt(i));
+				length += serializers[i].getLength();
+			}
+			return new BinarySerializer(set, serializers, 0, length);
+		}
+		if (set instanceof ZMod) {
+			int valueLength = BinarySerializer.getByteLength(((ZMod) set).getModulus().subtract(BigInteger.ONE));
+			return new BinarySerializer(set, null, valueLength, valueLength);
+		}
+		if (set instanceof GStarMod) {
+			int valueLength = BinarySerializer.getByteLength(((GStarMod) set).getModulus().subtract(BigInteger.ONE));
+			return new BinarySerializer(set, null, valueLength, valueLength);
+		}
+		if (set instanceof ECZModPrime) {
+			ECZModPrime curve = (ECZModPrime) set;
+			if (curve.getB().getValue().signum() == 0) {
+				throw new IllegalArgumentException();
+			}
+			int valueLength = BinarySerializer.getByteLength(curve.getFiniteField().getModulus().subtract(BigInteger.ONE));
+			return new BinarySerializer(set, null, valueLength, 2 * valueLength);
+		}
+		throw new IllegalArgumentException();
+	}
+
+	public Set getSet() {
+		return this.set;
+	}
+
+	/**
+	 * Returns the number of bytes of each serialized element.
+	 * <p>
+	 * @return The number of bytes
+	 */
+	public int getLength() {
+		return this.length;
+	}
+
+	public byte[] serialize(Element element) {
+		ByteBuffer buffer = ByteBuffer.allocate(this.length);
+		this.serialize(element, buffer);
+		return buffer.array();
+	}
+
+	/**
+	 * Writes the given element at the current position of the buffer and advances the position by
+	 * {@link #getLength()} bytes.
+	 * <p>
+	 * @param element The element of the set
+	 * @param buffer  The buffer
+	 */
+	public void serialize(Element element, ByteBuffer buffer) {
+		if (element == null || buffer == null || !this.set.contains(element)) {
+			throw new IllegalArgumentException();
+		}
+		if (buffer.remaining() < this.length) {
+			throw new IllegalArgumentException();
+		}
+		this.write(element, buffer);
+	}
+
+	public Element deserialize(byte[] bytes) {
+		if (bytes == null || bytes.length != this.length) {
+			throw new IllegalArgumentException();
+		}
+		return this.deserialize(ByteBuffer.wrap(bytes));
+	}
+
+	/**
+	 * Reads an element from the current position of the buffer and advances the position by {@link #getLength()}
+	 * bytes.
+	 * <p>
+	 * @param buffer The buffer
+	 * @return The element of the set
+	 */
+	public Element deserialize(ByteBuffer buffer) {
+		if (buffer == null || buffer.remaining() < this.length) {
+			throw new IllegalArgumentException();
+		}
+		try {
+			return this.read(buffer);
+		} catch (BufferUnderflowException exception) {
+			throw new IllegalArgumentException();
+		}
+	}
+
+	private void write(Element element, ByteBuffer buffer) {
+		if (this.serializers != null) {
+			Tuple tuple = (Tuple) element;
+			for (int i = 0; i < this.serializers.length; i++) {
+				this.serializers[i].write(tuple.getAt(i), buffer);
+			}
+		} else if (this.set instanceof ECZModPrime) {
+			ECZModElement point = (ECZModElement) element;
+			if (point.isZero()) {
+				BinarySerializer.putValue(buffer, BigInteger.ZERO, this.valueLength);
+				BinarySerializer.putValue(buffer, BigInteger.ZERO, this.valueLength);
+			} else {
+				BinarySerializer.putValue(buffer, point.getX().getValue(), this.valueLength);
+				BinarySerializer.putValue(buffer, point.getY().getValue(), this.valueLength);
+			}
+		} else if (this.set instanceof ZMod) {
+			BinarySerializer.putValue(buffer, ((ZModElement) element).getValue(), this.valueLength);
+		} else {
+			BinarySerializer.putValue(buffer, ((GStarModElement) element).getValue(), this.valueLength);
+		}
+	}
+
+	private Element read(ByteBuffer buffer) {
+		if (this.serializers != null) {
+			Element[] elements = new Element[this.serializers.length];
+			for (int i = 0; i < elements.length; i++) {
+				elements[i] = this.serializers[i].read(buffer);
+			}
+			return ((ProductSet) this.set).getElement(elements);
+		}
+		if (this.set instanceof ECZModPrime) {
+			ECZModPrime curve = (ECZModPrime) this.set;
+			ZModPrime field = curve.getFiniteField();
+			BigInteger x = BinarySerializer.getValue(buffer, this.valueLength);
+			BigInteger y = BinarySerializer.getValue(buffer, this.valueLength);
+			if (x.signum() == 0 && y.signum() == 0) {
+				return curve.getZeroElement();
+			}
+			if (x.compareTo(field.getModulus()) >= 0 || y.compareTo(field.getModulus()) >= 0) {
+				throw new IllegalArgumentException();
+			}
+			return curve.getElement(field.getElement(x), field.getElement(y));
+		}
+		BigInteger value = BinarySerializer.getValue(buffer, this.valueLength);
+		if (this.set instanceof ZMod) {
+			return ((ZMod) this.set).getElement(value);
+		}
+		return ((GStarMod) this.set).getElement(value);
+	}
+
+	private static void putValue(ByteBuffer buffer, BigInteger value, int valueLength) {
+		byte[] bytes = value.toByteArray();
+		// skip the sign byte
+		int offset = (bytes.length > 1 && bytes[0] == 0) ? 1 : 0;
+		int length = bytes.length - offset;
+		for (int i = length; i < valueLength; i++) {
+			buffer.put((byte) 0);
+		}
+		buffer.put(bytes, offset, length);
+	}
+
+	private static BigInteger getValue(ByteBuffer buffer, int valueLength) {
+		byte[] bytes = new byte[valueLength];
+		buffer.get(bytes);
+		return new BigInteger(1, bytes);
+	}
+
+	private static int getByteLength(BigInteger value) {
+		return Math.max(1, (value.bitLength() + 7) / 8);
+	}
+
+}
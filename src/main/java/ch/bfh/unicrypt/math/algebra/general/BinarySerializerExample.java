@@ -0,0 +1,135 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.general;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.crypto.schemes.encryption.ElGamalBatchEncryption;
+import ch.bfh.unicrypt.crypto.schemes.encryption.classes.ElGamalEncryptionScheme;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModPrime;
+import ch.bfh.unicrypt.math.algebra.additive.parameters.ECZModPrimeParameters;
+import ch.bfh.unicrypt.math.algebra.general.classes.Pair;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductGroup;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ *
+ * @see BinarySerializer
+ */
+public class BinarySerializerExample {
+
+	// Safe prime (same as in ShuffleProofSystemExample)
+	final static String P_2048 = "32317006071311007300714876688669951960444102669715484032130345427524655138867890893197201411522913463688717960921898019494119559150490921095088152386448283120630877367300996091750197750389652106796057638384067568276792218642619756161838094338476170470581645852036305042887575891541065808607552399123930385521914333389668342420684974786564569494856176035326322058077805659331026192708460314150258592864177116725943603718461857357598351152301645904403697613233287231227125684710820209725157101726931323469678542580656697935045997268352998638215525166389437335543602135433229604645318478604952148193555853611059594288367";
+
+	public static void example1() throws IOException {
+
+		// Serialize ElGamal encryptions one after another into the same buffer
+		GStarModSafePrime G_q = GStarModSafePrime.getInstance(new BigInteger(P_2048, 10));
+		ElGamalEncryptionScheme elGamal = ElGamalEncryptionScheme.getInstance(G_q.getDefaultGenerator());
+		Pair keyPair = elGamal.getKeyPairGenerator().generateKeyPair();
+		Element publicKey = keyPair.getSecond();
+
+		int size = 1000;
+		Tuple messages = ProductGroup.getInstance(G_q, size).getRandomElement();
+		Tuple encryptions = ElGamalBatchEncryption.encrypt(elGamal, publicKey, messages);
+
+		BinarySerializer serializer = BinarySerializer.getInstance(elGamal.getEncryptionSpace());
+		ByteBuffer buffer = ByteBuffer.allocate(size * serializer.getLength());
+
+		long time = System.currentTimeMillis();
+		for (Element encryption : encryptions) {
+			serializer.serialize(encryption, buffer);
+		}
+		long time1 = System.currentTimeMillis() - time;
+
+		buffer.flip();
+		Element[] results = new Element[size];
+		time = System.currentTimeMillis();
+		for (int i = 0; i < size; i++) {
+			results[i] = serializer.deserialize(buffer);
+		}
+		long time2 = System.currentTimeMillis() - time;
+
+		// Java serialization of the same encryptions
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream output = new ObjectOutputStream(bytes);
+		time = System.currentTimeMillis();
+		output.writeObject(encryptions);
+		output.close();
+		long time3 = System.currentTimeMillis() - time;
+
+		Example.setLabelLength("Java Serialization");
+		Example.printLine("Record Length", serializer.getLength() + " bytes");
+		Example.printLine("Binary Serializer", buffer.limit() + " bytes", time1 + " ms", time2 + " ms");
+		Example.printLine("Java Serialization", bytes.size() + " bytes", time3 + " ms");
+		Example.printLine("Equal", Tuple.getInstance(results).isEquivalent(encryptions));
+	}
+
+	public static void example2() {
+
+		// Points of an elliptic curve (including the point at infinity)
+		ECZModPrime ec = ECZModPrime.getInstance(ECZModPrimeParameters.SECP256r1);
+		ProductGroup group = ProductGroup.getInstance(ec, 3);
+		Tuple points = Tuple.getInstance(ec.getRandomElement(), ec.getZeroElement(), ec.getDefaultGenerator());
+
+		BinarySerializer serializer = BinarySerializer.getInstance(group);
+		byte[] bytes = serializer.serialize(points);
+		Element result = serializer.deserialize(bytes);
+
+		Example.setLabelLength("Record Length");
+		Example.printLine("Record Length", bytes.length + " bytes");
+		Example.printLine("Points", points);
+		Example.printLine("Result", result);
+		Example.printLine("Equal", result.isEquivalent(points));
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
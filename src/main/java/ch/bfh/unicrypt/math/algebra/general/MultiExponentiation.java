@@ -0,0 +1,281 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.general;
+
+import ch.bfh.unicrypt.helper.ParallelLoop;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Group;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Simultaneous multi-exponentiation {@code b_1^e_1 * ... * b_n^e_n} for arbitrary groups. Only the generic group
+ * operations {@code apply} and {@code invert} are used, i.e. the same code runs for {@code GStarModSafePrime},
+ * {@code GStarModPrime}, {@code ECZModPrime}, {@code ECPolynomialField}, and product groups. Two algorithms are
+ * available:
+ * <ul>
+ * <li>Straus' interleaving method for small {@code n}: all bases share the same squarings, and each base contributes
+ * one multiplication per window from a small precomputed table.</li>
+ * <li>Pippenger's bucket method for large {@code n}: per window, the bases are sorted into buckets according to their
+ * digits, and the buckets are combined with about {@code 2^c} multiplications, independently of {@code n}.</li>
+ * </ul>
+ * The method {@link #multiSelfApply(Group, Element[], BigInteger[])} selects the algorithm automatically.
+ * <p>
+ * @see ch.bfh.unicrypt.math.algebra.general.MultiExponentiationExample
+ */
+public class MultiExponentiation {
+
+	public static final int STRAUS_THRESHOLD = 64;
+
+	public static Element multiSelfApply(Group group, Element[] bases, BigInteger[] exponents) {
+		checkArguments(group, bases, exponents);
+		if (bases.length <= STRAUS_THRESHOLD) {
+			return straus(group, bases, exponents);
+		}
+		return pippenger(group, bases, exponents);
+	}
+
+	/**
+	 * Computes the product of powers on the threads of the given pool. The bases are split into one range per thread,
+	 * the product of each range is computed by {@link #multiSelfApply(Group, Element[], BigInteger[])}, and the partial
+	 * products are multiplied. The result is the same as for the sequential computation.
+	 * <p>
+	 * @param pool      The pool
+	 * @param group     The group
+	 * @param bases     The bases
+	 * @param exponents The exponents
+	 * @return The product of powers
+	 */
+	public static Element multiSelfApply(ForkJoinPool pool, final Group group, final Element[] bases, final BigInteger[] exponents) {
+		checkArguments(group, bases, exponents);
+		if (pool == null) {
+			throw new IllegalArgumentException();
+		}
+		final int n = bases.length;
+		final int parts = Math.max(1, Math.min(pool.getParallelism(), n / STRAUS_THRESHOLD));
+		if (parts == 1) {
+			return multiSelfApply(group, bases, exponents);
+		}
+		final Element[] products = new Element[parts];
+		ParallelLoop.run(pool, parts, 1, new ParallelLoop.Body() {
+
+			@Override
+			public void run(int from, int to) {
+				for (int k = from; k < to; k++) {
+					int start = (int) ((long) k * n / parts);
+					int end = (int) ((long) (k + 1) * n / parts);
+					products[k] = multiSelfApply(group, Arrays.copyOfRange(bases, start, end), Arrays.copyOfRange(exponents, start, end));
+				}
+			}
+
+		});
+		Element result = products[0];
+		for (int k = 1; k < parts; k++) {
+			result = group.apply(result, products[k]);
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the product of powers naively, i.e. by one exponentiation per base. This is mainly useful as a
+	 * reference.
+	 * <p>
+	 * @param group     The group
+	 * @param bases     The bases
+	 * @param exponents The exponents
+	 * @return The product of powers
+	 */
+	public static Element naive(Group group, Element[] bases, BigInteger[] exponents) {
+		checkArguments(group, bases, exponents);
+		Element result = group.getIdentityElement();
+		for (int i = 0; i < bases.length; i++) {
+			result = group.apply(result, group.selfApply(bases[i], exponents[i]));
+		}
+		return result;
+	}
+
+	public static Element straus(Group group, Element[] bases, BigInteger[] exponents) {
+		checkArguments(group, bases, exponents);
+		int n = bases.length;
+		Element[] bs = new Element[n];
+		BigInteger[] es = new BigInteger[n];
+		int bitLength = normalize(group, bases, exponents, bs, es);
+		if (bitLength == 0) {
+			return group.getIdentityElement();
+		}
+		int w = getStrausWindowSize(bitLength);
+		int digits = 1 << w;
+
+		// precompute b_i^j for 0 < j < 2^w
+		Element[][] table = new Element[n][digits];
+		for (int i = 0; i < n; i++) {
+			table[i][1] = bs[i];
+			for (int j = 2; j < digits; j++) {
+				table[i][j] = group.apply(table[i][j - 1], bs[i]);
+			}
+		}
+
+		Element result = null;
+		int windows = (bitLength + w - 1) / w;
+		for (int k = windows - 1; k >= 0; k--) {
+			if (result != null) {
+				for (int s = 0; s < w; s++) {
+					result = group.apply(result, result);
+				}
+			}
+			for (int i = 0; i < n; i++) {
+				int digit = getDigit(es[i], k * w, w);
+				if (digit != 0) {
+					result = (result == null) ? table[i][digit] : group.apply(result, table[i][digit]);
+				}
+			}
+		}
+		return (result == null) ? group.getIdentityElement() : result;
+	}
+
+	public static Element pippenger(Group group, Element[] bases, BigInteger[] exponents) {
+		checkArguments(group, bases, exponents);
+		int n = bases.length;
+		Element[] bs = new Element[n];
+		BigInteger[] es = new BigInteger[n];
+		int bitLength = normalize(group, bases, exponents, bs, es);
+		if (bitLength == 0) {
+			return group.getIdentityElement();
+		}
+		int c = getPippengerWindowSize(n);
+		int digits = 1 << c;
+
+		Element result = null;
+		Element[] buckets = new Element[digits];
+		int windows = (bitLength + c - 1) / c;
+		for (int k = windows - 1; k >= 0; k--) {
+			if (result != null) {
+				for (int s = 0; s < c; s++) {
+					result = group.apply(result, result);
+				}
+			}
+			// sort bases into buckets
+			for (int j = 0; j < digits; j++) {
+				buckets[j] = null;
+			}
+			for (int i = 0; i < n; i++) {
+				int digit = getDigit(es[i], k * c, c);
+				if (digit != 0) {
+					buckets[digit] = (buckets[digit] == null) ? bs[i] : group.apply(buckets[digit], bs[i]);
+				}
+			}
+			// compute prod_j bucket_j^j by running products
+			Element running = null;
+			Element sum = null;
+			for (int j = digits - 1; j > 0; j--) {
+				if (buckets[j] != null) {
+					running = (running == null) ? buckets[j] : group.apply(running, buckets[j]);
+				}
+				if (running != null) {
+					sum = (sum == null) ? running : group.apply(sum, running);
+				}
+			}
+			if (sum != null) {
+				result = (result == null) ? sum : group.apply(result, sum);
+			}
+		}
+		return (result == null) ? group.getIdentityElement() : result;
+	}
+
+	private static void checkArguments(Group group, Element[] bases, BigInteger[] exponents) {
+		if (group == null || bases == null || exponents == null || bases.length != exponents.length) {
+			throw new IllegalArgumentException();
+		}
+		for (int i = 0; i < bases.length; i++) {
+			if (bases[i] == null || exponents[i] == null || !group.contains(bases[i])) {
+				throw new IllegalArgumentException();
+			}
+		}
+	}
+
+	// replaces negative exponents by positive ones (using the inverse base) and returns the maximal bit length
+	private static int normalize(Group group, Element[] bases, BigInteger[] exponents, Element[] bs, BigInteger[] es) {
+		int bitLength = 0;
+		for (int i = 0; i < bases.length; i++) {
+			if (exponents[i].signum() < 0) {
+				bs[i] = group.invert(bases[i]);
+				es[i] = exponents[i].negate();
+			} else {
+				bs[i] = bases[i];
+				es[i] = exponents[i];
+			}
+			bitLength = Math.max(bitLength, es[i].bitLength());
+		}
+		return bitLength;
+	}
+
+	private static int getDigit(BigInteger exponent, int offset, int width) {
+		int digit = 0;
+		for (int s = 0; s < width; s++) {
+			if (exponent.testBit(offset + s)) {
+				digit |= 1 << s;
+			}
+		}
+		return digit;
+	}
+
+	private static int getStrausWindowSize(int bitLength) {
+		if (bitLength <= 16) {
+			return 1;
+		}
+		if (bitLength <= 64) {
+			return 2;
+		}
+		if (bitLength <= 256) {
+			return 3;
+		}
+		return 4;
+	}
+
+	private static int getPippengerWindowSize(int n) {
+		// c = log2(n) - 2 minimizes the number of group operations in practice
+		int log = 31 - Integer.numberOfLeadingZeros(n);
+		return Math.max(2, Math.min(16, log - 2));
+	}
+
+}
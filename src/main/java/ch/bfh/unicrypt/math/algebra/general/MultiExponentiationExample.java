@@ -0,0 +1,164 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.general;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.helper.ParallelLoop;
+import ch.bfh.unicrypt.math.algebra.additive.classes.ECZModPrime;
+import ch.bfh.unicrypt.math.algebra.additive.parameters.ECZModPrimeParameters;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.CyclicGroup;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
+import java.math.BigInteger;
+
+/**
+ *
+ * @see MultiExponentiation
+ */
+public class MultiExponentiationExample {
+
+	// 1024 bit safe prime (same as in ShuffleProofSystemExample)
+	final static String P_1024 = "124839508901459225295131478904766553151715203799479873450319702669888301683936126519033292399204126892064039399466769614858812059914518351605494976695246338946504781671208279483554047133686061305170930849857475703281378907333309894394327830075584429809888154770188970744592711756609335320238222672153149255987";
+
+	public static void example1() {
+
+		// Small group and negative exponents
+		GStarModSafePrime group = GStarModSafePrime.getInstance(23);
+		Element[] bases = new Element[]{group.getElement(2), group.getElement(3), group.getElement(4)};
+		BigInteger[] exponents = new BigInteger[]{BigInteger.valueOf(5), BigInteger.valueOf(-7), BigInteger.valueOf(10)};
+
+		Example.setLabelLength("Multi-SelfApply");
+		Example.printLine("Naive", MultiExponentiation.naive(group, bases, exponents));
+		Example.printLine("Multi-SelfApply", group.multiSelfApply(bases, exponents));
+		Example.printLine("Straus", MultiExponentiation.straus(group, bases, exponents));
+		Example.printLine("Pippenger", MultiExponentiation.pippenger(group, bases, exponents));
+	}
+
+	public static void example2() {
+
+		GStarModSafePrime group = GStarModSafePrime.getInstance(new BigInteger(P_1024, 10));
+		for (int n : new int[]{2, 10, 100, 1000}) {
+			compare(group, n);
+		}
+	}
+
+	public static void example3() {
+
+		ECZModPrime group = ECZModPrime.getInstance(ECZModPrimeParameters.SECP256r1);
+		for (int n : new int[]{2, 10, 100, 1000}) {
+			compare(group, n);
+		}
+	}
+
+	public static void example4() {
+
+		// Fixed bases, e.g. the independent generators of a permutation commitment scheme
+		GStarModSafePrime group = GStarModSafePrime.getInstance(new BigInteger(P_1024, 10));
+		int n = 1000;
+		Element[] bases = new Element[n];
+		BigInteger[] exponents = new BigInteger[n];
+		for (int i = 0; i < n; i++) {
+			bases[i] = group.getRandomElement();
+			exponents[i] = group.getZModOrder().getRandomElement().convertToBigInteger();
+		}
+		int maxBitLength = group.getZModOrder().getModulus().bitLength();
+
+		long time = System.currentTimeMillis();
+		PreparedMultiExponentiation prepared = PreparedMultiExponentiation.getInstance(group, bases, maxBitLength);
+		long time1 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		Element result1 = MultiExponentiation.multiSelfApply(ParallelLoop.getDefaultPool(), group, bases, exponents);
+		long time2 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		Element result2 = prepared.multiSelfApply(ParallelLoop.getDefaultPool(), exponents);
+		long time3 = System.currentTimeMillis() - time;
+
+		Example.setLabelLength("Multi-SelfApply");
+		Example.printLine("n", n);
+		Example.printLine("Preparation", time1 + " ms");
+		Example.printLine("Multi-SelfApply", time2 + " ms");
+		Example.printLine("Prepared", time3 + " ms");
+		Example.printLine("Equal", result1.isEquivalent(result2));
+	}
+
+	private static void compare(CyclicGroup group, int n) {
+		Element[] bases = new Element[n];
+		BigInteger[] exponents = new BigInteger[n];
+		for (int i = 0; i < n; i++) {
+			bases[i] = group.getRandomElement();
+			exponents[i] = group.getZModOrder().getRandomElement().convertToBigInteger();
+		}
+
+		long time = System.currentTimeMillis();
+		Element result1 = MultiExponentiation.naive(group, bases, exponents);
+		long time1 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		Element result2 = group.multiSelfApply(bases, exponents);
+		long time2 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		Element result3 = MultiExponentiation.straus(group, bases, exponents);
+		long time3 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		Element result4 = MultiExponentiation.pippenger(group, bases, exponents);
+		long time4 = System.currentTimeMillis() - time;
+
+		Example.setLabelLength("Multi-SelfApply");
+		Example.printLine("n", n);
+		Example.increaseIndentLevel();
+		Example.printLine("Naive", time1 + " ms");
+		Example.printLine("Multi-SelfApply", time2 + " ms");
+		Example.printLine("Straus", time3 + " ms");
+		Example.printLine("Pippenger", time4 + " ms");
+		Example.printLine("Equal", result1.isEquivalent(result2) && result1.isEquivalent(result3) && result1.isEquivalent(result4));
+		Example.decreaseIndentLevel();
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
@@ -0,0 +1,161 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.general;
+
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Group;
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Multi-exponentiation {@code b_1^e_1 * ... * b_n^e_n} for bases that are fixed in advance, such as the independent
+ * generators of a permutation commitment scheme. For each base, the powers {@code b_i^(2^(j*d))} for
+ * {@code 0 <= j < parts} are precomputed, where {@code d} is the maximal bit length of the exponents divided by
+ * {@code parts}. Each exponent is then split into {@code parts} digits of {@code d} bits, and the product is computed
+ * by {@link MultiExponentiation} over {@code n*parts} bases with {@code d}-bit exponents. This reduces the number of
+ * squarings by the factor {@code parts}, and Pippenger's method profits from the larger number of bases. The tables
+ * require {@code n*parts} group elements, which is much less than one {@link
+ * ch.bfh.unicrypt.math.algebra.multiplicative.FixedBaseExponentiation} table per base. Exponents that are negative or
+ * longer than the maximal bit length are computed without the precomputed powers.
+ * <p>
+ * @see ch.bfh.unicrypt.math.algebra.general.MultiExponentiationExample
+ */
+public class PreparedMultiExponentiation {
+
+	public static final int DEFAULT_PARTS = 4;
+
+	private final Group group;
+	private final Element[] bases;
+	private final int maxBitLength;
+	private final int parts;
+	private final int digitLength;
+	private final Element[] powers;
+
+	private PreparedMultiExponentiation(Group group, Element[] bases, int maxBitLength, int parts) {
+		this.group = group;
+		this.bases = bases.clone();
+		this.maxBitLength = maxBitLength;
+		this.parts = parts;
+		this.digitLength = (maxBitLength + parts - 1) / parts;
+
+		// b_i^(2^(j*d)) at index i*parts+j
+		this.powers = new Element[bases.length * parts];
+		for (int i = 0; i < bases.length; i++) {
+			Element power = bases[i];
+			this.powers[i * parts] = power;
+			for (int j = 1; j < parts; j++) {
+				for (int s = 0; s < this.digitLength; s++) {
+					power = group.apply(power, power);
+				}
+				this.powers[i * parts + j] = power;
+			}
+		}
+	}
+
+	public static PreparedMultiExponentiation getInstance(Group group, Element[] bases, int maxBitLength) {
+		return PreparedMultiExponentiation.getInstance(group, bases, maxBitLength, DEFAULT_PARTS);
+	}
+
+	/**
+	 * Precomputes the powers of the given bases.
+	 * <p>
+	 * @param group        The group
+	 * @param bases        The fixed bases
+	 * @param maxBitLength The maximal bit length of the exponents
+	 * @param parts        The number of digits per exponent
+	 * @return The prepared multi-exponentiation
+	 */
+	public static PreparedMultiExponentiation getInstance(Group group, Element[] bases, int maxBitLength, int parts) {
+		if (group == null || bases == null || maxBitLength < 1 || parts < 1) {
+			throw new IllegalArgumentException();
+		}
+		for (Element base : bases) {
+			if (base == null || !group.contains(base)) {
+				throw new IllegalArgumentException();
+			}
+		}
+		return new PreparedMultiExponentiation(group, bases, maxBitLength, parts);
+	}
+
+	public Group getGroup() {
+		return this.group;
+	}
+
+	public int getSize() {
+		return this.bases.length;
+	}
+
+	public int getMaxBitLength() {
+		return this.maxBitLength;
+	}
+
+	/**
+	 * Computes the product of the powers of the fixed bases on the threads of the given pool (see
+	 * {@link MultiExponentiation#multiSelfApply(ForkJoinPool, Group, Element[], BigInteger[])}).
+	 * <p>
+	 * @param pool      The pool
+	 * @param exponents The exponents
+	 * @return The product of powers
+	 */
+	public Element multiSelfApply(ForkJoinPool pool, BigInteger[] exponents) {
+		if (pool == null || exponents == null || exponents.length != this.bases.length) {
+			throw new IllegalArgumentException();
+		}
+		for (BigInteger exponent : exponents) {
+			if (exponent == null) {
+				throw new IllegalArgumentException();
+			}
+			if (exponent.signum() < 0 || exponent.bitLength() > this.maxBitLength) {
+				return MultiExponentiation.multiSelfApply(pool, this.group, this.bases, exponents);
+			}
+		}
+		BigInteger mask = BigInteger.ONE.shiftLeft(this.digitLength).subtract(BigInteger.ONE);
+		BigInteger[] digits = new BigInteger[this.powers.length];
+		for (int i = 0; i < exponents.length; i++) {
+			for (int j = 0; j < this.parts; j++) {
+				digits[i * this.parts + j] = exponents[i].shiftRight(j * this.digitLength).and(mask);
+			}
+		}
+		return MultiExponentiation.multiSelfApply(pool, this.group, this.powers, digits);
+	}
+
+}
@@ -0,0 +1,219 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.multiplicative;
+
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarMod;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModElement;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fixed-base exponentiation for elements of {@link GStarMod} groups (e.g. {@code GStarModSafePrime} or
+ * {@code GStarModPrime}). For a given base {@code g}, a table {@code g^(j*2^(w*i))} is computed once for all windows
+ * {@code i} of the exponent and all digits {@code 0 < j < 2^w}. Every subsequent exponentiation then only requires one
+ * modular multiplication per window, i.e. no squarings at all. This pays off as soon as the same base (typically a
+ * generator or a public key) is raised to many different exponents, as in ElGamal encryption, Pedersen commitments, or
+ * re-encryption mixing.
+ * <p>
+ * The table elements are computed with the group operation, and {@link #power(BigInteger)} combines them with the
+ * group operation, i.e. the membership test of {@code getElement(BigInteger)} is never repeated for the results.
+ * <p>
+ * Prepared instances obtained from {@link #getInstance(GStarModElement)} are cached and can be shared among threads.
+ * Since each table holds about {@code 2^w*|q|/w} group elements, only the {@link #MAX_CACHED_INSTANCES} most recently
+ * used instances are kept. Tables for bases that are only used temporarily, such as public keys, should be created
+ * with {@link #getInstance(GStarModElement, int)} and kept by the caller.
+ * <p>
+ * @see ch.bfh.unicrypt.math.algebra.multiplicative.FixedBaseExponentiationExample
+ */
+public class FixedBaseExponentiation {
+
+	public static final int DEFAULT_WINDOW_SIZE = 6;
+
+	public static final int MAX_CACHED_INSTANCES = 16;
+
+	private static final Map<GStarModElement, FixedBaseExponentiation> INSTANCES = Collections.synchronizedMap(
+		   new LinkedHashMap<GStarModElement, FixedBaseExponentiation>(MAX_CACHED_INSTANCES, 0.75f, true) {
+
+			   @Override
+			   protected boolean removeEldestEntry(Map.Entry<GStarModElement, FixedBaseExponentiation> eldest) {
+				   return this.size() > MAX_CACHED_INSTANCES;
+			   }
+
+		   });
+
+	private final GStarModElement base;
+	private final GStarMod group;
+	private final BigInteger modulus;
+	private final BigInteger order;
+	private final int windowSize;
+	private final GStarModElement[][] table;
+
+	private FixedBaseExponentiation(GStarModElement base, int windowSize) {
+		this.base = base;
+		this.group = base.getSet();
+		this.modulus = this.group.getModulus();
+		this.order = this.group.getOrder();
+		this.windowSize = windowSize;
+
+		int digits = 1 << windowSize;
+		int windows = (this.order.bitLength() + windowSize - 1) / windowSize;
+		this.table = new GStarModElement[windows][digits];
+		GStarModElement windowBase = base;
+		for (int i = 0; i < windows; i++) {
+			this.table[i][0] = this.group.getIdentityElement();
+			this.table[i][1] = windowBase;
+			for (int j = 2; j < digits; j++) {
+				this.table[i][j] = this.group.apply(this.table[i][j - 1], windowBase);
+			}
+			windowBase = this.group.apply(this.table[i][digits - 1], windowBase);
+		}
+	}
+
+	/**
+	 * Returns the prepared instance for the given base using the default window size. The table is computed on the
+	 * first call and reused afterwards, as long as the instance remains among the most recently used ones.
+	 * <p>
+	 * @param base The base of the exponentiations
+	 * @return The prepared instance
+	 */
+	public static FixedBaseExponentiation getInstance(GStarModElement base) {
+		if (base == null) {
+			throw new IllegalArgumentException();
+		}
+		FixedBaseExponentiation instance = INSTANCES.get(base);
+		if (instance == null) {
+			instance = new FixedBaseExponentiation(base, DEFAULT_WINDOW_SIZE);
+			INSTANCES.put(base, instance);
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns a new (non-cached) instance for the given base and window size. Larger windows reduce the number of
+	 * multiplications per exponentiation at the cost of a table of size {@code 2^w * |q|/w} group elements.
+	 * <p>
+	 * @param base       The base of the exponentiations
+	 * @param windowSize The window size {@code w}
+	 * @return The new instance
+	 */
+	public static FixedBaseExponentiation getInstance(GStarModElement base, int windowSize) {
+		if (base == null || windowSize < 1 || windowSize > 16) {
+			throw new IllegalArgumentException();
+		}
+		return new FixedBaseExponentiation(base, windowSize);
+	}
+
+	public GStarModElement getBase() {
+		return this.base;
+	}
+
+	public int getWindowSize() {
+		return this.windowSize;
+	}
+
+	public GStarModElement power(Element exponent) {
+		if (exponent == null) {
+			throw new IllegalArgumentException();
+		}
+		return this.power(exponent.convertToBigInteger());
+	}
+
+	/**
+	 * Computes {@code base^exponent}. The result is obtained by applying the group operation to the table elements,
+	 * i.e. it is not checked again for membership.
+	 * <p>
+	 * @param exponent The exponent
+	 * @return The power
+	 */
+	public GStarModElement power(BigInteger exponent) {
+		if (exponent == null) {
+			throw new IllegalArgumentException();
+		}
+		BigInteger e = exponent.mod(this.order);
+		GStarModElement result = null;
+		for (int i = 0; i < this.table.length; i++) {
+			int digit = this.getDigit(e, i);
+			if (digit != 0) {
+				result = (result == null) ? this.table[i][digit] : this.group.apply(result, this.table[i][digit]);
+			}
+		}
+		return (result == null) ? this.table[0][0] : result;
+	}
+
+	/**
+	 * Computes the exponentiation without wrapping the result into a group element. This is useful in tight loops, in
+	 * which intermediate results are combined further before a group element is created.
+	 * <p>
+	 * @param exponent The exponent
+	 * @return The value of {@code base^exponent mod p}
+	 */
+	public BigInteger powerValue(BigInteger exponent) {
+		if (exponent == null) {
+			throw new IllegalArgumentException();
+		}
+		BigInteger e = exponent.mod(this.order);
+		BigInteger result = BigInteger.ONE;
+		for (int i = 0; i < this.table.length; i++) {
+			int digit = this.getDigit(e, i);
+			if (digit != 0) {
+				result = result.multiply(this.table[i][digit].getValue()).mod(this.modulus);
+			}
+		}
+		return result;
+	}
+
+	// returns the digit of the exponent in the given window
+	private int getDigit(BigInteger exponent, int window) {
+		int digit = 0;
+		int offset = window * this.windowSize;
+		for (int k = 0; k < this.windowSize; k++) {
+			if (exponent.testBit(offset + k)) {
+				digit |= 1 << k;
+			}
+		}
+		return digit;
+	}
+
+}
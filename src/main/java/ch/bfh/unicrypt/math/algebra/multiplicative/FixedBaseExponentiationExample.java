@@ -0,0 +1,182 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.multiplicative;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.crypto.schemes.commitment.classes.PedersenCommitmentScheme;
+import ch.bfh.unicrypt.crypto.schemes.encryption.classes.ElGamalEncryptionScheme;
+import ch.bfh.unicrypt.helper.prime.SafePrime;
+import ch.bfh.unicrypt.math.algebra.dualistic.classes.ZMod;
+import ch.bfh.unicrypt.math.algebra.general.classes.Pair;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModElement;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
+import java.math.BigInteger;
+
+/**
+ *
+ * @see FixedBaseExponentiation
+ */
+public class FixedBaseExponentiationExample {
+
+	// 2048 bit safe prime (same as in ShuffleProofSystemExample)
+	final static String P_2048 = "32317006071311007300714876688669951960444102669715484032130345427524655138867890893197201411522913463688717960921898019494119559150490921095088152386448283120630877367300996091750197750389652106796057638384067568276792218642619756161838094338476170470581645852036305042887575891541065808607552399123930385521914333389668342420684974786564569494856176035326322058077805659331026192708460314150258592864177116725943603718461857357598351152301645904403697613233287231227125684710820209725157101726931323469678542580656697935045997268352998638215525166389437335543602135433229604645318478604952148193555853611059594288367";
+
+	public static void example1() {
+
+		// Create cyclic group G_q (modulo 64 bits) and get default generator
+		GStarModSafePrime G_q = GStarModSafePrime.getInstance(SafePrime.getRandomInstance(64));
+		GStarModElement generator = G_q.getDefaultGenerator();
+
+		// Prepare generator
+		FixedBaseExponentiation fbe = FixedBaseExponentiation.getInstance(generator);
+
+		// Compare with ordinary exponentiation
+		Element exponent = G_q.getZModOrder().getRandomElement();
+		Element result1 = generator.power(exponent);
+		Element result2 = fbe.power(exponent);
+
+		Example.setLabelLength("Fixed-Base Power");
+		Example.printLine("Cylic Group", G_q);
+		Example.printLine("Generator", generator);
+		Example.printLine("Exponent", exponent);
+		Example.printLine("Power", result1);
+		Example.printLine("Fixed-Base Power", result2);
+		Example.printLine("Equal", result1.isEquivalent(result2));
+	}
+
+	public static void example2() {
+
+		// Create cyclic group G_q (modulo 2048 bits) and get default generator
+		GStarModSafePrime G_q = GStarModSafePrime.getInstance(new BigInteger(P_2048, 10));
+		GStarModElement generator = G_q.getDefaultGenerator();
+		ZMod Z_q = G_q.getZModOrder();
+		int n = 200;
+
+		// Create ElGamal encryption scheme and keys
+		ElGamalEncryptionScheme elGamal = ElGamalEncryptionScheme.getInstance(generator);
+		Pair keyPair = elGamal.getKeyPairGenerator().generateKeyPair();
+		GStarModElement publicKey = (GStarModElement) keyPair.getSecond();
+		Element message = elGamal.getMessageSpace().getRandomElement();
+
+		Element[] randomizations = new Element[n];
+		for (int i = 0; i < n; i++) {
+			randomizations[i] = Z_q.getRandomElement();
+		}
+
+		// Ordinary encryptions (the times include the creation of the ciphertexts, in both cases the resulting group
+		// elements are created by group operations without an additional membership test)
+		long time = System.currentTimeMillis();
+		Element[] encryptions1 = new Element[n];
+		for (int i = 0; i < n; i++) {
+			encryptions1[i] = elGamal.encrypt(publicKey, message, randomizations[i]);
+		}
+		long time1 = System.currentTimeMillis() - time;
+
+		// Encryptions with prepared generator and public key (the preparation is measured separately, the public key table
+		// is not cached globally)
+		time = System.currentTimeMillis();
+		FixedBaseExponentiation fbeGenerator = FixedBaseExponentiation.getInstance(generator);
+		FixedBaseExponentiation fbePublicKey = FixedBaseExponentiation.getInstance(publicKey, FixedBaseExponentiation.DEFAULT_WINDOW_SIZE);
+		long timePreparation = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		Element[] encryptions2 = new Element[n];
+		for (int i = 0; i < n; i++) {
+			encryptions2[i] = Pair.getInstance(fbeGenerator.power(randomizations[i]), fbePublicKey.power(randomizations[i]).multiply(message));
+		}
+		long time2 = System.currentTimeMillis() - time;
+
+		Example.setLabelLength("Fixed-Base Encryptions");
+		Example.printLine("Encryptions", n);
+		Example.printLine("Standard Encryptions", time1 + " ms");
+		Example.printLine("Preparation", timePreparation + " ms");
+		Example.printLine("Fixed-Base Encryptions", time2 + " ms");
+		Example.printLine("Equal", Tuple.getInstance(encryptions1).isEquivalent(Tuple.getInstance(encryptions2)));
+	}
+
+	public static void example3() {
+
+		// Create cyclic group G_q (modulo 2048 bits) and Pedersen commitment scheme
+		GStarModSafePrime G_q = GStarModSafePrime.getInstance(new BigInteger(P_2048, 10));
+		PedersenCommitmentScheme pedersen = PedersenCommitmentScheme.getInstance(G_q);
+		int n = 200;
+
+		// Prepare both generators of the commitment scheme
+		FixedBaseExponentiation fbeMessage = FixedBaseExponentiation.getInstance((GStarModElement) pedersen.getMessageGenerator());
+		FixedBaseExponentiation fbeRandomization = FixedBaseExponentiation.getInstance((GStarModElement) pedersen.getRandomizationGenerator());
+
+		Element[] messages = new Element[n];
+		Element[] randomizations = new Element[n];
+		for (int i = 0; i < n; i++) {
+			messages[i] = pedersen.getMessageSpace().getRandomElement();
+			randomizations[i] = pedersen.getRandomizationSpace().getRandomElement();
+		}
+
+		// Compare the commitment times only, the tables of the generators have already been prepared above
+		long time = System.currentTimeMillis();
+		Element[] commitments1 = new Element[n];
+		for (int i = 0; i < n; i++) {
+			commitments1[i] = pedersen.commit(messages[i], randomizations[i]);
+		}
+		long time1 = System.currentTimeMillis() - time;
+
+		time = System.currentTimeMillis();
+		Element[] commitments2 = new Element[n];
+		for (int i = 0; i < n; i++) {
+			commitments2[i] = fbeRandomization.power(randomizations[i]).multiply(fbeMessage.power(messages[i]));
+		}
+		long time2 = System.currentTimeMillis() - time;
+
+		Example.setLabelLength("Fixed-Base Commitments");
+		Example.printLine("Commitments", n);
+		Example.printLine("Standard Commitments", time1 + " ms");
+		Example.printLine("Fixed-Base Commitments", time2 + " ms");
+		Example.printLine("Equal", Tuple.getInstance(commitments1).isEquivalent(Tuple.getInstance(commitments2)));
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
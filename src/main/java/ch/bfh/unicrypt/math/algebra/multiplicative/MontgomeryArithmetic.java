@@ -0,0 +1,343 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.multiplicative;
+
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarMod;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModElement;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Modular arithmetic in Montgomery form for a fixed odd modulus {@code n}. Values are stored as fixed-size arrays of
+ * {@code k} limbs in little-endian order, where each {@code long} limb holds 32 bits such that limb products fit into
+ * 64 bits. Inside a tight loop (exponentiation, product of many factors), values stay in Montgomery form
+ * {@code a*R mod n} with {@code R=2^(32k)}, and each multiplication is a single CIOS pass without allocation and
+ * without division. Conversion takes place only at the API boundary, i.e. callers pass and receive
+ * {@link BigInteger} values or group elements.
+ * <p>
+ * Note that {@link BigInteger#modPow(BigInteger, BigInteger)} is itself Montgomery-based for odd moduli and is
+ * intrinsified by the JVM. For a single exponentiation, it therefore remains the better choice. The benefit of this
+ * class lies in long chains of multiplications (e.g. the product of all elements of a large tuple), in which
+ * {@link BigInteger} performs a full division after every step.
+ * <p>
+ * Instances are immutable and can be shared among threads. Scratch space is allocated per call.
+ * <p>
+ * @see ch.bfh.unicrypt.math.algebra.multiplicative.MontgomeryArithmeticExample
+ */
+public class MontgomeryArithmetic {
+
+	private static final long MASK = 0xFFFFFFFFL;
+	private static final int LIMB_SIZE = 32;
+
+	private static final Map<BigInteger, MontgomeryArithmetic> INSTANCES = new ConcurrentHashMap<>();
+
+	private final BigInteger modulus;
+	private final int size;
+	private final long[] n;
+	private final long nPrime;
+	private final long[] one;
+	private final long[] r2;
+
+	private MontgomeryArithmetic(BigInteger modulus) {
+		this.modulus = modulus;
+		this.size = (modulus.bitLength() + LIMB_SIZE - 1) / LIMB_SIZE;
+		this.n = this.toLimbs(modulus);
+		BigInteger base = BigInteger.ONE.shiftLeft(LIMB_SIZE);
+		this.nPrime = modulus.modInverse(base).negate().mod(base).longValue();
+		this.one = this.toMontgomery(BigInteger.ONE);
+		this.r2 = this.toMontgomery(BigInteger.ONE.shiftLeft(LIMB_SIZE * this.size));
+	}
+
+	public static MontgomeryArithmetic getInstance(BigInteger modulus) {
+		if (modulus == null || modulus.signum() <= 0 || !modulus.testBit(0) || modulus.equals(BigInteger.ONE)) {
+			throw new IllegalArgumentException();
+		}
+		MontgomeryArithmetic instance = INSTANCES.get(modulus);
+		if (instance == null) {
+			instance = new MontgomeryArithmetic(modulus);
+			INSTANCES.put(modulus, instance);
+		}
+		return instance;
+	}
+
+	public static MontgomeryArithmetic getInstance(GStarMod group) {
+		if (group == null) {
+			throw new IllegalArgumentException();
+		}
+		return MontgomeryArithmetic.getInstance(group.getModulus());
+	}
+
+	public BigInteger getModulus() {
+		return this.modulus;
+	}
+
+	public int getSize() {
+		return this.size;
+	}
+
+	public long[] toMontgomery(BigInteger value) {
+		return this.toLimbs(value.mod(this.modulus).shiftLeft(LIMB_SIZE * this.size).mod(this.modulus));
+	}
+
+	public BigInteger fromMontgomery(long[] value) {
+		long[] unit = new long[this.size];
+		unit[0] = 1;
+		long[] result = new long[this.size];
+		this.multiply(value, unit, result, new long[this.size + 2]);
+		return this.toBigInteger(result);
+	}
+
+	/**
+	 * Multiplies two values in Montgomery form and returns the result in Montgomery form.
+	 * <p>
+	 * @param a The first factor
+	 * @param b The second factor
+	 * @return The product {@code a*b/R mod n}
+	 */
+	public long[] multiply(long[] a, long[] b) {
+		long[] result = new long[this.size];
+		this.multiply(a, b, result, new long[this.size + 2]);
+		return result;
+	}
+
+	/**
+	 * Allocation-free version of {@link #multiply(long[], long[])}. The result may be the same array as one of the
+	 * factors, but not the scratch array of size {@code k+2}.
+	 * <p>
+	 * @param a       The first factor
+	 * @param b       The second factor
+	 * @param result  The array for the result
+	 * @param scratch The scratch array of size {@code k+2}
+	 */
+	public void multiply(long[] a, long[] b, long[] result, long[] scratch) {
+		int k = this.size;
+		long[] t = scratch;
+		for (int i = 0; i < k + 2; i++) {
+			t[i] = 0;
+		}
+		for (int i = 0; i < k; i++) {
+			// t = t + a * b[i]
+			long bi = b[i];
+			long carry = 0;
+			for (int j = 0; j < k; j++) {
+				long sum = t[j] + a[j] * bi + carry;
+				// a[j] * bi + t[j] + carry < 2^64 (unsigned), hence no overflow
+				t[j] = sum & MASK;
+				carry = sum >>> LIMB_SIZE;
+			}
+			long sum = t[k] + carry;
+			t[k] = sum & MASK;
+			t[k + 1] = sum >>> LIMB_SIZE;
+
+			// t = (t + m * n) / 2^32
+			long m = (t[0] * this.nPrime) & MASK;
+			sum = t[0] + m * this.n[0];
+			carry = sum >>> LIMB_SIZE;
+			for (int j = 1; j < k; j++) {
+				sum = t[j] + m * this.n[j] + carry;
+				t[j - 1] = sum & MASK;
+				carry = sum >>> LIMB_SIZE;
+			}
+			sum = t[k] + carry;
+			t[k - 1] = sum & MASK;
+			t[k] = t[k + 1] + (sum >>> LIMB_SIZE);
+		}
+		// final subtraction
+		if (t[k] != 0 || this.compare(t, this.n) >= 0) {
+			long borrow = 0;
+			for (int j = 0; j < k; j++) {
+				long diff = t[j] - this.n[j] - borrow;
+				result[j] = diff & MASK;
+				borrow = (diff >>> 63);
+			}
+		} else {
+			System.arraycopy(t, 0, result, 0, k);
+		}
+	}
+
+	/**
+	 * Computes {@code a^e} for a value {@code a} in Montgomery form using a fixed window of 4 bits. The result is in
+	 * Montgomery form.
+	 * <p>
+	 * @param a        The base in Montgomery form
+	 * @param exponent The non-negative exponent
+	 * @return The power in Montgomery form
+	 */
+	public long[] power(long[] a, BigInteger exponent) {
+		if (exponent.signum() < 0) {
+			throw new IllegalArgumentException();
+		}
+		int w = 4;
+		int k = this.size;
+		long[] scratch = new long[k + 2];
+		long[][] table = new long[1 << w][];
+		table[0] = this.one.clone();
+		table[1] = a.clone();
+		for (int j = 2; j < table.length; j++) {
+			table[j] = new long[k];
+			this.multiply(table[j - 1], a, table[j], scratch);
+		}
+		long[] result = this.one.clone();
+		int windows = (exponent.bitLength() + w - 1) / w;
+		for (int i = windows - 1; i >= 0; i--) {
+			for (int s = 0; s < w; s++) {
+				this.multiply(result, result, result, scratch);
+			}
+			int digit = 0;
+			for (int s = 0; s < w; s++) {
+				if (exponent.testBit(i * w + s)) {
+					digit |= 1 << s;
+				}
+			}
+			if (digit != 0) {
+				this.multiply(result, table[digit], result, scratch);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Computes {@code base^exponent mod n} by converting the base into Montgomery form, exponentiating, and converting
+	 * the result back.
+	 * <p>
+	 * @param base     The base
+	 * @param exponent The exponent
+	 * @return The power
+	 */
+	public BigInteger modPow(BigInteger base, BigInteger exponent) {
+		if (exponent.signum() < 0) {
+			return this.modPow(base.modInverse(this.modulus), exponent.negate());
+		}
+		return this.fromMontgomery(this.power(this.toMontgomery(base), exponent));
+	}
+
+	/**
+	 * Computes the product of the given values modulo {@code n}. All intermediate results stay in Montgomery form.
+	 * <p>
+	 * @param values The factors
+	 * @return The product of all factors modulo {@code n}
+	 */
+	public BigInteger product(BigInteger[] values) {
+		if (values.length == 0) {
+			return BigInteger.ONE.mod(this.modulus);
+		}
+		// Without converting the factors, the chain yields x_1*...*x_m/R^(m-1), which is corrected at the end by a
+		// single multiplication with R^(m-1) in Montgomery form (obtained from m-1 by square-and-multiply)
+		long[] scratch = new long[this.size + 2];
+		long[] result = this.toLimbs(this.reduce(values[0]));
+		long[] factor = new long[this.size];
+		for (int i = 1; i < values.length; i++) {
+			this.toLimbs(this.reduce(values[i]), factor);
+			this.multiply(result, factor, result, scratch);
+		}
+		long[] correction = this.power(this.r2, BigInteger.valueOf(values.length - 1));
+		this.multiply(result, correction, result, scratch);
+		return this.toBigInteger(result);
+	}
+
+	/**
+	 * Computes the product of all elements of a tuple of {@link GStarModElement}s. This corresponds to
+	 * {@code group.apply(tuple.getAt(0), ..., tuple.getAt(n-1))}.
+	 * <p>
+	 * @param group The group of the tuple elements
+	 * @param tuple The tuple
+	 * @return The product of all tuple elements
+	 */
+	public GStarModElement product(GStarMod group, Tuple tuple) {
+		if (group == null || tuple == null || !group.getModulus().equals(this.modulus)) {
+			throw new IllegalArgumentException();
+		}
+		BigInteger[] values = new BigInteger[tuple.getArity()];
+		for (int i = 0; i < values.length; i++) {
+			Element element = tuple.getAt(i);
+			if (!group.contains(element)) {
+				throw new IllegalArgumentException();
+			}
+			values[i] = element.convertToBigInteger();
+		}
+		return group.getElement(this.product(values));
+	}
+
+	private BigInteger reduce(BigInteger value) {
+		if (value.signum() >= 0 && value.compareTo(this.modulus) < 0) {
+			return value;
+		}
+		return value.mod(this.modulus);
+	}
+
+	private int compare(long[] a, long[] b) {
+		for (int j = this.size - 1; j >= 0; j--) {
+			if (a[j] != b[j]) {
+				return (a[j] < b[j]) ? -1 : 1;
+			}
+		}
+		return 0;
+	}
+
+	private long[] toLimbs(BigInteger value) {
+		long[] limbs = new long[this.size];
+		this.toLimbs(value, limbs);
+		return limbs;
+	}
+
+	private void toLimbs(BigInteger value, long[] limbs) {
+		byte[] bytes = value.toByteArray();
+		for (int j = 0; j < this.size; j++) {
+			limbs[j] = 0;
+		}
+		for (int i = 0; i < bytes.length && i < 4 * this.size; i++) {
+			limbs[i / 4] |= (bytes[bytes.length - 1 - i] & 0xFFL) << (8 * (i % 4));
+		}
+	}
+
+	private BigInteger toBigInteger(long[] limbs) {
+		byte[] bytes = new byte[4 * this.size];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[bytes.length - 1 - i] = (byte) (limbs[i / 4] >>> (8 * (i % 4)));
+		}
+		return new BigInteger(1, bytes);
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.math.algebra.multiplicative;
+
+import ch.bfh.unicrypt.Example;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductGroup;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.general.interfaces.Element;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModElement;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
+import java.math.BigInteger;
+
+/**
+ *
+ * @see MontgomeryArithmetic
+ */
+public class MontgomeryArithmeticExample {
+
+	// A few safe primes (same as in ShuffleProofSystemExample)
+	final static String P_1024 = "124839508901459225295131478904766553151715203799479873450319702669888301683936126519033292399204126892064039399466769614858812059914518351605494976695246338946504781671208279483554047133686061305170930849857475703281378907333309894394327830075584429809888154770188970744592711756609335320238222672153149255987";
+	final static String P_2048 = "32317006071311007300714876688669951960444102669715484032130345427524655138867890893197201411522913463688717960921898019494119559150490921095088152386448283120630877367300996091750197750389652106796057638384067568276792218642619756161838094338476170470581645852036305042887575891541065808607552399123930385521914333389668342420684974786564569494856176035326322058077805659331026192708460314150258592864177116725943603718461857357598351152301645904403697613233287231227125684710820209725157101726931323469678542580656697935045997268352998638215525166389437335543602135433229604645318478604952148193555853611059594288367";
+
+	public static void example1() {
+
+		// Create cyclic group G_q (modulo 1187)
+		GStarModSafePrime G_q = GStarModSafePrime.getInstance(1187);
+		MontgomeryArithmetic montgomery = MontgomeryArithmetic.getInstance(G_q);
+
+		GStarModElement x = G_q.getRandomElement();
+		GStarModElement y = G_q.getRandomElement();
+		BigInteger e = G_q.getZModOrder().getRandomElement().convertToBigInteger();
+
+		// Multiplication in Montgomery form
+		long[] xm = montgomery.toMontgomery(x.getValue());
+		long[] ym = montgomery.toMontgomery(y.getValue());
+		BigInteger product = montgomery.fromMontgomery(montgomery.multiply(xm, ym));
+
+		// Exponentiation in Montgomery form
+		BigInteger power = montgomery.fromMontgomery(montgomery.power(xm, e));
+
+		Example.setLabelLength("Montgomery Product");
+		Example.printLine("Cylic Group", G_q);
+		Example.printLine("Elements", x, y);
+		Example.printLine("Product", x.multiply(y));
+		Example.printLine("Montgomery Product", product);
+		Example.printLine("Power", x.power(e));
+		Example.printLine("Montgomery Power", power);
+	}
+
+	public static void example2() {
+
+		// Product of all elements of a large tuple
+		for (String p : new String[]{P_1024, P_2048}) {
+			GStarModSafePrime G_q = GStarModSafePrime.getInstance(new BigInteger(p, 10));
+			MontgomeryArithmetic montgomery = MontgomeryArithmetic.getInstance(G_q);
+			int size = 10000;
+			Tuple tuple = ProductGroup.getInstance(G_q, size).getRandomElement();
+
+			long time = System.currentTimeMillis();
+			Element product1 = G_q.getIdentityElement();
+			for (int i = 0; i < size; i++) {
+				product1 = product1.apply(tuple.getAt(i));
+			}
+			long time1 = System.currentTimeMillis() - time;
+
+			time = System.currentTimeMillis();
+			Element product2 = montgomery.product(G_q, tuple);
+			long time2 = System.currentTimeMillis() - time;
+
+			Example.setLabelLength("Montgomery Product");
+			Example.printLine("Bit Length", G_q.getModulus().bitLength());
+			Example.printLine("Tuple Product", time1 + " ms");
+			Example.printLine("Montgomery Product", time2 + " ms");
+			Example.printLine("Equal", product1.isEquivalent(product2));
+		}
+	}
+
+	public static void main(final String[] args) {
+		Example.runExamples();
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * UniCrypt
+ *
+ *  UniCrypt(tm) : Cryptographical framework allowing the implementation of cryptographic protocols e.g. e-voting
+ *  Copyright (C) 2014 Bern University of Applied Sciences (BFH), Research Institute for
+ *  Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *  Quellgasse 21, CH-2501 Biel, Switzerland
+ *
+ *  Licensed under Dual License consisting of:
+ *  1. GNU Affero General Public License (AGPL) v3
+ *  and
+ *  2. Commercial license
+ *
+ *
+ *  1. This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU Affero General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU Affero General Public License for more details.
+ *
+ *   You should have received a copy of the GNU Affero General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ *  2. Licensees holding valid commercial licenses for UniCrypt may use this file in
+ *   accordance with the commercial license agreement provided with the
+ *   Software or, alternatively, in accordance with the terms contained in
+ *   a written agreement between you and Bern University of Applied Sciences (BFH), Research Institute for
+ *   Security in the Information Society (RISIS), E-Voting Group (EVG)
+ *   Quellgasse 21, CH-2501 Biel, Switzerland.
+ *
+ *
+ *   For further information contact <e-mail: unicrypt@bfh.ch>
+ *
+ *
+ * Redistributions of files must retain the above copyright notice.
+ */
+package ch.bfh.unicrypt.helper;
+
+import ch.bfh.unicrypt.helper.aggregator.classes.ByteArrayAggregator;
+import ch.bfh.unicrypt.helper.array.classes.ByteArray;
+import ch.bfh.unicrypt.helper.converter.classes.ConvertMethod;
+import ch.bfh.unicrypt.helper.hash.HashAlgorithm;
+import ch.bfh.unicrypt.helper.tree.Tree;
+import ch.bfh.unicrypt.math.algebra.general.classes.ProductGroup;
+import ch.bfh.unicrypt.math.algebra.general.classes.Tuple;
+import ch.bfh.unicrypt.math.algebra.multiplicative.classes.GStarModSafePrime;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Compares the hash values of {@link StreamingTreeHash} with the hash values of the trees aggregated by
+ * {@link ByteArrayAggregator}.
+ */
+public class StreamingTreeHashTest {
+
+	private static final HashAlgorithm[] HASH_ALGORITHMS = {HashAlgorithm.getInstance(), HashAlgorithm.SHA1, HashAlgorithm.SHA256};
+
+	@Test
+	public void testLeaves() {
+		for (int length : new int[]{0, 1, 2, 255, 256, 65535, 65536, 70000}) {
+			assertSameHashValue(leaf(length, length));
+		}
+		// values that look like headers
+		assertSameHashValue(Tree.getInstance(ByteArray.getInstance(0, 0, 0, 0, 1)));
+		assertSameHashValue(Tree.getInstance(ByteArray.getInstance(1, 0, 0, 0, 0)));
+	}
+
+	@Test
+	public void testNodes() {
+		Tree<ByteArray> empty = leaf(0, 0);
+		assertSameHashValue(Tree.<ByteArray>getInstance(empty));
+		assertSameHashValue(Tree.<ByteArray>getInstance(Tree.<ByteArray>getInstance(empty)));
+		assertSameHashValue(Tree.getInstance(leaf(1, 1), Tree.getInstance(leaf(255, 2), leaf(256, 3), leaf(70000, 4)), empty));
+		assertSameHashValue(Tree.getInstance(Tree.getInstance(leaf(3, 5), leaf(0, 6)), Tree.<ByteArray>getInstance(leaf(300, 7))));
+	}
+
+	@Test
+	public void testDeepTree() {
+		Tree<ByteArray> tree = leaf(17, 8);
+		for (int i = 0; i < 100; i++) {
+			tree = i % 2 == 0 ? Tree.<ByteArray>getInstance(tree) : Tree.getInstance(leaf(i, i), tree);
+		}
+		assertSameHashValue(tree);
+	}
+
+	@Test
+	public void testWideTree() {
+		Random random = new Random(9);
+		Tree<ByteArray>[] children = new Tree[1000];
+		for (int i = 0; i < children.length; i++) {
+			children[i] = leaf(random.nextInt(600), i);
+		}
+		assertSameHashValue(Tree.getInstance(children));
+	}
+
+	@Test
+	public void testElement() {
+		GStarModSafePrime group = GStarModSafePrime.getInstance(1019);
+		Tuple tuple = ProductGroup.getInstance(ProductGroup.getInstance(group, 2), 50).getRandomElement();
+		for (HashAlgorithm hashAlgorithm : HASH_ALGORITHMS) {
+			ByteArray expected = tuple.convertTo(ConvertMethod.getInstance()).aggregate(ByteArrayAggregator.getInstance()).getHashValue(hashAlgorithm);
+			assertEquals(expected, StreamingTreeHash.getInstance(hashAlgorithm).getHashValue(tuple));
+		}
+	}
+
+	private static void assertSameHashValue(Tree<ByteArray> tree) {
+		for (HashAlgorithm hashAlgorithm : HASH_ALGORITHMS) {
+			ByteArray expected = tree.aggregate(ByteArrayAggregator.getInstance()).getHashValue(hashAlgorithm);
+			assertEquals(expected, StreamingTreeHash.getInstance(hashAlgorithm).getHashValue(tree));
+		}
+	}
+
+	// leaf with a deterministic pseudo-random value of the given length
+	private static Tree<ByteArray> leaf(int length, long seed) {
+		byte[] value = new byte[length];
+		new Random(seed).nextBytes(value);
+		return Tree.getInstance(ByteArray.getInstance(value));
+	}
+
+}